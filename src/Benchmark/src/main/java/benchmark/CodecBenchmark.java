@@ -0,0 +1,106 @@
+package benchmark;
+
+import entities.Master;
+import entities.Purpose;
+import entities.Record;
+import entities.Status;
+import entities.User;
+import protocol.Frames;
+import protocol.WireFormat;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+//Форматы кадров SERIALIZED и BINARY без сети и БД (запускать из каталога src): каждый объект кодируется
+//и декодируется так же, как аргумент или ответ команды, и для каждого формата печатаются байты кадра
+//(с заголовком) и время кодирования и декодирования одного кадра. Замер - codecRounds раундов
+//по codecIterations операций после такого же числа раундов разогрева; в отчете медиана раундов
+public class CodecBenchmark {
+
+    //Одно сообщение: название и значение, которое уходит одним кадром
+    private record Payload(String name, Serializable value) {
+    }
+
+    private final int iterations;
+
+    private final int rounds;
+
+    //результаты кодирования и декодирования попадают сюда, чтобы JIT не выбросил замеряемый код
+    private volatile long sink;
+
+    public CodecBenchmark(int iterations, int rounds) {
+        this.iterations = iterations;
+        this.rounds = rounds;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        var properties = LoadGenerator.getPropertiesFromConfig();
+        var benchmark = new CodecBenchmark(Integer.parseInt(properties.getProperty("codecIterations", "100000").trim()),
+                Integer.parseInt(properties.getProperty("codecRounds", "5").trim()));
+        System.out.println(benchmark.run());
+    }
+
+    private static List<Payload> payloads() {
+
+        var client = new User(17, "client_login", "password", "Ivanov Ivan Ivanovich", "+375291234567",
+                Status.NOT_BANNED);
+        var master = new Master(5, "master_login", "password", 7, "Petrov Petr Petrovich", Status.NOT_BANNED);
+        var purpose = new Purpose(3, "Men's haircut", 25.5f);
+        var record = new Record(1001, purpose, client, new Date(1_700_000_000_000L));
+        var records = new ArrayList<Record>();
+        for (int i = 0; i < 50; i++)
+            records.add(new Record(1001 + i, purpose, client, new Date(1_700_000_000_000L + i * 3_600_000L)));
+        return List.of(new Payload("User", client), new Payload("Master", master), new Payload("Purpose", purpose),
+                new Payload("Record", record), new Payload("50 records", records));
+    }
+
+    public String run() throws Exception {
+
+        var builder = new StringBuilder(rounds + " rounds x " + iterations + " operations, median round")
+                .append(System.lineSeparator())
+                .append(String.format("%-12s %-11s %11s %14s %14s", "payload", "format", "frame bytes",
+                        "encode, ns/op", "decode, ns/op"));
+        for (var payload : payloads()) {
+            for (var format : WireFormat.values()) {
+                var codec = format.getCodec();
+                var encoded = codec.encode(List.of(payload.value()));
+                Object decoded = codec.open(encoded).read();
+                if (!decoded.getClass().equals(payload.value().getClass()))
+                    throw new IllegalStateException(format + " decoded " + payload.name() + " as " + decoded.getClass());
+                var encodeNanos = measure(() -> codec.encode(List.of(payload.value())).length);
+                var decodeNanos = measure(() -> codec.open(encoded).read().hashCode());
+                builder.append(System.lineSeparator()).append(String.format("%-12s %-11s %11d %14.0f %14.0f",
+                        payload.name(), format, Frames.HEADER_LENGTH + encoded.length, encodeNanos, decodeNanos));
+            }
+        }
+        return builder.toString();
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        int run() throws IOException, ClassNotFoundException;
+    }
+
+    //Медиана времени одной операции по раундам, первые rounds раундов - разогрев
+    private double measure(Operation operation) throws IOException, ClassNotFoundException {
+
+        var timings = new double[rounds];
+        for (int round = -rounds; round < rounds; round++) {
+            long accumulator = 0;
+            var start = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+                accumulator += operation.run();
+            var nanos = System.nanoTime() - start;
+            sink += accumulator;
+            if (round >= 0)
+                timings[round] = (double) nanos / iterations;
+        }
+        Arrays.sort(timings);
+        return timings[rounds / 2];
+    }
+}
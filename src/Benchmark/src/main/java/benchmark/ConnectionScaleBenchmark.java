@@ -0,0 +1,201 @@
+package benchmark;
+
+import Commands.AuthorizationCommand;
+import Commands.Command;
+import entities.Purpose;
+import enums.UserType;
+import serverEndPoint.ExecutionMode;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+//Тысячи подключений к серверу в режимах executionMode (запускать из каталога src).
+//Для каждого режима из scaleModes и каждого числа из scaleConnections в этом же процессе запускается
+//свой Server (transport = BLOCKING; без MySQL - backend = MEMORY в dbLayer config.properties),
+//открывается столько подключений, каждое входит администратором, затем scaleDriverThreads потоков
+//по кругу шлют GET_ALL_PURPOSES по всем подключениям - большую часть времени подключение простаивает,
+//как окно GUI. Память - прирост занятой кучи после GC относительно сервера без подключений;
+//клиентские сокеты лежат в той же куче, но одинаковы во всех режимах.
+//Каждое подключение занимает два файловых дескриптора процесса: нужен ulimit -n больше 2 * scaleConnections
+public class ConnectionScaleBenchmark {
+
+    //Итог одного прогона
+    record ScaleResult(ExecutionMode mode, int connections, long heapBytes, int serverThreads,
+                               int carrierThreads, boolean virtualThreadsAvailable, OperationStats stats) {
+
+        @Override
+        public String toString() {
+            var latency = stats.latency();
+            return String.format("%-9s %11d %9.1f %8.1f %10d %9d %9.1f %8.2f %7.2f%%",
+                    mode + (mode == ExecutionMode.VIRTUAL && !virtualThreadsAvailable ? "*" : ""), connections,
+                    heapBytes / 1024.0 / 1024.0, heapBytes / 1024.0 / connections, serverThreads, carrierThreads,
+                    stats.throughput(), latency.p99Micros() / 1000.0, stats.errorRate());
+        }
+    }
+
+    private final LoadSettings settings;
+
+    private final Protocol protocol;
+
+    private final int driverThreads;
+
+    private final long durationMs;
+
+    private volatile OperationMetrics metrics = new OperationMetrics();
+
+    private volatile boolean running;
+
+    public ConnectionScaleBenchmark(LoadSettings settings, Protocol protocol, int driverThreads, long durationMs) {
+        this.settings = settings;
+        this.protocol = protocol;
+        this.driverThreads = driverThreads;
+        this.durationMs = durationMs;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        var properties = LoadGenerator.getPropertiesFromConfig();
+        var benchmark = new ConnectionScaleBenchmark(LoadSettings.fromProperties(properties),
+                Protocol.valueOf(properties.getProperty("scaleProtocol", "BINARY").trim()),
+                Integer.parseInt(properties.getProperty("scaleDriverThreads", "32").trim()),
+                Long.parseLong(properties.getProperty("scaleSeconds", "10").trim()) * 1000);
+        var results = new ArrayList<ScaleResult>();
+        for (var connections : properties.getProperty("scaleConnections", "1000, 5000, 10000").split(",")) {
+            for (var mode : properties.getProperty("scaleModes", "PLATFORM, VIRTUAL").split(",")) {
+                var result = benchmark.run(ExecutionMode.valueOf(mode.trim()), Integer.parseInt(connections.trim()),
+                        results.size());
+                System.out.println(result);
+                results.add(result);
+            }
+        }
+        System.out.println(report(results));
+    }
+
+    //Один прогон на отдельном порту: порт предыдущего сервера может быть еще занят
+    public ScaleResult run(ExecutionMode mode, int connections, int runIndex) throws Exception {
+
+        var overrides = new Properties();
+        overrides.setProperty("transport", "BLOCKING");
+        overrides.setProperty("executionMode", mode.name());
+        overrides.setProperty("idleTimeoutMs", "0");
+        int port = settings.serverPort() + runIndex;
+        var server = LoadGenerator.startEmbeddedServer(port, overrides);
+        var clients = new ArrayList<ProtocolClient>(connections);
+        try {
+            System.out.println("Opening " + connections + " connections, executionMode = " + mode + "...");
+            ensurePurposeExists(port);
+            var threadBean = ManagementFactory.getThreadMXBean();
+            //после паузы на GC потоки предыдущего сервера уже завершились
+            long heapBefore = usedHeapAfterGc();
+            int threadsBefore = threadBean.getThreadCount();
+            for (int i = 0; i < connections; i++)
+                clients.add(signIn(port));
+            long heapBytes = Math.max(0, usedHeapAfterGc() - heapBefore);
+            //потоки клиентской стороны еще не запущены: прирост - потоки сервера
+            int serverThreads = threadBean.getThreadCount() - threadsBefore;
+            var executionStats = server.getExecutionStats();
+
+            var stats = measure(clients);
+            return new ScaleResult(mode, connections, heapBytes, serverThreads, executionStats.carrierThreads(),
+                    executionStats.virtualThreadsAvailable(), stats);
+        } finally {
+            clients.forEach(ProtocolClient::close);
+            server.stopServer();
+        }
+    }
+
+    private ProtocolClient signIn(int port) throws Exception {
+
+        var client = new ProtocolClient(settings.serverIp(), port, protocol);
+        try {
+            if (client.call(AuthorizationCommand.AUTHORIZE, settings.adminLogin(), settings.adminPassword())
+                    != UserType.ADMIN)
+                throw new IOException("Unable to sign in as admin " + settings.adminLogin());
+            return client;
+        } catch (Exception e) {
+            client.close();
+            throw e;
+        }
+    }
+
+    //Чтобы GET_ALL_PURPOSES возвращал не пустой список
+    private void ensurePurposeExists(int port) throws Exception {
+
+        try (var admin = signIn(port)) {
+            List<Purpose> purposes = admin.call(Command.GET_ALL_PURPOSES);
+            if (purposes.isEmpty())
+                admin.call(Command.CREATE_PURPOSE, new Purpose(0, "Scale test haircut", 10f));
+        }
+    }
+
+    private OperationStats measure(List<ProtocolClient> clients) throws InterruptedException {
+
+        running = true;
+        var drivers = new ArrayList<Thread>(driverThreads);
+        for (int i = 0; i < driverThreads; i++) {
+            var own = new ArrayList<ProtocolClient>();
+            for (int j = i; j < clients.size(); j += driverThreads)
+                own.add(clients.get(j));
+            var driver = new Thread(() -> drive(own), "scale-driver-" + i);
+            driver.setDaemon(true);
+            drivers.add(driver);
+        }
+        metrics = new OperationMetrics();
+        drivers.forEach(Thread::start);
+
+        Thread.sleep(settings.warmupMs());
+        metrics = new OperationMetrics();
+        var start = System.nanoTime();
+        Thread.sleep(durationMs);
+        var stats = metrics.getStats(Operation.PURPOSES, (System.nanoTime() - start) / 1_000_000);
+
+        running = false;
+        for (var driver : drivers)
+            driver.join();
+        return stats;
+    }
+
+    //Запросы по кругу по своим подключениям; подключение с ошибкой больше не используется
+    private void drive(List<ProtocolClient> own) {
+
+        var alive = new ArrayList<>(own);
+        while (running && !alive.isEmpty()) {
+            for (var iterator = alive.iterator(); running && iterator.hasNext(); ) {
+                var client = iterator.next();
+                var start = System.nanoTime();
+                try {
+                    List<Purpose> purposes = client.call(Command.GET_ALL_PURPOSES);
+                    metrics.record(System.nanoTime() - start, purposes == null, 0, 0);
+                } catch (Exception e) {
+                    metrics.record(System.nanoTime() - start, true, 0, 0);
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+
+        var memoryBean = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return memoryBean.getHeapMemoryUsage().getUsed();
+    }
+
+    private static String report(List<ScaleResult> results) {
+
+        var builder = new StringBuilder(String.format("%-9s %11s %9s %8s %10s %9s %9s %8s %8s",
+                "mode", "connections", "heap, MB", "KB/conn", "threads", "carriers", "ops/s", "p99, ms", "errors"));
+        for (var result : results)
+            builder.append(System.lineSeparator()).append(result);
+        if (results.stream().anyMatch(result -> result.mode() == ExecutionMode.VIRTUAL && !result.virtualThreadsAvailable()))
+            builder.append(System.lineSeparator())
+                    .append("* virtual threads are not available in this JVM, the server used a cached thread pool");
+        return builder.toString();
+    }
+}
@@ -0,0 +1,236 @@
+package benchmark;
+
+import dbLayer.managers.Backend;
+import dbLayer.managers.DataAccessManager;
+import dbLayer.managers.DataStore;
+import entities.Admin;
+import entities.Master;
+import entities.Purpose;
+import entities.Record;
+import entities.Status;
+import entities.User;
+import serverEndPoint.metrics.LatencyHistogram;
+import serverEndPoint.metrics.LatencySnapshot;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Одновременные вставки во все таблицы через пул подключений (запускать из каталога src).
+//stressThreads потоков вставляют по stressInserts строк в каждую таблицу, каждый через свой
+//DataAccessManager; затем каждый полученный id читается обратно и сверяется с тем, что вставлял поток.
+//Для сравнения тот же прогон идет прежним путем - INSERT и затем SELECT MAX(id), который при одновременных
+//вставках возвращает чужой id. MySQL берется из dbLayer config.properties, но база своя (stressDbName,
+//пересоздается); при backend = MEMORY прежний путь пропускается
+public class InsertStressBenchmark {
+
+    //Вставка строки с уникальным ключом key (логин, название услуги или время записи) и чтение ключа по id
+    private record Table(String name, Inserter inserter, KeyReader keyReader) {
+    }
+
+    @FunctionalInterface
+    private interface Inserter {
+        int insert(DataAccessManager manager, String key) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface KeyReader {
+        String read(DataAccessManager manager, int id) throws SQLException;
+    }
+
+    //Итог одной таблицы одним путем: задержка вставки, чужие и повторные id
+    private record StressResult(String table, String path, LatencySnapshot latency, long inserts, long errors,
+                                long mismatches, long duplicateIds) {
+
+        @Override
+        public String toString() {
+            return String.format("%-10s %-16s %8d %7d %8.2f %8.2f %8.2f %10d %10d", table, path, inserts, errors,
+                    latency.p50Micros() / 1000.0, latency.p99Micros() / 1000.0, latency.maxMicros() / 1000.0,
+                    mismatches, duplicateIds);
+        }
+    }
+
+    private final DataStore dataStore;
+
+    private final int threads;
+
+    private final int insertsPerThread;
+
+    //клиент и услуга для вставляемых записей
+    private User recordClient;
+
+    private Purpose recordPurpose;
+
+    //записи различаются временем: у каждой своя секунда от этого момента
+    private final long firstRecordTime = TimeUnit.SECONDS.toMillis(TimeUnit.MILLISECONDS.toSeconds(
+            System.currentTimeMillis()));
+
+    private final AtomicLong nextRecordSecond = new AtomicLong();
+
+    public InsertStressBenchmark(DataStore dataStore, int threads, int insertsPerThread) {
+        this.dataStore = dataStore;
+        this.threads = threads;
+        this.insertsPerThread = insertsPerThread;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        var properties = LoadGenerator.getPropertiesFromConfig();
+        var dbProperties = QueryPlanBenchmark.getDbPropertiesFromConfig();
+        var backend = Backend.valueOf(dbProperties.getProperty("backend", Backend.MYSQL.name()).trim());
+        if (backend == Backend.MYSQL) {
+            var dbName = properties.getProperty("stressDbName", "barbershop_stress").trim();
+            QueryPlanBenchmark.createDatabase(dbProperties, dbName);
+            dbProperties.setProperty("dbName", dbName);
+        }
+        try (var dataStore = DataStore.fromProperties(dbProperties)) {
+            var benchmark = new InsertStressBenchmark(dataStore,
+                    Integer.parseInt(properties.getProperty("stressThreads", "16").trim()),
+                    Integer.parseInt(properties.getProperty("stressInserts", "500").trim()));
+            System.out.println(benchmark.run());
+        }
+    }
+
+    public String run() throws Exception {
+
+        prepareRecordReferences();
+        var results = new ArrayList<StressResult>();
+        for (var table : tables()) {
+            results.add(stress(table, "generated keys", null));
+            if (dataStore.getBackend() == Backend.MYSQL)
+                results.add(stress(table, "SELECT MAX(id)", table.name()));
+        }
+        var builder = new StringBuilder(threads + " threads x " + insertsPerThread + " inserts per table")
+                .append(System.lineSeparator())
+                .append(String.format("%-10s %-16s %8s %7s %8s %8s %8s %10s %10s", "table", "path", "inserts",
+                        "errors", "p50, ms", "p99, ms", "max, ms", "wrong ids", "dup ids"));
+        for (var result : results)
+            builder.append(System.lineSeparator()).append(result);
+        //проверка исправления: с ключами из INSERT ни один поток не получает чужой id
+        for (var result : results) {
+            if (result.path().equals("generated keys") &&
+                    (result.mismatches() > 0 || result.duplicateIds() > 0 || result.errors() > 0))
+                throw new IllegalStateException("create() returned a wrong id: " + result);
+        }
+        if (dataStore.getBackend() == Backend.MYSQL)
+            builder.append(System.lineSeparator()).append("pool: ").append(dataStore.getPoolMetrics());
+        builder.append(System.lineSeparator()).append("generated keys: every returned id maps back to its own row");
+        return builder.toString();
+    }
+
+    private List<Table> tables() {
+        return List.of(
+                new Table("clients",
+                        (manager, key) -> manager.clientsRepository.create(
+                                new User(0, key, "stress", "Stress " + key, "+0000000000", Status.NOT_BANNED)),
+                        (manager, id) -> manager.clientsRepository.getById(id).getLogin()),
+                new Table("masters",
+                        (manager, key) -> manager.mastersRepository.create(
+                                new Master(0, key, "stress", 1, "Stress " + key, Status.NOT_BANNED)),
+                        (manager, id) -> manager.mastersRepository.getById(id).getLogin()),
+                new Table("admins",
+                        (manager, key) -> manager.adminsRepository.create(new Admin(0, key, "stress")),
+                        (manager, id) -> manager.adminsRepository.getById(id).getLogin()),
+                new Table("purposes",
+                        (manager, key) -> manager.purposesRepository.create(new Purpose(0, key, 10f)),
+                        (manager, id) -> manager.purposesRepository.getById(id).getName()),
+                //ключ записи - время, оно уникально для каждой вставки
+                new Table("records",
+                        (manager, key) -> manager.recordsRepository.create(
+                                new Record(0, recordPurpose, recordClient, new Date(Long.parseLong(key)))),
+                        (manager, id) -> {
+                            var date = manager.recordsRepository.getById(id).getDate();
+                            return date == null ? null : Long.toString(date.getTime());
+                        }));
+    }
+
+    private void prepareRecordReferences() throws SQLException {
+
+        try (var manager = new DataAccessManager(dataStore)) {
+            var suffix = Long.toString(System.currentTimeMillis(), 36);
+            int clientId = manager.clientsRepository.create(
+                    new User(0, "stress" + suffix, "stress", "Stress client", "+0000000000", Status.NOT_BANNED));
+            recordClient = manager.clientsRepository.getById(clientId);
+            int purposeId = manager.purposesRepository.create(new Purpose(0, "Stress " + suffix, 10f));
+            recordPurpose = manager.purposesRepository.getById(purposeId);
+        }
+    }
+
+    //maxIdTable != null - прежний путь: id берется из SELECT MAX(id) после INSERT
+    private StressResult stress(Table table, String path, String maxIdTable) throws Exception {
+
+        var prefix = "s" + Long.toString(System.nanoTime(), 36) + "t";
+        //id, полученный потоком -> ключ, который он вставлял
+        var expectedKeys = new ConcurrentHashMap<Integer, List<String>>();
+        var latency = new LatencyHistogram();
+        var errors = new AtomicLong();
+        var workers = new ArrayList<Thread>(threads);
+        for (int t = 0; t < threads; t++) {
+            var threadPrefix = prefix + t + "n";
+            var worker = new Thread(() -> {
+                for (int i = 0; i < insertsPerThread; i++) {
+                    var key = table.name().equals("records")
+                            ? Long.toString(firstRecordTime + TimeUnit.SECONDS.toMillis(nextRecordSecond.incrementAndGet()))
+                            : threadPrefix + i;
+                    var start = System.nanoTime();
+                    try {
+                        int id = maxIdTable == null ? insert(table, key) : insertAndSelectMaxId(table, key, maxIdTable);
+                        latency.record(System.nanoTime() - start);
+                        expectedKeys.computeIfAbsent(id, k -> new CopyOnWriteArrayList<>()).add(key);
+                    } catch (SQLException | RuntimeException e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            }, "stress-" + table.name() + "-" + t);
+            workers.add(worker);
+        }
+        workers.forEach(Thread::start);
+        for (var worker : workers)
+            worker.join();
+
+        long mismatches = 0;
+        long duplicateIds = 0;
+        try (var manager = new DataAccessManager(dataStore)) {
+            for (var entry : expectedKeys.entrySet()) {
+                var keys = entry.getValue();
+                if (keys.size() > 1)
+                    duplicateIds += keys.size() - 1;
+                var actual = table.keyReader().read(manager, entry.getKey());
+                for (var key : new HashSet<>(keys)) {
+                    if (!key.equals(actual))
+                        mismatches++;
+                }
+            }
+        }
+        var snapshot = latency.snapshot();
+        return new StressResult(table.name(), path, snapshot, snapshot.count(), errors.get(), mismatches,
+                duplicateIds);
+    }
+
+    //Как команда сервера: подключение из пула на одну вставку
+    private int insert(Table table, String key) throws SQLException {
+        try (var manager = new DataAccessManager(dataStore)) {
+            return table.inserter().insert(manager, key);
+        }
+    }
+
+    //Прежний код create(): после INSERT на том же подключении отдельный запрос за "последним" id таблицы
+    private int insertAndSelectMaxId(Table table, String key, String maxIdTable) throws SQLException {
+
+        try (var lease = dataStore.getConnectionPool().lease()) {
+            var connection = lease.getConnection();
+            table.inserter().insert(new DataAccessManager(connection), key);
+            try (var statement = connection.prepareStatement("SELECT MAX(id) FROM " + maxIdTable);
+                 var resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package benchmark;
+
+import Commands.AuthorizationCommand;
+import Commands.Command;
+import Commands.Response;
+import entities.Purpose;
+import enums.UserType;
+import serverEndPoint.Server;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+//Генератор нагрузки (запускать из каталога src): сотни имитируемых клиентов, мастеров и администраторов
+//работают с сервером по настоящему протоколу. Каждый формат обмена из protocols прогоняется с одной
+//и той же нагрузкой, в конце - пропускная способность, процентили задержки и доля ошибок по операциям.
+//embedded = true запускает Server в этом же процессе со своими настройками БД
+public class LoadGenerator {
+
+    private final LoadSettings settings;
+
+    //сменяется после разогрева - в результаты попадает только основная часть прогона
+    private volatile LoadStats stats = new LoadStats();
+
+    private volatile boolean running;
+
+    public LoadGenerator(LoadSettings settings) {
+        this.settings = settings;
+    }
+
+    static Properties getPropertiesFromConfig() throws IOException {
+
+        var properties = new Properties();
+        String propFileName = "Benchmark/src/main/resources/config.properties";
+        var inputStream = new FileInputStream(propFileName);
+        if (inputStream == null)
+            throw new FileNotFoundException("property file '" + propFileName + "' not found in the classpath");
+        properties.load(inputStream);
+        return properties;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        var settings = LoadSettings.fromProperties(getPropertiesFromConfig());
+        Server server = null;
+        if (settings.embedded()) {
+            server = startEmbeddedServer(settings.serverPort());
+        }
+        try {
+            var reports = new ArrayList<LoadReport>();
+            for (var protocol : settings.protocols()) {
+                var report = new LoadGenerator(settings).run(protocol);
+                System.out.println(report);
+                reports.add(report);
+            }
+            if (reports.size() > 1)
+                System.out.println(compare(reports));
+            if (server != null)
+                System.out.println("server: " + server.getMetrics());
+        } finally {
+            if (server != null)
+                server.stopServer();
+        }
+    }
+
+    static Server startEmbeddedServer(int port) throws Exception {
+        return startEmbeddedServer(port, new Properties());
+    }
+
+    //transportOverrides - параметры транспорта вместо TransportLayer config.properties
+    static Server startEmbeddedServer(int port, Properties transportOverrides) throws Exception {
+
+        var server = new Server(port, transportOverrides);
+        var thread = new Thread(() -> {
+            try {
+                server.runServer();
+            } catch (Exception e) {
+                System.out.println("Embedded server stopped: " + e);
+            }
+        }, "embedded-server");
+        thread.setDaemon(true);
+        thread.start();
+        return server;
+    }
+
+    //Один прогон: регистрация учетных записей, разогрев, измерение
+    public LoadReport run(Protocol protocol) throws Exception {
+
+        System.out.println("Preparing " + settings.users() + " users over " + protocol + "...");
+        ensurePurposeExists(protocol);
+
+        //логины уникальны для прогона - повторный запуск не упирается в уже занятые
+        var prefix = "load" + Long.toString(System.currentTimeMillis(), 36) + protocol.ordinal();
+        var users = new ArrayList<SimulatedUser>();
+        addUsers(users, protocol, UserType.USER, settings.clients(), prefix + "c");
+        addUsers(users, protocol, UserType.MASTER, settings.masters(), prefix + "m");
+        for (int i = 0; i < settings.admins(); i++)
+            users.add(newUser(protocol, UserType.ADMIN, settings.adminLogin(), settings.adminPassword()));
+        for (var user : users)
+            user.setUp();
+
+        running = true;
+        var threads = new ArrayList<Thread>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            var thread = new Thread(users.get(i), "load-user-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+        stats = new LoadStats();
+        threads.forEach(Thread::start);
+
+        Thread.sleep(settings.warmupMs());
+        stats = new LoadStats();
+        Thread.sleep(settings.durationMs());
+        var report = stats.report(protocol, users.size());
+
+        running = false;
+        for (var thread : threads)
+            thread.join();
+        return report;
+    }
+
+    private void addUsers(List<SimulatedUser> users, Protocol protocol, UserType role, int count, String prefix) {
+        for (int i = 0; i < count; i++)
+            users.add(newUser(protocol, role, prefix + i, "load"));
+    }
+
+    private SimulatedUser newUser(Protocol protocol, UserType role, String login, String password) {
+        return new SimulatedUser(settings, protocol, role, login, password, () -> stats, () -> running);
+    }
+
+    //Клиентам нужна хотя бы одна услуга для записи
+    private void ensurePurposeExists(Protocol protocol) throws Exception {
+
+        try (var admin = new ProtocolClient(settings.serverIp(), settings.serverPort(), protocol)) {
+            if (admin.call(AuthorizationCommand.AUTHORIZE, settings.adminLogin(), settings.adminPassword()) != UserType.ADMIN)
+                throw new IOException("Unable to sign in as admin " + settings.adminLogin());
+            List<Purpose> purposes = admin.call(Command.GET_ALL_PURPOSES);
+            if (purposes.isEmpty() &&
+                    admin.call(Command.CREATE_PURPOSE, new Purpose(0, "Load test haircut", 10f)) != Response.SUCCESSFULLY)
+                throw new IOException("Unable to create a purpose for the load test");
+        }
+    }
+
+    //Сравнение форматов обмена при одинаковой нагрузке
+    private static String compare(List<LoadReport> reports) {
+
+        var builder = new StringBuilder(String.format("%-14s %9s %8s %11s %8s", "protocol", "ops/s", "errors",
+                "p99 max, ms", "bytes/op"));
+        for (var report : reports)
+            builder.append(System.lineSeparator()).append(String.format("%-14s %9.1f %7.2f%% %11.2f %8d",
+                    report.protocol(), report.throughput(), report.errorRate(), report.worstP99Micros() / 1000.0,
+                    report.bytesPerOperation()));
+        return builder.toString();
+    }
+}
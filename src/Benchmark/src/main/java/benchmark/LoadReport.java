@@ -0,0 +1,51 @@
+package benchmark;
+
+import java.util.List;
+
+//Итог прогона одного формата обмена: по каждой операции и в сумме
+public record LoadReport(Protocol protocol,
+                         int users,
+                         long elapsedMs,
+                         List<OperationStats> operations) {
+
+    public long count() {
+        return operations.stream().mapToLong(OperationStats::count).sum();
+    }
+
+    public long errors() {
+        return operations.stream().mapToLong(OperationStats::errors).sum();
+    }
+
+    public double throughput() {
+        return elapsedMs == 0 ? 0 : count() * 1000.0 / elapsedMs;
+    }
+
+    public double errorRate() {
+        return count() == 0 ? 0 : errors() * 100.0 / count();
+    }
+
+    public long bytesPerOperation() {
+        var bytes = operations.stream().mapToLong(stats -> stats.bytesSent() + stats.bytesReceived()).sum();
+        return count() == 0 ? 0 : bytes / count();
+    }
+
+    //p99 по всем операциям сразу не считается - берется худший из процентилей операций
+    public long worstP99Micros() {
+        return operations.stream().mapToLong(stats -> stats.latency().p99Micros()).max().orElse(0);
+    }
+
+    @Override
+    public String toString() {
+
+        var builder = new StringBuilder();
+        builder.append(protocol).append(": ").append(users).append(" users, ").append(elapsedMs).append(" ms")
+                .append(System.lineSeparator())
+                .append(String.format("%-14s %9s %9s %8s %8s %8s %8s %8s %8s", "operation", "count", "ops/s",
+                        "errors", "p50, ms", "p90, ms", "p99, ms", "max, ms", "bytes/op"));
+        for (var stats : operations)
+            builder.append(System.lineSeparator()).append(stats);
+        builder.append(System.lineSeparator())
+                .append(String.format("%-14s %9d %9.1f %7.2f%%", "total", count(), throughput(), errorRate()));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+//Параметры нагрузки из Benchmark/src/main/resources/config.properties
+public record LoadSettings(String serverIp,
+                           int serverPort,
+                           boolean embedded,
+                           List<Protocol> protocols,
+                           int clients,
+                           int masters,
+                           int admins,
+                           long warmupMs,
+                           long durationMs,
+                           long thinkTimeMs,
+                           OperationMix clientMix,
+                           OperationMix masterMix,
+                           OperationMix adminMix,
+                           String adminLogin,
+                           String adminPassword) {
+
+    public static LoadSettings fromProperties(Properties properties) {
+
+        var protocols = new ArrayList<Protocol>();
+        for (var protocol : properties.getProperty("protocols", "BINARY").split(",")) {
+            if (!protocol.isBlank())
+                protocols.add(Protocol.valueOf(protocol.trim()));
+        }
+        return new LoadSettings(properties.getProperty("serverIp", "127.0.0.1").trim(),
+                Integer.parseInt(properties.getProperty("serverPort", "16000").trim()),
+                Boolean.parseBoolean(properties.getProperty("embedded", "false").trim()),
+                protocols,
+                Integer.parseInt(properties.getProperty("clients", "100").trim()),
+                Integer.parseInt(properties.getProperty("masters", "10").trim()),
+                Integer.parseInt(properties.getProperty("admins", "2").trim()),
+                Long.parseLong(properties.getProperty("warmupSeconds", "5").trim()) * 1000,
+                Long.parseLong(properties.getProperty("durationSeconds", "30").trim()) * 1000,
+                Long.parseLong(properties.getProperty("thinkTimeMs", "0").trim()),
+                OperationMix.parse(properties.getProperty("clientMix", "LOGIN:1, PURPOSES:6, CREATE_RECORD:3")),
+                OperationMix.parse(properties.getProperty("masterMix", "LOGIN:1, PURPOSES:2, ACCEPT_RECORD:4")),
+                OperationMix.parse(properties.getProperty("adminMix", "LOGIN:1, PURPOSES:1, ADMIN_LISTING:4")),
+                properties.getProperty("adminLogin", "admin").trim(),
+                properties.getProperty("adminPassword", "admin").trim());
+    }
+
+    public int users() {
+        return clients + masters + admins;
+    }
+}
@@ -0,0 +1,33 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+
+//Результаты одного прогона; после разогрева генератор заменяет их новыми
+class LoadStats {
+
+    private final EnumMap<Operation, OperationMetrics> operations = new EnumMap<>(Operation.class);
+
+    private final long startedAt = System.nanoTime();
+
+    LoadStats() {
+        for (var operation : Operation.values())
+            operations.put(operation, new OperationMetrics());
+    }
+
+    void record(Operation operation, long nanos, boolean failed, long sent, long received) {
+        operations.get(operation).record(nanos, failed, sent, received);
+    }
+
+    LoadReport report(Protocol protocol, int users) {
+
+        var elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+        var stats = new ArrayList<OperationStats>();
+        for (var entry : operations.entrySet()) {
+            var operationStats = entry.getValue().getStats(entry.getKey(), elapsedMs);
+            if (operationStats.count() > 0)
+                stats.add(operationStats);
+        }
+        return new LoadReport(protocol, users, elapsedMs, stats);
+    }
+}
@@ -0,0 +1,148 @@
+package benchmark;
+
+import Commands.AuthorizationCommand;
+import Commands.Command;
+import Commands.Response;
+import entities.Master;
+import entities.Status;
+import entities.User;
+import enums.UserType;
+import serverEndPoint.Server;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+//Пропускная способность входа (AUTHORIZE) по ролям (запускать из каталога src). Потоки входят под
+//клиентами, мастерами, администратором и под несуществующим логином - каждая роль отдельным прогоном:
+//до справочника логинов вход мастера и неудачный вход стоили трех запросов к БД, клиента - одного.
+//Сервер, форматы обмена и длительность разогрева берутся из того же config.properties, что у LoadGenerator
+public class LoginBenchmark {
+
+    //UNDEFINED - вход под логином, которого нет ни в одной таблице
+    private static final UserType[] ROLES = {UserType.USER, UserType.MASTER, UserType.ADMIN, UserType.UNDEFINED};
+
+    private final LoadSettings settings;
+
+    private final int threads;
+
+    private final long durationMs;
+
+    private volatile OperationMetrics metrics = new OperationMetrics();
+
+    private volatile boolean running;
+
+    public LoginBenchmark(LoadSettings settings, int threads, long durationMs) {
+        this.settings = settings;
+        this.threads = threads;
+        this.durationMs = durationMs;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        var properties = LoadGenerator.getPropertiesFromConfig();
+        var settings = LoadSettings.fromProperties(properties);
+        var benchmark = new LoginBenchmark(settings,
+                Integer.parseInt(properties.getProperty("loginThreads", "16").trim()),
+                Long.parseLong(properties.getProperty("loginSeconds", "10").trim()) * 1000);
+        Server server = null;
+        if (settings.embedded())
+            server = LoadGenerator.startEmbeddedServer(settings.serverPort());
+        try {
+            for (var protocol : settings.protocols())
+                System.out.println(benchmark.run(protocol));
+        } finally {
+            if (server != null)
+                server.stopServer();
+        }
+    }
+
+    //Все роли одного формата обмена; учетные записи создаются заново для каждого прогона
+    public String run(Protocol protocol) throws Exception {
+
+        var prefix = "login" + Long.toString(System.currentTimeMillis(), 36) + protocol.ordinal();
+        var builder = new StringBuilder(protocol + ": " + threads + " threads").append(System.lineSeparator())
+                .append(String.format("%-10s %9s %9s %8s %8s %8s %8s %8s", "role", "count", "logins/s", "errors",
+                        "p50, ms", "p90, ms", "p99, ms", "max, ms"));
+        for (var role : ROLES) {
+            var credentials = prepareAccounts(protocol, role, prefix);
+            var stats = measure(protocol, role, credentials);
+            var latency = stats.latency();
+            builder.append(System.lineSeparator()).append(String.format(
+                    "%-10s %9d %9.1f %7.2f%% %8.2f %8.2f %8.2f %8.2f", role, stats.count(), stats.throughput(), stats.errorRate(), latency.p50Micros() / 1000.0,
+                    latency.p90Micros() / 1000.0, latency.p99Micros() / 1000.0, latency.maxMicros() / 1000.0));
+        }
+        return builder.toString();
+    }
+
+    //Логин и пароль для каждого потока; клиенты и мастера регистрируются, администратор у всех один
+    private List<String[]> prepareAccounts(Protocol protocol, UserType role, String prefix) throws Exception {
+
+        var credentials = new ArrayList<String[]>(threads);
+        for (int i = 0; i < threads; i++) {
+            var login = prefix + "r" + role.ordinal() + "n" + i;
+            switch (role) {
+                case USER -> register(protocol, AuthorizationCommand.REGISTER,
+                        new User(0, login, "load", "Login test " + login, "+0000000000", Status.NOT_BANNED));
+                case MASTER -> register(protocol, AuthorizationCommand.REGISTER_MASTER,
+                        new Master(0, login, "load", 1, "Login test " + login, Status.NOT_BANNED));
+                case ADMIN -> login = settings.adminLogin();
+            }
+            credentials.add(new String[]{login, role == UserType.ADMIN ? settings.adminPassword() : "load"});
+        }
+        return credentials;
+    }
+
+    private void register(Protocol protocol, AuthorizationCommand command, Serializable account)
+            throws Exception {
+
+        try (var client = new ProtocolClient(settings.serverIp(), settings.serverPort(), protocol)) {
+            if (client.call(command, account) != Response.SUCCESSFULLY)
+                throw new IOException("Unable to register an account for the login benchmark");
+        }
+    }
+
+    private OperationStats measure(Protocol protocol, UserType role, List<String[]> credentials)
+            throws InterruptedException {
+
+        running = true;
+        var workers = new ArrayList<Thread>(threads);
+        for (var account : credentials) {
+            var worker = new Thread(() -> signInRepeatedly(protocol, role, account[0], account[1]),
+                    "login-" + role + "-" + workers.size());
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+        metrics = new OperationMetrics();
+        workers.forEach(Thread::start);
+
+        Thread.sleep(settings.warmupMs());
+        metrics = new OperationMetrics();
+        var start = System.nanoTime();
+        Thread.sleep(durationMs);
+        var stats = metrics.getStats(Operation.LOGIN, (System.nanoTime() - start) / 1_000_000);
+
+        running = false;
+        for (var worker : workers)
+            worker.join();
+        return stats;
+    }
+
+    //Вход и выход в цикле по одному подключению; ошибка подключения завершает поток
+    private void signInRepeatedly(Protocol protocol, UserType role, String login, String password) {
+
+        try (var client = new ProtocolClient(settings.serverIp(), settings.serverPort(), protocol)) {
+            while (running) {
+                var start = System.nanoTime();
+                UserType result = client.call(AuthorizationCommand.AUTHORIZE, login, password);
+                metrics.record(System.nanoTime() - start, result != role, 0, 0);
+                if (result != UserType.UNDEFINED)
+                    client.send(Command.EXIT);
+            }
+        } catch (Exception e) {
+            metrics.record(0, true, 0, 0);
+            System.out.println(Thread.currentThread().getName() + " stopped: " + e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package benchmark;
+
+//Действия имитируемых пользователей (смесь задается для каждой роли в config.properties)
+public enum Operation {
+
+    //выход и повторный вход (EXIT + AUTHORIZE) на том же подключении
+    LOGIN,
+    //справочник услуг (GET_ALL_PURPOSES)
+    PURPOSES,
+    //клиент записывается на услугу (CREATE_RECORD)
+    CREATE_RECORD,
+    //мастер берет заявку из первой страницы непринятых (GET_RECORDS_NOT_ACCEPTED_PAGE + ACCEPT_RECORD_TO_CURRENT_MASTER)
+    ACCEPT_RECORD,
+    //администратор листает клиентов и записи (GET_CLIENTS_PAGE + GET_RECORDS_PAGE)
+    ADMIN_LISTING,
+}
@@ -0,0 +1,33 @@
+package benchmark;
+
+import serverEndPoint.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+//Счетчики одной операции; пишут все потоки пользователей без блокировок
+class OperationMetrics {
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder bytesSent = new LongAdder();
+
+    private final LongAdder bytesReceived = new LongAdder();
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    void record(long nanos, boolean failed, long sent, long received) {
+
+        count.increment();
+        if (failed) errors.increment();
+        bytesSent.add(sent);
+        bytesReceived.add(received);
+        latency.record(nanos);
+    }
+
+    OperationStats getStats(Operation operation, long elapsedMs) {
+        return new OperationStats(operation, count.sum(), errors.sum(), elapsedMs, bytesSent.sum(),
+                bytesReceived.sum(), latency.snapshot());
+    }
+}
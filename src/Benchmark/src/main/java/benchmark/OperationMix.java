@@ -0,0 +1,64 @@
+package benchmark;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+//Взвешенный выбор следующей операции, строка вида "LOGIN:1, PURPOSES:6, CREATE_RECORD:3"
+public class OperationMix {
+
+    private final Operation[] operations;
+
+    //накопленные веса для выбора по случайному числу
+    private final int[] cumulativeWeights;
+
+    private final int totalWeight;
+
+    private OperationMix(Map<Operation, Integer> weights) {
+
+        operations = weights.keySet().toArray(new Operation[0]);
+        cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        totalWeight = total;
+    }
+
+    public static OperationMix parse(String mix) {
+
+        var weights = new EnumMap<Operation, Integer>(Operation.class);
+        for (var part : mix.split(",")) {
+            if (part.isBlank()) continue;
+            var pair = part.split(":");
+            var weight = pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1;
+            if (weight > 0)
+                weights.put(Operation.valueOf(pair[0].trim()), weight);
+        }
+        if (weights.isEmpty())
+            throw new IllegalArgumentException("Empty operation mix: " + mix);
+        return new OperationMix(weights);
+    }
+
+    public Operation next() {
+
+        int value = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < operations.length; i++)
+            if (value < cumulativeWeights[i]) return operations[i];
+        return operations[operations.length - 1];
+    }
+
+    @Override
+    public String toString() {
+
+        var builder = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < operations.length; i++) {
+            if (i > 0) builder.append(", ");
+            builder.append(operations[i]).append(':').append(cumulativeWeights[i] - previous);
+            previous = cumulativeWeights[i];
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,34 @@
+package benchmark;
+
+import serverEndPoint.metrics.LatencySnapshot;
+
+//Итог одной операции за прогон (без разогрева)
+public record OperationStats(Operation operation,
+                             long count,
+                             long errors,
+                             long elapsedMs,
+                             long bytesSent,
+                             long bytesReceived,
+                             LatencySnapshot latency) {
+
+    public double throughput() {
+        return elapsedMs == 0 ? 0 : count * 1000.0 / elapsedMs;
+    }
+
+    public double errorRate() {
+        return count == 0 ? 0 : errors * 100.0 / count;
+    }
+
+    //средний трафик одной операции в обе стороны
+    public long bytesPerOperation() {
+        return count == 0 ? 0 : (bytesSent + bytesReceived) / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-14s %9d %9.1f %7.2f%% %8.2f %8.2f %8.2f %8.2f %8d",
+                operation, count, throughput(), errorRate(),
+                latency.p50Micros() / 1000.0, latency.p90Micros() / 1000.0, latency.p99Micros() / 1000.0,
+                latency.maxMicros() / 1000.0, bytesPerOperation());
+    }
+}
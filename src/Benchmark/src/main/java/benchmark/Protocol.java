@@ -0,0 +1,23 @@
+package benchmark;
+
+import protocol.WireFormat;
+
+//Формат обмена под теми же названиями, что и параметр protocol клиента
+public enum Protocol {
+
+    OBJECT_STREAM(null),
+    FRAMED(WireFormat.SERIALIZED),
+    BINARY(WireFormat.BINARY),
+    ;
+
+    //null - старый протокол потока объектов
+    private final WireFormat wireFormat;
+
+    Protocol(WireFormat wireFormat) {
+        this.wireFormat = wireFormat;
+    }
+
+    public WireFormat getWireFormat() {
+        return wireFormat;
+    }
+}
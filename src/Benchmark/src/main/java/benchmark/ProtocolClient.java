@@ -0,0 +1,165 @@
+package benchmark;
+
+import protocol.Frame;
+import protocol.Frames;
+import protocol.Opcodes;
+import protocol.WireFormat;
+
+import java.io.*;
+import java.net.Socket;
+import java.util.List;
+
+//Одно подключение имитируемого пользователя. Запросы уходят так же, как у ConnectionModule
+//(команда, аргументы, один ответ), но подключений может быть сколько угодно - по одному на поток.
+//Запросы последовательные, ответ ждется сразу; трафик считается для сравнения форматов обмена
+public class ProtocolClient implements Closeable {
+
+    private static final int HANDSHAKE_TIMEOUT_MS = 5000;
+
+    private final Socket socket;
+
+    //null - поток объектов
+    private final WireFormat wireFormat;
+
+    private ObjectOutputStream objectOutputStream;
+
+    private ObjectInputStream objectInputStream;
+
+    private DataOutputStream frameOutputStream;
+
+    private DataInputStream frameInputStream;
+
+    private int nextCorrelationId;
+
+    //поля читаются только потоком-владельцем подключения
+    private long bytesSent;
+
+    private long bytesReceived;
+
+    public ProtocolClient(String serverIp, int serverPort, Protocol protocol) throws IOException {
+
+        socket = new Socket(serverIp, serverPort);
+        socket.setTcpNoDelay(true);
+        wireFormat = protocol.getWireFormat();
+        var outputStream = new BufferedOutputStream(countOutput(socket.getOutputStream()));
+        var inputStream = new BufferedInputStream(countInput(socket.getInputStream()));
+        try {
+            if (wireFormat == null) {
+                objectOutputStream = new ObjectOutputStream(outputStream);
+                objectOutputStream.flush();
+                objectInputStream = new ObjectInputStream(inputStream);
+            } else {
+                frameOutputStream = new DataOutputStream(outputStream);
+                frameInputStream = new DataInputStream(inputStream);
+                negotiate();
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void negotiate() throws IOException {
+
+        frameOutputStream.writeInt(wireFormat.getMagic());
+        frameOutputStream.flush();
+        socket.setSoTimeout(HANDSHAKE_TIMEOUT_MS);
+        if (frameInputStream.readInt() != wireFormat.getMagic())
+            throw new IOException("Server did not confirm the " + wireFormat + " protocol");
+        socket.setSoTimeout(0);
+    }
+
+    //Команда с аргументами и ответ сервера
+    public <T> T call(Object command, Serializable... arguments) throws IOException, ClassNotFoundException {
+
+        if (wireFormat == null) {
+            writeObjects(command, arguments);
+            return (T) objectInputStream.readObject();
+        }
+        int correlationId = sendFrame(command, arguments);
+        while (true) {
+            var frame = Frames.readFrame(frameInputStream);
+            if (frame.opcode() == Opcodes.GOING_AWAY)
+                throw new IOException("Server is shutting down");
+            if (frame.correlationId() == correlationId)
+                return wireFormat.getCodec().open(frame.payload()).read();
+        }
+    }
+
+    //Команда без ответа (EXIT)
+    public void send(Object command, Serializable... arguments) throws IOException {
+
+        if (wireFormat == null)
+            writeObjects(command, arguments);
+        else
+            sendFrame(command, arguments);
+    }
+
+    private void writeObjects(Object command, Serializable[] arguments) throws IOException {
+
+        objectOutputStream.writeObject(command);
+        for (var argument : arguments)
+            objectOutputStream.writeObject(argument);
+        //каждый запрос - новые объекты, таблица ссылок потока не должна расти весь прогон
+        objectOutputStream.reset();
+        objectOutputStream.flush();
+    }
+
+    private int sendFrame(Object command, Serializable[] arguments) throws IOException {
+
+        int correlationId = ++nextCorrelationId;
+        var frame = new Frame(Opcodes.of(command), correlationId, wireFormat.getCodec().encode(List.of(arguments)));
+        Frames.writeFrame(frameOutputStream, frame);
+        return correlationId;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    @Override
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private InputStream countInput(InputStream inputStream) {
+        return new FilterInputStream(inputStream) {
+            @Override
+            public int read() throws IOException {
+                int value = super.read();
+                if (value >= 0) bytesReceived++;
+                return value;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                int read = super.read(bytes, offset, length);
+                if (read > 0) bytesReceived += read;
+                return read;
+            }
+        };
+    }
+
+    private OutputStream countOutput(OutputStream outputStream) {
+        return new FilterOutputStream(outputStream) {
+            @Override
+            public void write(int value) throws IOException {
+                out.write(value);
+                bytesSent++;
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                out.write(bytes, offset, length);
+                bytesSent += length;
+            }
+        };
+    }
+}
@@ -0,0 +1,347 @@
+package benchmark;
+
+import dbLayer.migrations.Migration;
+import dbLayer.migrations.MigrationRunner;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//Планы и время запросов списков записей на большой базе (запускать из каталога src, нужен MySQL).
+//Создает отдельную базу planDbName по barbershop database generation.sql, заполняет ее planRecords
+//записями и замеряет запросы JdbcRecordsRepository трижды: на исходной схеме, после индексов
+//(миграции до ACCEPTANCE_VERSION) и после переноса принятия в records - там запросы уже без
+//подзапросов по masters_records. В конце - загрузка записей по одной строке против JOIN (RecordLoadingBenchmark).
+//Рабочая база не затрагивается; сервер и пул подключений не нужны
+public class QueryPlanBenchmark {
+
+    //Один замеряемый запрос: SQL до и после ACCEPTANCE_VERSION с одинаковым результатом
+    private record Case(String name, String legacySql, String currentSql) {
+    }
+
+    //Итог одного запроса: медиана и худшее время, строк в ответе и план
+    private record CaseResult(String name, double p50Millis, double maxMillis, int rows, List<String> plan) {
+    }
+
+    //Результаты на одной версии схемы
+    private record Stage(String name, Map<String, CaseResult> results) {
+    }
+
+    //версия схемы, с которой records хранит accepted и masterId
+    private static final int ACCEPTANCE_VERSION = 3;
+
+    //те же столбцы и соединения, что SELECT_RECORDS в JdbcRecordsRepository
+    private static final String SELECT_RECORDS =
+            "SELECT r.id, r.clearanceDateTime, " +
+                    "c.id AS clientId, c.login AS clientLogin, c.password AS clientPassword, " +
+                    "c.fullName AS clientFullName, c.phone AS clientPhone, c.status AS clientStatus, " +
+                    "p.id AS purposeId, p.name AS purposeName, p.cost AS purposeCost " +
+                    "FROM records r " +
+                    "INNER JOIN clients c ON c.id = r.clientId " +
+                    "INNER JOIN purposes p ON p.id = r.purposeId ";
+
+    private static final int PURPOSES = 20;
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private final Properties dbProperties;
+
+    private final String dbName;
+
+    private final int records;
+
+    private final int clients;
+
+    private final int masters;
+
+    private final double acceptedShare;
+
+    private final int repeats;
+
+    private final long firstDate = Timestamp.valueOf("2023-01-01 09:00:00").getTime();
+
+    //записи распределены по двум годам
+    private final long period = TimeUnit.DAYS.toMillis(730);
+
+    public QueryPlanBenchmark(Properties dbProperties, Properties properties) {
+        this.dbProperties = dbProperties;
+        dbName = properties.getProperty("planDbName", "barbershop_benchmark").trim();
+        records = Integer.parseInt(properties.getProperty("planRecords", "1000000").trim());
+        clients = Integer.parseInt(properties.getProperty("planClients", "100000").trim());
+        masters = Integer.parseInt(properties.getProperty("planMasters", "1000").trim());
+        acceptedShare = Double.parseDouble(properties.getProperty("planAcceptedShare", "0.5").trim());
+        repeats = Integer.parseInt(properties.getProperty("planRepeats", "20").trim());
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        new QueryPlanBenchmark(getDbPropertiesFromConfig(), LoadGenerator.getPropertiesFromConfig()).run();
+    }
+
+    //Подключение к MySQL - из dbLayer config.properties, как у сервера
+    static Properties getDbPropertiesFromConfig() throws IOException {
+
+        var dbProperties = new Properties();
+        try (var inputStream = new FileInputStream("Server/DataLayer/src/main/resources/dbLayer/config.properties")) {
+            dbProperties.load(inputStream);
+        }
+        return dbProperties;
+    }
+
+    public void run() throws Exception {
+
+        createDatabase(dbProperties, dbName);
+        try (var connection = connect()) {
+            var start = System.nanoTime();
+            populate(connection);
+            System.out.println("Populated " + records + " records in " +
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) + " s");
+
+            var stages = new ArrayList<Stage>();
+            stages.add(new Stage("initial", measure(connection, false)));
+            var runner = new MigrationRunner(connection, MigrationRunner.loadMigrations(Path.of(dbProperties.getProperty(
+                    "migrationsDirectory", "Server/DataLayer/src/main/resources/dbLayer/migrations").trim())));
+            System.out.println("Schema: " + runner.migrate(ACCEPTANCE_VERSION - 1));
+            stages.add(new Stage("indexes", measure(connection, false)));
+            System.out.println("Schema: " + runner.migrate());
+            stages.add(new Stage("acceptance", measure(connection, true)));
+            System.out.println(compare(stages));
+            System.out.println(new RecordLoadingBenchmark(connection, repeats).run(clients / 2, masters / 2));
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        //rewriteBatchedStatements - пакетные вставки одним запросом, иначе заполнение идет в разы дольше
+        return DriverManager.getConnection(dbProperties.getProperty("dbServerConnectionString") + dbName +
+                        "?rewriteBatchedStatements=true",
+                dbProperties.getProperty("userName"), dbProperties.getProperty("password"));
+    }
+
+    //Схема из barbershop database generation.sql, но в своей базе dbName (пересоздается)
+    static void createDatabase(Properties dbProperties, String dbName) throws SQLException, IOException {
+
+        try (var connection = DriverManager.getConnection(dbProperties.getProperty("dbServerConnectionString"),
+                dbProperties.getProperty("userName"), dbProperties.getProperty("password"));
+             var statement = connection.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + dbName);
+            statement.execute("CREATE DATABASE " + dbName);
+            statement.execute("USE " + dbName);
+            for (var sql : Migration.parseStatements(Files.readAllLines(Path.of("barbershop database generation.sql")))) {
+                var lowerCase = sql.toLowerCase();
+                if (lowerCase.startsWith("create schema") || lowerCase.startsWith("use "))
+                    continue;
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private void populate(Connection connection) throws SQLException {
+
+        var random = new Random(42);
+        connection.setAutoCommit(false);
+        try {
+            try (var statement = connection.prepareStatement("INSERT INTO purposes (name, cost) values (?, ?)")) {
+                for (int i = 1; i <= PURPOSES; i++) {
+                    statement.setString(1, "Purpose " + i);
+                    statement.setFloat(2, 10 + i);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            try (var statement = connection.prepareStatement(
+                    "INSERT INTO clients (login, password, fullName, phone, status) values (?, ?, ?, ?, 1)")) {
+                for (int i = 1; i <= clients; i++) {
+                    statement.setString(1, "client" + i);
+                    statement.setString(2, "password");
+                    statement.setString(3, "Client " + i);
+                    statement.setString(4, "+0000000000");
+                    addToBatch(connection, statement, i);
+                }
+                statement.executeBatch();
+            }
+            try (var statement = connection.prepareStatement(
+                    "INSERT INTO masters (login, password, fullName, experience, status) values (?, ?, ?, 1, 1)")) {
+                for (int i = 1; i <= masters; i++) {
+                    statement.setString(1, "master" + i);
+                    statement.setString(2, "password");
+                    statement.setString(3, "Master " + i);
+                    addToBatch(connection, statement, i);
+                }
+                statement.executeBatch();
+            }
+            try (var statement = connection.prepareStatement(
+                    "INSERT INTO records (purposeId, clientId, clearanceDateTime) values (?, ?, ?)")) {
+                for (int i = 1; i <= records; i++) {
+                    statement.setInt(1, 1 + random.nextInt(PURPOSES));
+                    statement.setInt(2, 1 + random.nextInt(clients));
+                    statement.setTimestamp(3, new Timestamp(firstDate + (long) (random.nextDouble() * period) / 1000 * 1000));
+                    addToBatch(connection, statement, i);
+                }
+                statement.executeBatch();
+            }
+            //id записей идут подряд с 1: пустая база
+            try (var statement = connection.prepareStatement(
+                    "INSERT INTO masters_records (recordId, masterId) values (?, ?)")) {
+                int added = 0;
+                for (int recordId = 1; recordId <= records; recordId++) {
+                    if (random.nextDouble() >= acceptedShare) continue;
+                    statement.setInt(1, recordId);
+                    statement.setInt(2, 1 + random.nextInt(masters));
+                    addToBatch(connection, statement, ++added);
+                }
+                statement.executeBatch();
+            }
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static void addToBatch(Connection connection, PreparedStatement statement, int count)
+            throws SQLException {
+
+        statement.addBatch();
+        if (count % BATCH_SIZE == 0) {
+            statement.executeBatch();
+            connection.commit();
+        }
+    }
+
+    //Запросы списков, которые выполняет сервер, с одними и теми же параметрами на всех версиях схемы
+    private List<Case> cases() {
+
+        int clientId = clients / 2;
+        int masterId = masters / 2;
+        var middle = "'" + new Timestamp(firstDate + period / 2) + "'";
+        var nextDay = "'" + new Timestamp(firstDate + period / 2 + TimeUnit.DAYS.toMillis(1)) + "'";
+        var page = " ORDER BY r.clearanceDateTime, r.id LIMIT 21";
+        return List.of(
+                new Case("client records",
+                        SELECT_RECORDS + "WHERE r.clientId = " + clientId +
+                                " AND r.id IN (SELECT recordId FROM masters_records)",
+                        SELECT_RECORDS + "WHERE r.clientId = " + clientId + " AND r.accepted = TRUE"),
+                new Case("master records",
+                        SELECT_RECORDS + "INNER JOIN masters_records mr ON mr.recordId = r.id WHERE mr.masterId = " +
+                                masterId,
+                        SELECT_RECORDS + "WHERE r.masterId = " + masterId),
+                new Case("all not accepted",
+                        SELECT_RECORDS + "WHERE r.id NOT IN (SELECT recordId FROM masters_records)",
+                        SELECT_RECORDS + "WHERE r.accepted = FALSE"),
+                new Case("records page",
+                        SELECT_RECORDS + "WHERE TRUE AND (r.clearanceDateTime > " + middle +
+                                " OR (r.clearanceDateTime = " + middle + " AND r.id > 0))" + page,
+                        null),
+                new Case("not accepted page",
+                        SELECT_RECORDS + "WHERE r.id NOT IN (SELECT recordId FROM masters_records)" + page,
+                        SELECT_RECORDS + "WHERE r.accepted = FALSE" + page),
+                new Case("accepted page",
+                        SELECT_RECORDS + "WHERE r.id IN (SELECT recordId FROM masters_records)" + page,
+                        SELECT_RECORDS + "WHERE r.accepted = TRUE" + page),
+                new Case("one day query",
+                        SELECT_RECORDS + "WHERE r.clearanceDateTime >= " + middle +
+                                " AND r.clearanceDateTime < " + nextDay + page,
+                        null));
+    }
+
+    //current - запросы после ACCEPTANCE_VERSION (null в Case - запрос не изменился)
+    private Map<String, CaseResult> measure(Connection connection, boolean current) throws SQLException {
+
+        try (var statement = connection.createStatement()) {
+            statement.execute("ANALYZE TABLE records, masters_records, clients, purposes");
+        }
+        var results = new LinkedHashMap<String, CaseResult>();
+        for (var testCase : cases()) {
+            var sql = current && testCase.currentSql() != null ? testCase.currentSql() : testCase.legacySql();
+            //первый вызов прогревает буферный пул InnoDB
+            int rows = execute(connection, sql);
+            var timings = new double[repeats];
+            for (int i = 0; i < repeats; i++) {
+                var start = System.nanoTime();
+                execute(connection, sql);
+                timings[i] = (System.nanoTime() - start) / 1_000_000.0;
+            }
+            Arrays.sort(timings);
+            results.put(testCase.name(), new CaseResult(testCase.name(), timings[repeats / 2], timings[repeats - 1],
+                    rows, explain(connection, sql)));
+        }
+        return results;
+    }
+
+    //Запрос с чтением всех строк, как convertResultSetToList в репозитории
+    private static int execute(Connection connection, String sql) throws SQLException {
+
+        int rows = 0;
+        try (var statement = connection.createStatement();
+             var resultSet = statement.executeQuery(sql)) {
+            while (resultSet.next()) {
+                resultSet.getTimestamp("clearanceDateTime");
+                resultSet.getString("clientLogin");
+                resultSet.getString("purposeName");
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    //Строки EXPLAIN: таблица, тип доступа, индекс, оценка строк и дополнительные сведения
+    private static List<String> explain(Connection connection, String sql) throws SQLException {
+
+        var plan = new ArrayList<String>();
+        try (var statement = connection.createStatement();
+             var resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+            while (resultSet.next())
+                plan.add(String.format("%-16s %-7s %-32s rows=%-9s %s", resultSet.getString("table"),
+                        resultSet.getString("type"), resultSet.getString("key"), resultSet.getString("rows"),
+                        resultSet.getString("Extra")));
+        }
+        return plan;
+    }
+
+    //Медиана и худшее время на каждой версии схемы, ускорение последней относительно первой, затем планы.
+    //Разное число строк у одного запроса на разных версиях - ошибка миграции
+    private String compare(List<Stage> stages) {
+
+        var builder = new StringBuilder(records + " records, " + clients + " clients, " + masters + " masters, " +
+                repeats + " runs per query, p50 / max, ms").append(System.lineSeparator())
+                .append(String.format("%-18s %7s", "query", "rows"));
+        for (var stage : stages)
+            builder.append(String.format(" %21s", stage.name()));
+        builder.append(String.format(" %8s", "speedup"));
+        var first = stages.get(0).results();
+        var last = stages.get(stages.size() - 1).results();
+        for (var name : first.keySet()) {
+            builder.append(System.lineSeparator()).append(String.format("%-18s %7d", name, last.get(name).rows()));
+            for (var stage : stages) {
+                var result = stage.results().get(name);
+                builder.append(String.format(" %10.2f / %8.2f", result.p50Millis(), result.maxMillis()));
+            }
+            builder.append(String.format(" %7.1fx",
+                    first.get(name).p50Millis() / Math.max(last.get(name).p50Millis(), 0.001)));
+            if (stages.stream().anyMatch(stage -> stage.results().get(name).rows() != first.get(name).rows()))
+                builder.append(" ROWS DIFFER");
+        }
+        for (var name : first.keySet()) {
+            builder.append(System.lineSeparator());
+            for (var stage : stages) {
+                builder.append(System.lineSeparator()).append(name).append(", ").append(stage.name()).append(':');
+                stage.results().get(name).plan()
+                        .forEach(line -> builder.append(System.lineSeparator()).append("  ").append(line));
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,137 @@
+package benchmark;
+
+import Commands.PageRequest;
+import dbLayer.repositories.JdbcClientsRepository;
+import dbLayer.repositories.JdbcPurposesRepository;
+import dbLayer.repositories.JdbcRecordsRepository;
+import entities.Record;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+//Загрузка записей вместе с клиентом и услугой: прежний путь (строки records, затем клиент и услуга
+//отдельным запросом на каждую строку, 2N+1 запросов) против одного запроса с JOIN в JdbcRecordsRepository.
+//Запускается из QueryPlanBenchmark на его заполненной базе после всех миграций; запросы считаются
+//через обертку подключения - каждый prepareStatement / createStatement здесь выполняется ровно один раз
+class RecordLoadingBenchmark {
+
+    //Один список: строки records для прежнего пути и тот же список из репозитория
+    private record Case(String name, String recordsSql, RepositoryCall joined) {
+    }
+
+    @FunctionalInterface
+    private interface RepositoryCall {
+        List<Record> load(JdbcRecordsRepository repository) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface Loader {
+        List<Record> load() throws SQLException;
+    }
+
+    //Медиана времени, запросов и строк на один вызов
+    private record PathResult(double p50Millis, long statements, int rows) {
+    }
+
+    //Подсчет запросов к БД, выполненных через подключение
+    private static final class StatementCounter {
+
+        private long statements;
+
+        Connection wrap(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare") || method.getName().equals("createStatement"))
+                            statements++;
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+
+    private final Connection connection;
+
+    private final int repeats;
+
+    RecordLoadingBenchmark(Connection connection, int repeats) {
+        this.connection = connection;
+        this.repeats = repeats;
+    }
+
+    String run(int clientId, int masterId) throws SQLException {
+
+        var cases = List.of(
+                new Case("client records",
+                        "SELECT r.* FROM records r WHERE r.clientId = " + clientId + " AND r.accepted = TRUE",
+                        repository -> repository.getAllClientRecords(clientId)),
+                new Case("master records",
+                        "SELECT r.* FROM records r WHERE r.masterId = " + masterId,
+                        repository -> repository.getAllMasterRecords(masterId)),
+                new Case("page of 20",
+                        "SELECT r.* FROM records r ORDER BY r.clearanceDateTime, r.id LIMIT 20",
+                        repository -> repository.getPage(new PageRequest(20)).getItems()),
+                new Case("page of 500",
+                        "SELECT r.* FROM records r ORDER BY r.clearanceDateTime, r.id LIMIT " + PageRequest.MAX_PAGE_SIZE,
+                        repository -> repository.getPage(new PageRequest(PageRequest.MAX_PAGE_SIZE)).getItems()));
+
+        var builder = new StringBuilder("Records with client and purpose, " + repeats + " runs per list")
+                .append(System.lineSeparator())
+                .append(String.format("%-16s %6s %12s %12s %12s %12s %8s", "list", "rows",
+                        "N+1 queries", "N+1 p50, ms", "join queries", "join p50, ms", "speedup"));
+        for (var testCase : cases) {
+            var counter = new StatementCounter();
+            var counted = counter.wrap(connection);
+            var oneByOne = measure(counter, () -> loadOneByOne(counted, testCase.recordsSql()));
+            var repository = new JdbcRecordsRepository(counted);
+            var joined = measure(counter, () -> testCase.joined().load(repository));
+            builder.append(System.lineSeparator()).append(String.format("%-16s %6d %12d %12.2f %12d %12.2f %7.1fx%s",
+                    testCase.name(), joined.rows(), oneByOne.statements(), oneByOne.p50Millis(),
+                    joined.statements(), joined.p50Millis(),
+                    oneByOne.p50Millis() / Math.max(joined.p50Millis(), 0.001),
+                    oneByOne.rows() != joined.rows() ? " ROWS DIFFER" : ""));
+        }
+        return builder.toString();
+    }
+
+    private PathResult measure(StatementCounter counter, Loader loader) throws SQLException {
+
+        //первый вызов прогревает буферный пул InnoDB
+        int rows = loader.load().size();
+        counter.statements = 0;
+        var timings = new double[repeats];
+        for (int i = 0; i < repeats; i++) {
+            var start = System.nanoTime();
+            loader.load();
+            timings[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(timings);
+        return new PathResult(timings[repeats / 2], counter.statements / repeats, rows);
+    }
+
+    //Прежний RecordsRepository.convertResultSetToObj: клиент и услуга по id для каждой строки
+    private static List<Record> loadOneByOne(Connection connection, String recordsSql) throws SQLException {
+
+        var clientsRepository = new JdbcClientsRepository(connection);
+        var purposesRepository = new JdbcPurposesRepository(connection);
+        var list = new ArrayList<Record>();
+        try (var statement = connection.createStatement();
+             var resultSet = statement.executeQuery(recordsSql)) {
+            while (resultSet.next()) {
+                list.add(new Record(resultSet.getInt("id"),
+                        purposesRepository.getById(resultSet.getInt("purposeId")),
+                        clientsRepository.getById(resultSet.getInt("clientId")),
+                        new Date(resultSet.getTimestamp("clearanceDateTime").getTime())));
+            }
+        }
+        return list;
+    }
+}
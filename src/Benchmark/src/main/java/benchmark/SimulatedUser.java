@@ -0,0 +1,192 @@
+package benchmark;
+
+import Commands.AuthorizationCommand;
+import Commands.Command;
+import Commands.Page;
+import Commands.PageRequest;
+import Commands.Response;
+import entities.Master;
+import entities.Purpose;
+import entities.Record;
+import entities.Status;
+import entities.User;
+import enums.UserType;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+//Один имитируемый пользователь GUI: свое подключение, своя учетная запись и смесь операций роли.
+//Ошибка - исключение или ответ ERROR; после разрыва подключения пользователь входит заново
+class SimulatedUser implements Runnable {
+
+    private static final int PAGE_SIZE = 20;
+
+    //пауза перед повторным подключением, чтобы упавший сервер не засыпать попытками
+    private static final long RECONNECT_DELAY_MS = 500;
+
+    private final LoadSettings settings;
+
+    private final Protocol protocol;
+
+    private final UserType role;
+
+    private final String login;
+
+    private final String password;
+
+    private final OperationMix mix;
+
+    private final Supplier<LoadStats> stats;
+
+    private final BooleanSupplier running;
+
+    private ProtocolClient client;
+
+    //профиль клиента - он указывается в создаваемых записях
+    private User profile;
+
+    private List<Purpose> purposes = List.of();
+
+    SimulatedUser(LoadSettings settings, Protocol protocol, UserType role, String login, String password,
+                  Supplier<LoadStats> stats, BooleanSupplier running) {
+        this.settings = settings;
+        this.protocol = protocol;
+        this.role = role;
+        this.login = login;
+        this.password = password;
+        this.stats = stats;
+        this.running = running;
+        mix = switch (role) {
+            case MASTER -> settings.masterMix();
+            case ADMIN -> settings.adminMix();
+            default -> settings.clientMix();
+        };
+    }
+
+    //Подключение и регистрация учетной записи (администратор входит под существующей)
+    void setUp() throws Exception {
+
+        client = connect();
+        var response = switch (role) {
+            case USER -> client.call(AuthorizationCommand.REGISTER,
+                    new User(0, login, password, "Load test " + login, "+0000000000", Status.NOT_BANNED));
+            case MASTER -> client.call(AuthorizationCommand.REGISTER_MASTER,
+                    new Master(0, login, password, 1, "Load test " + login, Status.NOT_BANNED));
+            default -> client.call(AuthorizationCommand.AUTHORIZE, login, password) == role
+                    ? Response.SUCCESSFULLY : Response.ERROR;
+        };
+        if (response != Response.SUCCESSFULLY)
+            throw new IOException("Unable to sign in " + login + " as " + role + ": " + response);
+        loadProfile();
+    }
+
+    private ProtocolClient connect() throws IOException {
+        return new ProtocolClient(settings.serverIp(), settings.serverPort(), protocol);
+    }
+
+    private void loadProfile() throws Exception {
+
+        if (role == UserType.USER)
+            profile = client.call(Command.GET_CURRENT_PROFILE);
+        purposes = client.call(Command.GET_ALL_PURPOSES);
+    }
+
+    @Override
+    public void run() {
+
+        try {
+            while (running.getAsBoolean()) {
+                if (client == null && !reconnect()) continue;
+                var operation = mix.next();
+                var sent = client.getBytesSent();
+                var received = client.getBytesReceived();
+                var start = System.nanoTime();
+                boolean failed;
+                try {
+                    failed = !execute(operation);
+                } catch (Exception e) {
+                    failed = true;
+                    client.close();
+                    client = null;
+                }
+                var nanos = System.nanoTime() - start;
+                var current = client;
+                stats.get().record(operation, nanos, failed,
+                        current == null ? 0 : current.getBytesSent() - sent,
+                        current == null ? 0 : current.getBytesReceived() - received);
+                if (settings.thinkTimeMs() > 0)
+                    Thread.sleep(settings.thinkTimeMs());
+            }
+        } catch (InterruptedException ignored) {
+        } finally {
+            if (client != null)
+                client.close();
+        }
+    }
+
+    private boolean reconnect() throws InterruptedException {
+
+        try {
+            client = connect();
+            if (client.call(AuthorizationCommand.AUTHORIZE, login, password) != role)
+                throw new IOException("Unable to sign in " + login);
+            loadProfile();
+            return true;
+        } catch (Exception e) {
+            if (client != null)
+                client.close();
+            client = null;
+            TimeUnit.MILLISECONDS.sleep(RECONNECT_DELAY_MS);
+            return false;
+        }
+    }
+
+    //true - операция выполнена успешно
+    private boolean execute(Operation operation) throws Exception {
+
+        return switch (operation) {
+            case LOGIN -> {
+                client.send(Command.EXIT);
+                yield client.call(AuthorizationCommand.AUTHORIZE, login, password) == role;
+            }
+            case PURPOSES -> {
+                purposes = client.call(Command.GET_ALL_PURPOSES);
+                yield purposes != null;
+            }
+            case CREATE_RECORD -> createRecord();
+            case ACCEPT_RECORD -> acceptRecord();
+            case ADMIN_LISTING -> {
+                //при ошибке БД сервер отвечает Response.ERROR вместо страницы
+                Object clients = client.call(Command.GET_CLIENTS_PAGE, new PageRequest(PAGE_SIZE));
+                Object records = client.call(Command.GET_RECORDS_PAGE, new PageRequest(PAGE_SIZE));
+                yield clients instanceof Page && records instanceof Page;
+            }
+        };
+    }
+
+    private boolean createRecord() throws Exception {
+
+        if (profile == null || purposes.isEmpty())
+            throw new IllegalStateException(login + " cannot create records");
+        var random = ThreadLocalRandom.current();
+        var purpose = purposes.get(random.nextInt(purposes.size()));
+        var date = new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(random.nextInt(1, 60 * 24 * 30)));
+        return client.call(Command.CREATE_RECORD, new Record(0, purpose, profile, date)) == Response.SUCCESSFULLY;
+    }
+
+    //Первая страница непринятых заявок; пустая страница - не ошибка, просто нечего брать
+    private boolean acceptRecord() throws Exception {
+
+        Object response = client.call(Command.GET_RECORDS_NOT_ACCEPTED_PAGE, new PageRequest(PAGE_SIZE));
+        if (!(response instanceof Page<?> page)) return false;
+        var records = page.getItems();
+        if (records.isEmpty()) return true;
+        var record = (Record) records.get(ThreadLocalRandom.current().nextInt(records.size()));
+        return client.call(Command.ACCEPT_RECORD_TO_CURRENT_MASTER, record.getId()) == Response.SUCCESSFULLY;
+    }
+}
@@ -0,0 +1,8 @@
+module Benchmark {
+    requires Entities;
+    requires TransportLayer;
+    requires DataLayer;
+    requires java.sql;
+    requires java.management;
+    exports benchmark;
+}
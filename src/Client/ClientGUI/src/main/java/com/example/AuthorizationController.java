@@ -1,6 +1,8 @@
 package com.example;
 
 import connectionModule.ConnectionModule;
+import entities.Master;
+import entities.User;
 import enums.UserType;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -21,16 +23,20 @@ public class AuthorizationController {
         var password = passwordInput.getText();
 
         try {
-            Client.userType = ConnectionModule.singUp(login, password);
+            var userType = ConnectionModule.singUpAsync(login, password);
+            //в кадровом протоколе профиль запрашивается сразу, не дожидаясь ответа на вход
+            //(если вход не удался, сервер ответит на него UNKNOWN_COMMAND)
+            var profile = ConnectionModule.isPipelined() ? ConnectionModule.getCurrentProfileAsync() : null;
+            Client.userType = userType.get();
             if(Client.userType == UserType.UNDEFINED){
                 AlertManager.showErrorAlert("Пользователь не найден!", "");
             }
             else{
                 if(Client.userType == UserType.USER) {
-                    Client.connectedUser = ConnectionModule.getCurrentProfileClient();
+                    Client.connectedUser = (User) (profile != null ? profile.get() : ConnectionModule.getCurrentProfileClient());
                 }
                 if(Client.userType == UserType.MASTER) {
-                    Client.connectedMaster = ConnectionModule.getCurrentProfileMaster();
+                    Client.connectedMaster = (Master) (profile != null ? profile.get() : ConnectionModule.getCurrentProfileMaster());
                 }
                 Client.changingWindowUtility.showWindow(Client.changingWindowUtility.typesView, Client.changingWindowUtility.typesW, Client.changingWindowUtility.typesH, "Предоставляемые услуги");
             }
@@ -1,6 +1,8 @@
 package com.example;
 
+import Commands.RecordFilter;
 import connectionModule.ConnectionModule;
+import connectionModule.ServerErrorException;
 import entities.Purpose;
 import entities.Record;
 import enums.UserType;
@@ -17,8 +19,8 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.Calendar;
 import java.util.Date;
-import java.util.List;
 
 public class RecordsManagementController {
 
@@ -54,49 +56,51 @@ public class RecordsManagementController {
             }
         }
 
-        try {
-            List<Record> list = null;//создается пустой список записей
-            if(Client.userType == UserType.USER) { //запрашивается нужный список записей с сервера
-                list = ConnectionModule.getAllCurrentClientRecords();
-            }
-            else if(Client.userType == UserType.MASTER){
-                list = ConnectionModule.getAllCurrentMasterRecords();
-            }
-            else {
-                list = ConnectionModule.getAllRecordsAccepted();
-            }
-            for (var item: list) {
-                boolean isNeedToShow = true; //для каждой записи создается переменная isNeedToShow
-
-                if(costFrom != -1)
-                    isNeedToShow &= item.getPurpose().getCost() >= costFrom;
-
-                if(costTo != -1)
-                    isNeedToShow &= item.getPurpose().getCost() <= costTo;
-
-                if(!nameSearch.isEmpty())
-                    isNeedToShow &= item.getPurpose().getName().contains(nameSearch);
-
-                Date current = new Date();
-
-                if(isHistory)
-                    isNeedToShow &= item.getDate().getTime() < current.getTime();
-                else {
-                    isNeedToShow &= item.getDate().getTime() > current.getTime();
-
-                    SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-                    Date dateWithoutTime = sdf.parse(sdf.format(new Date()));
-
-                    if (checkToday.isSelected() && checkToday.isVisible() && !checkToday.isDisabled())
-                        isNeedToShow &= sdf.parse(sdf.format(item.getDate())).equals(dateWithoutTime);
-                }
+        //условия отбора выполняются на сервере одним запросом
+        var filter = new RecordFilter();
+        if(costFrom != -1)
+            filter.setCostFrom((float) costFrom);
+        if(costTo != -1)
+            filter.setCostTo((float) costTo);
+        filter.setPurposeName(nameSearch);
+
+        if(Client.userType == UserType.USER) { //нужный список записей
+            filter.setClientId(Client.connectedUser.getId());
+            filter.setAcceptance(RecordFilter.Acceptance.ACCEPTED);
+        }
+        else if(Client.userType == UserType.MASTER){
+            filter.setMasterId(Client.connectedMaster.getId());
+        }
+        else {
+            filter.setAcceptance(RecordFilter.Acceptance.ACCEPTED);
+        }
 
-                if(isNeedToShow)
-                    records.add(item);
+        Date current = new Date();
+        if(isHistory)
+            filter.setTo(current);
+        else {
+            filter.setFrom(current);
+
+            if (checkToday.isSelected() && checkToday.isVisible() && !checkToday.isDisabled()) {
+                //до начала следующего дня
+                var tomorrow = Calendar.getInstance();
+                tomorrow.setTime(current);
+                tomorrow.set(Calendar.HOUR_OF_DAY, 0);
+                tomorrow.set(Calendar.MINUTE, 0);
+                tomorrow.set(Calendar.SECOND, 0);
+                tomorrow.set(Calendar.MILLISECOND, 0);
+                tomorrow.add(Calendar.DAY_OF_MONTH, 1);
+                filter.setTo(tomorrow.getTime());
             }
+        }
+
+        try {
+            records.addAll(ConnectionModule.queryRecords(filter));
 
             projectsTable.setItems(records);//Список records устанавливается как источник данных для таблицы (projectsTable)
 
+        } catch (ServerErrorException e) {
+            AlertManager.showErrorAlert("Ошибка", "Сервер не смог загрузить записи, попробуйте позже");
         } catch (Exception e) {
             AlertManager.showErrorAlert("Ошибка", "Ошбика соединения");
         }
@@ -1,6 +1,8 @@
 package com.example;
 
+import Commands.RecordFilter;
 import connectionModule.ConnectionModule;
+import connectionModule.ServerErrorException;
 import entities.Record;
 import enums.UserType;
 import javafx.beans.value.ObservableValue;
@@ -120,29 +122,24 @@ public class RequestManagementController {
             }
         }
 
-        try {
-            var list = ConnectionModule.getAllRecordsNotAccepted();
-            for (var item: list) {
-                boolean isNeedToShow = true;
-
-                if(costFrom != -1)
-                    isNeedToShow &= item.getPurpose().getCost() >= costFrom;
-
-                if(costTo != -1)
-                    isNeedToShow &= item.getPurpose().getCost() <= costTo;
-
-                if(!nameSearch.isEmpty())
-                    isNeedToShow &= item.getPurpose().getName().contains(nameSearch);
+        //заявки отбираются на сервере одним запросом
+        var filter = new RecordFilter();
+        filter.setAcceptance(RecordFilter.Acceptance.NOT_ACCEPTED);
+        if(costFrom != -1)
+            filter.setCostFrom((float) costFrom);
+        if(costTo != -1)
+            filter.setCostTo((float) costTo);
+        filter.setPurposeName(nameSearch);
+        if(Client.userType == UserType.USER)
+            filter.setClientId(Client.connectedUser.getId());
 
-                if(Client.userType == UserType.USER)
-                    isNeedToShow &= Client.connectedUser.getId() == item.getClient().getId();
-
-                if(isNeedToShow)
-                    projects.add(item);
-            }
+        try {
+            projects.addAll(ConnectionModule.queryRecords(filter));
 
             requestTable.setItems(projects);
 
+        } catch (ServerErrorException e) {
+            AlertManager.showErrorAlert("Ошибка", "Сервер не смог загрузить записи, попробуйте позже");
         } catch (Exception e) {
             AlertManager.showErrorAlert("Ошибка", "Ошбика соединения");
         }
@@ -1,6 +1,8 @@
 package com.example;
 
+import Commands.PageRequest;
 import connectionModule.ConnectionModule;
+import connectionModule.ServerErrorException;
 import entities.Master;
 import entities.Status;
 import entities.User;
@@ -40,10 +42,16 @@ public class UserManagementController {
             ObservableList<User> users = FXCollections.observableArrayList();
 
             try {
-                var list = ConnectionModule.getAllClients();
-                for (var item: list) {
-                    users.add(item);
+                //список загружается страницами, а не одним ответом на всю таблицу
+                var pageRequest = new PageRequest();
+                while (pageRequest != null) {
+                    var page = ConnectionModule.getClientsPage(pageRequest);
+                    users.addAll(page.getItems());
+                    pageRequest = page.getNext();
                 }
+            } catch (ServerErrorException e) {
+                AlertManager.showErrorAlert("Ошибка", "Сервер не смог загрузить список, попробуйте позже");
+                users.clear();
             } catch (Exception e) {
                 AlertManager.showErrorAlert("Ошибка", "Ошбика соединения");
             }
@@ -59,10 +67,15 @@ public class UserManagementController {
             ObservableList<Master> masters = FXCollections.observableArrayList();
 
             try {
-                var list = ConnectionModule.getAllMasters();
-                for (var item: list) {
-                    masters.add(item);
+                var pageRequest = new PageRequest();
+                while (pageRequest != null) {
+                    var page = ConnectionModule.getMastersPage(pageRequest);
+                    masters.addAll(page.getItems());
+                    pageRequest = page.getNext();
                 }
+            } catch (ServerErrorException e) {
+                AlertManager.showErrorAlert("Ошибка", "Сервер не смог загрузить список, попробуйте позже");
+                masters.clear();
             } catch (Exception e) {
                 AlertManager.showErrorAlert("Ошибка", "Ошбика соединения");
             }
@@ -2,15 +2,27 @@ package connectionModule;
 
 import Commands.AuthorizationCommand;
 import Commands.Command;
+import Commands.Page;
+import Commands.PageRequest;
+import Commands.RecordFilter;
 import Commands.Response;
 import entities.*;
 import entities.Record;
 import enums.UserType;
+import protocol.Frame;
+import protocol.Frames;
+import protocol.Opcodes;
+import protocol.WireFormat;
 
 import java.io.*;
 import java.net.Socket;
-import java.util.List;
-import java.util.Properties;
+import java.net.SocketTimeoutException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 /*предоставляет интерфейс для взаимодействия клиента с сервером;
      отвечает за отправку/получение данных от сервера*/
 public class ConnectionModule {
@@ -22,6 +34,24 @@ public class ConnectionModule {
     private static final int serverPort;
     private static ObjectOutputStream objectOutputStream;
     private static ObjectInputStream objectInputStream;
+    //Кадровый протокол: команда и ее аргументы уходят одним кадром.
+    //null - поток объектов (выбран в настройках или сервер не подтвердил формат)
+    private static final WireFormat configuredWireFormat;
+    private static volatile WireFormat wireFormat;
+    private static final int HANDSHAKE_TIMEOUT_MS = 5000;
+    private static DataOutputStream frameOutputStream;
+    private static DataInputStream frameInputStream;
+    //Кадровый протокол позволяет отправлять запросы, не дожидаясь ответов на предыдущие.
+    //Ответы читает отдельный поток и по номеру запроса передает их ожидающим
+    private static final Map<Integer, CompletableFuture<Object>> pendingResponses = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextCorrelationId = new AtomicInteger();
+    private static volatile IOException connectionFailure;
+    //Сервер закрывает подключения без данных от клиента, поэтому при простое шлем PING.
+    //В потоке объектов запрос (команда, аргументы, ответ) занимает поток целиком - PING ждет его окончания
+    private static final int heartbeatIntervalMs;
+    private static volatile long lastRequestTime;
+    private static Thread heartbeatThread;
+    private static final ReentrantLock objectStreamLock = new ReentrantLock();
 
     private static Properties getPropertiesFromConfig() throws IOException {
 
@@ -39,6 +69,12 @@ public class ConnectionModule {
             var properties = getPropertiesFromConfig();
             serverIp = properties.getProperty("serverIp");
             serverPort = Integer.parseInt(properties.getProperty("serverPort"));
+            configuredWireFormat = switch (properties.getProperty("protocol", "OBJECT_STREAM").trim()) {
+                case "FRAMED" -> WireFormat.SERIALIZED;
+                case "BINARY" -> WireFormat.BINARY;
+                default -> null;
+            };
+            heartbeatIntervalMs = Integer.parseInt(properties.getProperty("heartbeatIntervalMs", "0").trim());
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -47,204 +83,405 @@ public class ConnectionModule {
  если соединение было успешно установлено*/
     public static boolean connectToServer() throws IOException {
 
+        lastRequestTime = System.currentTimeMillis();
+        startHeartbeat();
         connectionSocket = new Socket(serverIp, serverPort);
         if (!connectionSocket.isConnected()) return false;
+        wireFormat = configuredWireFormat;
+        if (wireFormat != null) {
+            if (negotiate()) {
+                startResponseReader(frameInputStream, wireFormat);
+                return true;
+            }
+            //сервер не поддерживает кадровый протокол - переподключаемся с потоком объектов
+            System.out.println("Server did not confirm the " + wireFormat + " protocol, using object stream");
+            connectionSocket.close();
+            wireFormat = null;
+            connectionSocket = new Socket(serverIp, serverPort);
+            if (!connectionSocket.isConnected()) return false;
+        }
         objectOutputStream = new ObjectOutputStream(connectionSocket.getOutputStream());
         objectInputStream = new ObjectInputStream(connectionSocket.getInputStream());
         return true;
     }
-/*отправляет объект на сервер*/
-    private static void sendObject(Serializable object) throws IOException {
+/*предлагает серверу формат кадров и ждет подтверждения*/
+    private static boolean negotiate() throws IOException {
+
+        connectionSocket.setTcpNoDelay(true);
+        frameOutputStream = new DataOutputStream(new BufferedOutputStream(connectionSocket.getOutputStream()));
+        frameInputStream = new DataInputStream(new BufferedInputStream(connectionSocket.getInputStream()));
+        frameOutputStream.writeInt(wireFormat.getMagic());
+        frameOutputStream.flush();
+        connectionSocket.setSoTimeout(HANDSHAKE_TIMEOUT_MS);
+        try {
+            return frameInputStream.readInt() == wireFormat.getMagic();
+        } catch (EOFException | SocketTimeoutException e) {
+            return false;
+        } finally {
+            if (!connectionSocket.isClosed())
+                connectionSocket.setSoTimeout(0);
+        }
+    }
+/*поток, который читает ответы сервера в кадровом протоколе*/
+    private static void startResponseReader(DataInputStream inputStream, WireFormat format) {
+
+        connectionFailure = null;
+        var reader = new Thread(() -> readResponses(inputStream, format), "connection-module-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private static void readResponses(DataInputStream inputStream, WireFormat format) {
+
+        try {
+            while (true) {
+                var frame = Frames.readFrame(inputStream);
+                //сервер останавливается - запросы надо повторить после переподключения
+                if (frame.opcode() == Opcodes.GOING_AWAY)
+                    throw new IOException("Server is shutting down");
+                var future = pendingResponses.remove(frame.correlationId());
+                if (future == null) continue; //ответ на запрос, которого никто не ждет
+                try {
+                    future.complete(format.getCodec().open(frame.payload()).read());
+                } catch (ClassNotFoundException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        } catch (IOException e) {
+            //соединение разорвано - ожидающие запросы ответа не получат
+            connectionFailure = e;
+            for (var correlationId : pendingResponses.keySet()) {
+                var future = pendingResponses.remove(correlationId);
+                if (future != null) future.completeExceptionally(e);
+            }
+        }
+    }
+/*поток, который шлет PING, пока клиент ничего не запрашивает (один на все переподключения)*/
+    private static synchronized void startHeartbeat() {
+
+        if (heartbeatIntervalMs <= 0 || heartbeatThread != null) return;
+        heartbeatThread = new Thread(ConnectionModule::heartbeat, "connection-module-heartbeat");
+        heartbeatThread.setDaemon(true);
+        heartbeatThread.start();
+    }
+
+    private static void heartbeat() {
+
+        while (true) {
+            try {
+                Thread.sleep(heartbeatIntervalMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (connectionSocket == null || connectionSocket.isClosed()) continue;
+            if (System.currentTimeMillis() - lastRequestTime < heartbeatIntervalMs) continue;
+            try {
+                ping();
+            } catch (Exception ignored) {
+                //соединение разорвано - ошибку получит следующий запрос
+            }
+        }
+    }
 
-        objectOutputStream.writeObject(object);
+    private static void ping() throws Exception {
+
+        if (wireFormat != null) {
+            //ответ PONG никто не ждет - поток чтения его пропустит
+            sendFrame(Command.PING, List.of(), false);
+            return;
+        }
+        if (!objectStreamLock.tryLock()) return; //идет запрос - сервер и так получает данные
+        try {
+            objectOutputStream.writeObject(Command.PING);
+            objectOutputStream.flush();
+            objectInputStream.readObject();
+            lastRequestTime = System.currentTimeMillis();
+        } finally {
+            objectStreamLock.unlock();
+        }
+    }
+/*отправляет объекты на сервер; вызывается под objectStreamLock*/
+    private static void sendObjects(Serializable... objects) throws IOException {
+
+        lastRequestTime = System.currentTimeMillis();
+        for (var object : objects)
+            objectOutputStream.writeObject(object);
         objectOutputStream.flush();
     }
-    /*ожидает получения объекта от сервера и возвращает его*/
-    private static  <T> T receiveObject() throws Exception {
+    /*отправляет кадр запроса; ответ придет в возвращаемый CompletableFuture*/
+    private static CompletableFuture<Object> sendFrame(Object command, List<?> arguments, boolean expectResponse) {
 
-        return (T) objectInputStream.readObject();
+        var future = new CompletableFuture<Object>();
+        int correlationId = nextCorrelationId.incrementAndGet();
+        lastRequestTime = System.currentTimeMillis();
+        try {
+            var frame = new Frame(Opcodes.of(command), correlationId, wireFormat.getCodec().encode(arguments));
+            if (expectResponse)
+                pendingResponses.put(correlationId, future);
+            else
+                future.complete(null);
+            if (connectionFailure != null)
+                throw connectionFailure;
+            synchronized (frameOutputStream) {
+                Frames.writeFrame(frameOutputStream, frame);
+            }
+        } catch (IOException e) {
+            pendingResponses.remove(correlationId);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+    /*синхронный запрос: команда с аргументами и ответ на нее. Аргументы собираются для каждого
+     запроса отдельно, поэтому запросы из разных потоков (поток FX и фоновые Task) не перемешиваются:
+     в кадровом протоколе это разные кадры, в потоке объектов запросы идут по очереди*/
+    private static <T> T request(Object command, Serializable... arguments) throws Exception {
+
+        if (wireFormat != null)
+            return await(sendFrame(command, Arrays.asList(arguments), true));
+        //команда передается кодом в заголовке кадра, в потоке объектов - первым объектом.
+        //Поток занят запросом до получения ответа - heartbeat не вклинится; блокировка снимается
+        //и при ошибке записи или чтения, иначе PING больше никогда бы не отправился
+        objectStreamLock.lock();
+        try {
+            sendObjects((Serializable) command);
+            sendObjects(arguments);
+            return (T) objectInputStream.readObject();
+        } finally {
+            objectStreamLock.unlock();
+        }
+    }
+
+    private static <T> T await(CompletableFuture<?> future) throws Exception {
+        try {
+            return (T) future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+/*true, если запросы можно отправлять, не дожидаясь ответов на предыдущие*/
+    public static boolean isPipelined() {
+        return wireFormat != null;
+    }
+/*отправляет команду с аргументами и сразу возвращает CompletableFuture с ответом.
+ В кадровом протоколе запросы выполняются сервером по порядку, ответы сопоставляются по номеру запроса;
+ в потоке объектов запрос выполняется синхронно*/
+    public static <T> CompletableFuture<T> requestAsync(Object command, Serializable... arguments) {
+
+        CompletableFuture<?> future;
+        if (wireFormat != null) {
+            future = sendFrame(command, Arrays.asList(arguments), true);
+        } else {
+            try {
+                future = CompletableFuture.completedFuture(request(command, arguments));
+            } catch (Exception e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+        }
+        return (CompletableFuture<T>) future;
+    }
+
+    public static CompletableFuture<UserType> singUpAsync(String login, String password) {
+        return requestAsync(AuthorizationCommand.AUTHORIZE, login, password);
+    }
+
+    //User, Master или Admin - в зависимости от типа вошедшего пользователя
+    public static CompletableFuture<Serializable> getCurrentProfileAsync() {
+        return requestAsync(Command.GET_CURRENT_PROFILE);
     }
 
     public static UserType singUp(String login, String password) throws Exception {
 
-        sendObject(AuthorizationCommand.AUTHORIZE);//отправление команды авторизации на сервер
-        sendObject(login);
-        sendObject(password);
-        return receiveObject();// получение ответа от сервера
+        return request(AuthorizationCommand.AUTHORIZE, login, password); //отправление команды авторизации на сервер
     }
 
     public static Response registration(User user) throws Exception { // регистрация клиента
 
-        sendObject(AuthorizationCommand.REGISTER);// запрос на регистрацию пользователя
-        sendObject(user);
-        return receiveObject();
+        return request(AuthorizationCommand.REGISTER, user); // запрос на регистрацию пользователя
     }
 
     public static Response registrationMaster(Master master) throws Exception { //регистрация мастера
 
-        sendObject(AuthorizationCommand.REGISTER_MASTER);
-        sendObject(master);
-        return receiveObject();
+        return request(AuthorizationCommand.REGISTER_MASTER, master);
     }
 
     //ТОЛЬКО ПРИ РЕГИСТРАЦИИ
     public static boolean checkIfLoginExists(String login) throws Exception {
-        sendObject(AuthorizationCommand.CHECK_IF_LOGIN_EXISTS);
-        sendObject(login);
-        Response response = receiveObject(); //сохраняет ответ в переменную response
+        Response response = request(AuthorizationCommand.CHECK_IF_LOGIN_EXISTS, login); //сохраняет ответ в переменную response
         return response == Response.SUCCESSFULLY;
     }
 
     //разрыв соединения между клиентом и сервером
     public static void exit() throws IOException {
-        sendObject(Command.EXIT);
+        if (wireFormat == null) {
+            objectStreamLock.lock();
+            try {
+                sendObjects(Command.EXIT);
+            } finally {
+                objectStreamLock.unlock();
+            }
+            return;
+        }
+        try {
+            await(sendFrame(Command.EXIT, List.of(), false));
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
     }
 
     public static List<Purpose> getAllPurposes() throws Exception {
-        sendObject(Command.GET_ALL_PURPOSES);
-        return receiveObject();
+        return request(Command.GET_ALL_PURPOSES);
     }
 
     public static Response createPurpose(Purpose purpose) throws Exception {
-        sendObject(Command.CREATE_PURPOSE);
-        sendObject(purpose);
-        return receiveObject();
+        return request(Command.CREATE_PURPOSE, purpose);
     }
 
     public static Response editPurpose(Purpose purpose) throws Exception {
-        sendObject(Command.EDIT_PURPOSE);
-        sendObject(purpose);
-        return receiveObject();
+        return request(Command.EDIT_PURPOSE, purpose);
     }
 
     public static Response deletePurpose(int purposeId) throws Exception {
         System.out.println("Выполняем запрос на удаление записи с ID " + purposeId);
-        sendObject(Command.DELETE_PURPOSE);
-        sendObject(purposeId);
+        Response response = request(Command.DELETE_PURPOSE, purposeId);
         System.out.println("Запись успешно удалена");
-        return receiveObject();
+        return response;
     }
 
     public static Response banClient(int clientId) throws Exception {
-        sendObject(Command.BAN_CLIENT);
-        sendObject(clientId);
-        return receiveObject();
+        return request(Command.BAN_CLIENT, clientId);
     }
 
     public static Response unbanClient(int clientId) throws Exception {
-        sendObject(Command.UNBAN_CLIENT);
-        sendObject(clientId);
-        return receiveObject();
+        return request(Command.UNBAN_CLIENT, clientId);
     }
 
     public static Response unbanMaster(int masterId) throws Exception {
-        sendObject(Command.UNBAN_MASTER);
-        sendObject(masterId);
-        return receiveObject();
+        return request(Command.UNBAN_MASTER, masterId);
     }
 
     public static Response banMaster(int masterId) throws Exception {
-        sendObject(Command.BAN_MASTER);
-        sendObject(masterId);
-        return receiveObject();
+        return request(Command.BAN_MASTER, masterId);
     }
 
     public static Response registerMaster(Master master) throws Exception {
-        sendObject(Command.REGISTER_MASTER);
-        sendObject(master);
-        return receiveObject();
+        return request(Command.REGISTER_MASTER, master);
     }
 
     public static Response registerUser(User user) throws Exception {
-        sendObject(Command.REGISTER_USER);
-        sendObject(user);
-        return receiveObject();
+        return request(Command.REGISTER_USER, user);
     }
 
     public static List<Record> getAllCurrentMasterRecords() throws Exception {
-        sendObject(Command.GET_ALL_CURRENT_MASTER_RECORDS);
-        return receiveObject();
+        return request(Command.GET_ALL_CURRENT_MASTER_RECORDS);
     }
 
     public static List<Record> getAllCurrentClientRecords() throws Exception {
-        sendObject(Command.GET_ALL_CURRENT_CLIENT_RECORDS);
-        return receiveObject();
+        return request(Command.GET_ALL_CURRENT_CLIENT_RECORDS);
     }
 
     public static List<Record> getAllRecordsNotAccepted() throws Exception {
-        sendObject(Command.GET_ALL_RECORDS_NOT_ACCEPTED);
-        return receiveObject();
+        return request(Command.GET_ALL_RECORDS_NOT_ACCEPTED);
     }
 
     public static List<Record> getAllRecord() throws Exception {
-        sendObject(Command.GET_ALL_RECORDS);
-        return receiveObject();
+        return request(Command.GET_ALL_RECORDS);
     }
 
     public static List<Record> getAllRecordsAccepted() throws Exception {
-        sendObject(Command.GET_ALL_RECORDS_ACCEPTED);
-        return receiveObject();
+        return request(Command.GET_ALL_RECORDS_ACCEPTED);
     }
 
     public static List<User> getAllClients() throws Exception {
-        sendObject(Command.GET_ALL_CLIENTS);
-        return receiveObject();
+        return request(Command.GET_ALL_CLIENTS);
     }
 
     public static List<Master> getAllMasters() throws Exception {
-        sendObject(Command.GET_ALL_MASTERS);
-        return receiveObject();
+        return request(Command.GET_ALL_MASTERS);
     }
     public static Response acceptRecordToCurrentMaster(int recordId) throws Exception {
-        sendObject(Command.ACCEPT_RECORD_TO_CURRENT_MASTER);
-        sendObject(recordId);
-        return receiveObject();
+        return request(Command.ACCEPT_RECORD_TO_CURRENT_MASTER, recordId);
     }
 
     public static Response deleteRecord(int recordId) throws Exception {
-        sendObject(Command.DELETE_RECORD);
-        sendObject(recordId);
-        return receiveObject();
+        return request(Command.DELETE_RECORD, recordId);
     }
 
     public static Response deleteAcception(int recordId) throws Exception {
-        sendObject(Command.DELETE_ACCEPTION);
-        sendObject(recordId);
-        return receiveObject();
+        return request(Command.DELETE_ACCEPTION, recordId);
     }
 
     public static Response createRecord(Record record) throws Exception {
-        sendObject(Command.CREATE_RECORD);
-        sendObject(record);
-        return receiveObject();
+        return request(Command.CREATE_RECORD, record);
     }
 
     public static User getCurrentProfileClient() throws Exception {
-        sendObject(Command.GET_CURRENT_PROFILE);
-        return receiveObject();
+        return request(Command.GET_CURRENT_PROFILE);
     }
 
     public static Master getCurrentProfileMaster() throws Exception {
-        sendObject(Command.GET_CURRENT_PROFILE);
-        return receiveObject();
+        return request(Command.GET_CURRENT_PROFILE);
     }
 
     public static Admin getCurrentProfileAdmin() throws Exception {
-        sendObject(Command.GET_CURRENT_PROFILE);
-        return receiveObject();
+        return request(Command.GET_CURRENT_PROFILE);
     }
 
     public static Response editCurrentProfile(UserType type, User user) throws Exception {
-        sendObject(Command.EDIT_CURRENT_PROFILE);
-        sendObject(type);
-        sendObject(user);
-        return receiveObject();
+        return request(Command.EDIT_CURRENT_PROFILE, type, user);
     }
 
     public static Response editCurrentProfile(UserType type, Master master) throws Exception {
-        sendObject(Command.EDIT_CURRENT_PROFILE);
-        sendObject(type);
-        sendObject(master);
-        return receiveObject();
+        return request(Command.EDIT_CURRENT_PROFILE, type, master);
+    }
+
+    //Постраничная загрузка: первая страница - new PageRequest(размер), следующая - page.getNext().
+    //Ошибка БД на сервере - ServerErrorException: пустая страница означала бы конец списка
+    public static Page<Record> getRecordsPage(PageRequest pageRequest) throws Exception {
+        return requestPage(Command.GET_RECORDS_PAGE, pageRequest);
+    }
+
+    public static Page<Record> getRecordsAcceptedPage(PageRequest pageRequest) throws Exception {
+        return requestPage(Command.GET_RECORDS_ACCEPTED_PAGE, pageRequest);
+    }
+
+    public static Page<Record> getRecordsNotAcceptedPage(PageRequest pageRequest) throws Exception {
+        return requestPage(Command.GET_RECORDS_NOT_ACCEPTED_PAGE, pageRequest);
+    }
+
+    public static Page<User> getClientsPage(PageRequest pageRequest) throws Exception {
+        return requestPage(Command.GET_CLIENTS_PAGE, pageRequest);
+    }
+
+    public static Page<Master> getMastersPage(PageRequest pageRequest) throws Exception {
+        return requestPage(Command.GET_MASTERS_PAGE, pageRequest);
+    }
+
+    //Записи, отобранные фильтром на сервере
+    public static Page<Record> queryRecords(RecordFilter filter, PageRequest pageRequest) throws Exception {
+        return requestPage(Command.QUERY_RECORDS, filter, pageRequest);
+    }
+
+    //Страница или ServerErrorException, если сервер ответил Response.ERROR
+    private static <T extends Serializable> Page<T> requestPage(Command command, Serializable... arguments)
+            throws Exception {
+        Object response = request(command, arguments);
+        if (response instanceof Response error)
+            throw new ServerErrorException(command, error);
+        return (Page<T>) response;
+    }
+
+    //Все записи, отобранные фильтром (загружаются страницами).
+    //Ошибка на любой странице прерывает загрузку, а не обрезает список
+    public static List<Record> queryRecords(RecordFilter filter) throws Exception {
+        var list = new ArrayList<Record>();
+        var pageRequest = new PageRequest(PageRequest.MAX_PAGE_SIZE);
+        while (pageRequest != null) {
+            var page = queryRecords(filter, pageRequest);
+            list.addAll(page.getItems());
+            pageRequest = page.getNext();
+        }
+        return list;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package connectionModule;
+
+import Commands.Response;
+
+//Сервер принял команду, но не смог ее выполнить (например, ошибка БД) - соединение при этом исправно
+public class ServerErrorException extends Exception {
+
+    private final Response response;
+
+    public ServerErrorException(Object command, Response response) {
+        super("Server failed to execute " + command + ": " + response);
+        this.response = response;
+    }
+
+    public Response getResponse() {
+        return response;
+    }
+}
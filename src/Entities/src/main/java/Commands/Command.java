@@ -34,4 +34,17 @@ public enum Command {
     GET_CURRENT_PROFILE,
     EDIT_CURRENT_PROFILE,
 
+    //PAGINATION (аргумент - PageRequest, ответ - Page)
+    GET_RECORDS_PAGE,
+    GET_RECORDS_ACCEPTED_PAGE,
+    GET_RECORDS_NOT_ACCEPTED_PAGE,
+    GET_CLIENTS_PAGE,
+    GET_MASTERS_PAGE,
+
+    //FILTERS (аргументы - RecordFilter и PageRequest, ответ - Page записей)
+    QUERY_RECORDS,
+
+    //HEARTBEAT (без аргументов, ответ - Response.PONG; принимается и до входа в систему)
+    PING,
+
 }
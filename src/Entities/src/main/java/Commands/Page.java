@@ -0,0 +1,34 @@
+package Commands;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+//Страница списка и запрос следующей страницы (null, если это последняя)
+public class Page<T extends Serializable> implements Serializable {
+
+    private ArrayList<T> items;
+
+    private PageRequest next;
+
+    public Page() {
+        this(new ArrayList<>(), null);
+    }
+
+    public Page(List<T> items, PageRequest next) {
+        this.items = new ArrayList<>(items);
+        this.next = next;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public PageRequest getNext() {
+        return next;
+    }
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
@@ -0,0 +1,51 @@
+package Commands;
+
+import java.io.Serializable;
+import java.util.Date;
+
+//Запрос страницы списка (keyset-пагинация): следующие pageSize строк после строки с ключом
+//(afterDate, afterId). Списки записей упорядочены по дате и id, остальные списки - по id.
+//Первая страница запрашивается без ключа
+public class PageRequest implements Serializable {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private int pageSize;
+
+    private int afterId;
+
+    private Date afterDate;
+
+    public PageRequest() {
+        this(DEFAULT_PAGE_SIZE);
+    }
+
+    public PageRequest(int pageSize) {
+        this(pageSize, 0, null);
+    }
+
+    public PageRequest(int pageSize, int afterId, Date afterDate) {
+        this.pageSize = pageSize;
+        this.afterId = afterId;
+        this.afterDate = afterDate;
+    }
+
+    //Размер страницы, ограниченный MAX_PAGE_SIZE
+    public int getPageSize() {
+        return Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+    }
+
+    public int getAfterId() {
+        return afterId;
+    }
+
+    public Date getAfterDate() {
+        return afterDate;
+    }
+
+    public boolean isFirstPage() {
+        return afterId == 0 && afterDate == null;
+    }
+}
@@ -0,0 +1,102 @@
+package Commands;
+
+import java.io.Serializable;
+import java.util.Date;
+
+//Условия выборки записей для QUERY_RECORDS. Незаданное (null) условие не ограничивает выборку
+public class RecordFilter implements Serializable {
+
+    public enum Acceptance {
+        ANY,
+        //запись принята мастером
+        ACCEPTED,
+        //заявка, которую еще не принял ни один мастер
+        NOT_ACCEPTED,
+    }
+
+    private Float costFrom;
+
+    private Float costTo;
+
+    //подстрока названия услуги
+    private String purposeName;
+
+    //время записи: from включительно, to не включительно
+    private Date from;
+
+    private Date to;
+
+    private Integer clientId;
+
+    //записи, принятые этим мастером
+    private Integer masterId;
+
+    private Acceptance acceptance = Acceptance.ANY;
+
+    public RecordFilter() {
+    }
+
+    public Float getCostFrom() {
+        return costFrom;
+    }
+
+    public void setCostFrom(Float costFrom) {
+        this.costFrom = costFrom;
+    }
+
+    public Float getCostTo() {
+        return costTo;
+    }
+
+    public void setCostTo(Float costTo) {
+        this.costTo = costTo;
+    }
+
+    public String getPurposeName() {
+        return purposeName;
+    }
+
+    public void setPurposeName(String purposeName) {
+        this.purposeName = purposeName == null || purposeName.isEmpty() ? null : purposeName;
+    }
+
+    public Date getFrom() {
+        return from;
+    }
+
+    public void setFrom(Date from) {
+        this.from = from;
+    }
+
+    public Date getTo() {
+        return to;
+    }
+
+    public void setTo(Date to) {
+        this.to = to;
+    }
+
+    public Integer getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(Integer clientId) {
+        this.clientId = clientId;
+    }
+
+    public Integer getMasterId() {
+        return masterId;
+    }
+
+    public void setMasterId(Integer masterId) {
+        this.masterId = masterId;
+    }
+
+    public Acceptance getAcceptance() {
+        return acceptance;
+    }
+
+    public void setAcceptance(Acceptance acceptance) {
+        this.acceptance = acceptance == null ? Acceptance.ANY : acceptance;
+    }
+}
@@ -6,4 +6,5 @@ public enum Response {
     ERROR,
     NOT_FOUND,
     UNKNOWN_COMMAND,
+    PONG,
 }
@@ -2,4 +2,5 @@ module Entities {
     exports Commands;
     exports entities;
     exports enums;
+    exports protocol;
 }
\ No newline at end of file
@@ -0,0 +1,310 @@
+package protocol;
+
+import Commands.Page;
+import Commands.PageRequest;
+import Commands.RecordFilter;
+import Commands.Response;
+import entities.*;
+import entities.Record;
+import enums.UserType;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+//Двоичная раскладка данных кадра: каждое значение - байт типа и поля в фиксированном порядке.
+//Типы без своей раскладки передаются как сериализованный объект (тег SERIALIZED)
+public class BinaryPayloadCodec implements PayloadCodec {
+
+    private static final byte NULL = 0;
+    private static final byte INT = 1;
+    private static final byte STRING = 2;
+    private static final byte RESPONSE = 3;
+    private static final byte USER_TYPE = 4;
+    private static final byte STATUS = 5;
+    private static final byte USER = 6;
+    private static final byte MASTER = 7;
+    private static final byte ADMIN = 8;
+    private static final byte PURPOSE = 9;
+    private static final byte RECORD = 10;
+    private static final byte LIST = 11;
+    private static final byte PAGE_REQUEST = 12;
+    private static final byte PAGE = 13;
+    private static final byte RECORD_FILTER = 14;
+    private static final byte SERIALIZED = 127;
+
+    //больше страницы (PageRequest.MAX_PAGE_SIZE) списки почти не бывают, дальше список растет сам
+    private static final int MAX_INITIAL_LIST_CAPACITY = 1024;
+
+    private static final Response[] RESPONSES = Response.values();
+    private static final UserType[] USER_TYPES = UserType.values();
+    private static final Status[] STATUSES = Status.values();
+    private static final RecordFilter.Acceptance[] ACCEPTANCES = RecordFilter.Acceptance.values();
+
+    @Override
+    public byte[] encode(List<?> values) throws IOException {
+
+        var bytes = new ByteArrayOutputStream();
+        var outputStream = new DataOutputStream(bytes);
+        for (var value : values)
+            writeValue(outputStream, value);
+        outputStream.flush();
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public PayloadReader open(byte[] payload) {
+
+        var inputStream = new DataInputStream(new ByteArrayInputStream(payload));
+        return new PayloadReader() {
+            @Override
+            public <T> T read() throws IOException, ClassNotFoundException {
+                return (T) readValue(inputStream);
+            }
+        };
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Integer number) {
+            out.writeByte(INT);
+            out.writeInt(number);
+        } else if (value instanceof String string) {
+            out.writeByte(STRING);
+            writeString(out, string);
+        } else if (value instanceof Response response) {
+            out.writeByte(RESPONSE);
+            out.writeByte(response.ordinal());
+        } else if (value instanceof UserType type) {
+            out.writeByte(USER_TYPE);
+            out.writeByte(type.ordinal());
+        } else if (value instanceof Status status) {
+            out.writeByte(STATUS);
+            out.writeByte(status.ordinal());
+        } else if (value instanceof User user) {
+            out.writeByte(USER);
+            writeUser(out, user);
+        } else if (value instanceof Master master) {
+            out.writeByte(MASTER);
+            out.writeInt(master.getId());
+            writeString(out, master.getLogin());
+            writeString(out, master.getPassword());
+            out.writeInt(master.getExperience());
+            writeString(out, master.getFullName());
+            writeStatus(out, master.getStatus());
+        } else if (value instanceof Admin admin) {
+            out.writeByte(ADMIN);
+            out.writeInt(admin.getId());
+            writeString(out, admin.getLogin());
+            writeString(out, admin.getPassword());
+        } else if (value instanceof Purpose purpose) {
+            out.writeByte(PURPOSE);
+            writePurpose(out, purpose);
+        } else if (value instanceof Record record) {
+            out.writeByte(RECORD);
+            out.writeInt(record.getId());
+            out.writeLong(record.getDate() == null ? Long.MIN_VALUE : record.getDate().getTime());
+            out.writeBoolean(record.getPurpose() != null);
+            if (record.getPurpose() != null) writePurpose(out, record.getPurpose());
+            out.writeBoolean(record.getClient() != null);
+            if (record.getClient() != null) writeUser(out, record.getClient());
+        } else if (value instanceof List<?> list) {
+            out.writeByte(LIST);
+            writeList(out, list);
+        } else if (value instanceof PageRequest pageRequest) {
+            out.writeByte(PAGE_REQUEST);
+            writePageRequest(out, pageRequest);
+        } else if (value instanceof Page<?> page) {
+            out.writeByte(PAGE);
+            writeList(out, page.getItems());
+            out.writeBoolean(page.hasNext());
+            if (page.hasNext()) writePageRequest(out, page.getNext());
+        } else if (value instanceof RecordFilter filter) {
+            out.writeByte(RECORD_FILTER);
+            writeRecordFilter(out, filter);
+        } else {
+            out.writeByte(SERIALIZED);
+            var bytes = new ByteArrayOutputStream();
+            try (var objectOutputStream = new ObjectOutputStream(bytes)) {
+                objectOutputStream.writeObject(value);
+            }
+            out.writeInt(bytes.size());
+            bytes.writeTo(out);
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException, ClassNotFoundException {
+
+        byte tag = in.readByte();
+        return switch (tag) {
+            case NULL -> null;
+            case INT -> in.readInt();
+            case STRING -> readString(in);
+            case RESPONSE -> RESPONSES[in.readUnsignedByte()];
+            case USER_TYPE -> USER_TYPES[in.readUnsignedByte()];
+            case STATUS -> STATUSES[in.readUnsignedByte()];
+            case USER -> readUser(in);
+            case MASTER -> new Master(in.readInt(), readString(in), readString(in), in.readInt(),
+                    readString(in), readStatus(in));
+            case ADMIN -> new Admin(in.readInt(), readString(in), readString(in));
+            case PURPOSE -> readPurpose(in);
+            case RECORD -> {
+                int id = in.readInt();
+                long time = in.readLong();
+                var purpose = in.readBoolean() ? readPurpose(in) : null;
+                var user = in.readBoolean() ? readUser(in) : null;
+                yield new Record(id, purpose, user, time == Long.MIN_VALUE ? null : new Date(time));
+            }
+            case LIST -> readList(in);
+            case PAGE_REQUEST -> readPageRequest(in);
+            case RECORD_FILTER -> readRecordFilter(in);
+            case PAGE -> {
+                var items = readList(in);
+                yield new Page<>((List<Serializable>) (List<?>) items, in.readBoolean() ? readPageRequest(in) : null);
+            }
+            case SERIALIZED -> {
+                int length = in.readInt();
+                Frames.checkLength(length);
+                checkRemaining(in, length);
+                var bytes = new byte[length];
+                in.readFully(bytes);
+                try (var objectInputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    yield objectInputStream.readObject();
+                }
+            }
+            default -> throw new StreamCorruptedException("Unknown value tag: " + tag);
+        };
+    }
+
+    private static void writeList(DataOutputStream out, List<?> list) throws IOException {
+        out.writeInt(list.size());
+        for (var element : list)
+            writeValue(out, element);
+    }
+
+    private static ArrayList<Object> readList(DataInputStream in) throws IOException, ClassNotFoundException {
+
+        int size = in.readInt();
+        Frames.checkLength(size);
+        //каждый элемент занимает хотя бы байт тега
+        checkRemaining(in, size);
+        //длина пришла от собеседника: память выделяется по мере чтения элементов, а не заранее
+        var list = new ArrayList<>(Math.min(size, MAX_INITIAL_LIST_CAPACITY));
+        for (int i = 0; i < size; i++)
+            list.add(readValue(in));
+        return list;
+    }
+
+    private static void writePageRequest(DataOutputStream out, PageRequest pageRequest) throws IOException {
+        out.writeInt(pageRequest.getPageSize());
+        out.writeInt(pageRequest.getAfterId());
+        out.writeLong(pageRequest.getAfterDate() == null ? Long.MIN_VALUE : pageRequest.getAfterDate().getTime());
+    }
+
+    private static PageRequest readPageRequest(DataInputStream in) throws IOException {
+        int pageSize = in.readInt();
+        int afterId = in.readInt();
+        long afterDate = in.readLong();
+        return new PageRequest(pageSize, afterId, afterDate == Long.MIN_VALUE ? null : new Date(afterDate));
+    }
+
+    //необязательные поля - признак наличия и значение
+    private static void writeRecordFilter(DataOutputStream out, RecordFilter filter) throws IOException {
+
+        out.writeBoolean(filter.getCostFrom() != null);
+        if (filter.getCostFrom() != null) out.writeFloat(filter.getCostFrom());
+        out.writeBoolean(filter.getCostTo() != null);
+        if (filter.getCostTo() != null) out.writeFloat(filter.getCostTo());
+        writeString(out, filter.getPurposeName());
+        out.writeLong(filter.getFrom() == null ? Long.MIN_VALUE : filter.getFrom().getTime());
+        out.writeLong(filter.getTo() == null ? Long.MIN_VALUE : filter.getTo().getTime());
+        out.writeBoolean(filter.getClientId() != null);
+        if (filter.getClientId() != null) out.writeInt(filter.getClientId());
+        out.writeBoolean(filter.getMasterId() != null);
+        if (filter.getMasterId() != null) out.writeInt(filter.getMasterId());
+        out.writeByte(filter.getAcceptance().ordinal());
+    }
+
+    private static RecordFilter readRecordFilter(DataInputStream in) throws IOException {
+
+        var filter = new RecordFilter();
+        if (in.readBoolean()) filter.setCostFrom(in.readFloat());
+        if (in.readBoolean()) filter.setCostTo(in.readFloat());
+        filter.setPurposeName(readString(in));
+        long from = in.readLong();
+        if (from != Long.MIN_VALUE) filter.setFrom(new Date(from));
+        long to = in.readLong();
+        if (to != Long.MIN_VALUE) filter.setTo(new Date(to));
+        if (in.readBoolean()) filter.setClientId(in.readInt());
+        if (in.readBoolean()) filter.setMasterId(in.readInt());
+        filter.setAcceptance(ACCEPTANCES[in.readUnsignedByte()]);
+        return filter;
+    }
+
+    private static void writeUser(DataOutputStream out, User user) throws IOException {
+        out.writeInt(user.getId());
+        writeString(out, user.getLogin());
+        writeString(out, user.getPassword());
+        writeString(out, user.getFullName());
+        writeString(out, user.getPhone());
+        writeStatus(out, user.getStatus());
+    }
+
+    private static User readUser(DataInputStream in) throws IOException {
+        return new User(in.readInt(), readString(in), readString(in), readString(in), readString(in),
+                readStatus(in));
+    }
+
+    private static void writePurpose(DataOutputStream out, Purpose purpose) throws IOException {
+        out.writeInt(purpose.getId());
+        writeString(out, purpose.getName());
+        out.writeFloat(purpose.getCost());
+    }
+
+    private static Purpose readPurpose(DataInputStream in) throws IOException {
+        return new Purpose(in.readInt(), readString(in), in.readFloat());
+    }
+
+    //-1 - статус не задан
+    private static void writeStatus(DataOutputStream out, Status status) throws IOException {
+        out.writeByte(status == null ? -1 : status.ordinal());
+    }
+
+    private static Status readStatus(DataInputStream in) throws IOException {
+        byte ordinal = in.readByte();
+        return ordinal < 0 ? null : STATUSES[ordinal];
+    }
+
+    //Строка - длина в байтах UTF-8 (-1 для null) и сами байты
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+
+        if (string == null) {
+            out.writeInt(-1);
+            return;
+        }
+        var bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    //Данные кадра целиком в памяти (ByteArrayInputStream), поэтому available() - точный остаток
+    private static void checkRemaining(DataInputStream in, int length) throws IOException {
+        if (length > in.available())
+            throw new StreamCorruptedException("Length " + length + " exceeds the remaining " + in.available() + " bytes");
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+
+        int length = in.readInt();
+        if (length < 0) return null;
+        Frames.checkLength(length);
+        checkRemaining(in, length);
+        var bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,6 @@
+package protocol;
+
+//Кадр протокола: код команды (или RESPONSE для ответа), номер запроса и данные.
+//Ответ несет номер запроса, на который он отвечает
+public record Frame(int opcode, int correlationId, byte[] payload) {
+}
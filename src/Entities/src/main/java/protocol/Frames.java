@@ -0,0 +1,79 @@
+package protocol;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+//Кадровый протокол. После согласования формата (см. WireFormat) каждый запрос и ответ
+//передается отдельным кадром [short код команды][int номер запроса][int длина][данные].
+//Данные запроса - аргументы команды, данные ответа - один объект, закодированные PayloadCodec.
+//Клиент может отправить несколько запросов, не дожидаясь ответов: сервер выполняет их по порядку
+//и помечает каждый ответ номером запроса
+public final class Frames {
+
+    public static final int HEADER_LENGTH = Short.BYTES + 2 * Integer.BYTES;
+
+    //Смещение длины данных в заголовке
+    private static final int LENGTH_OFFSET = Short.BYTES + Integer.BYTES;
+
+    public static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+    private Frames() {
+    }
+
+    public static void checkLength(int length) throws IOException {
+        if (length < 0 || length > MAX_FRAME_LENGTH)
+            throw new IOException("Invalid frame length: " + length);
+    }
+
+    public static void writeFrame(DataOutputStream outputStream, Frame frame) throws IOException {
+
+        outputStream.writeShort(frame.opcode());
+        outputStream.writeInt(frame.correlationId());
+        outputStream.writeInt(frame.payload().length);
+        outputStream.write(frame.payload());
+        outputStream.flush();
+    }
+
+    public static Frame readFrame(DataInputStream inputStream) throws IOException {
+
+        int opcode = inputStream.readUnsignedShort();
+        int correlationId = inputStream.readInt();
+        int length = inputStream.readInt();
+        checkLength(length);
+        var payload = new byte[length];
+        inputStream.readFully(payload);
+        return new Frame(opcode, correlationId, payload);
+    }
+
+    //Заголовок кадра, готовый к записи в канал (данные кадра пишутся следом без копирования)
+    public static ByteBuffer header(Frame frame) {
+
+        var buffer = ByteBuffer.allocate(HEADER_LENGTH);
+        buffer.putShort((short) frame.opcode()).putInt(frame.correlationId()).putInt(frame.payload().length).flip();
+        return buffer;
+    }
+
+    //Читает кадр из буфера, если он пришел целиком (иначе позиция буфера не меняется)
+    public static Frame readFrame(ByteBuffer buffer) throws IOException {
+
+        if (buffer.remaining() < HEADER_LENGTH) return null;
+        int position = buffer.position();
+        int length = buffer.getInt(position + LENGTH_OFFSET);
+        checkLength(length);
+        if (buffer.remaining() < HEADER_LENGTH + length) return null;
+        int opcode = Short.toUnsignedInt(buffer.getShort());
+        int correlationId = buffer.getInt();
+        buffer.getInt();
+        var payload = new byte[length];
+        buffer.get(payload);
+        return new Frame(opcode, correlationId, payload);
+    }
+
+    //Сколько байт нужно, чтобы прочитать кадр, который начинается в буфере
+    public static int requiredLength(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_LENGTH) return HEADER_LENGTH;
+        return HEADER_LENGTH + buffer.getInt(buffer.position() + LENGTH_OFFSET);
+    }
+}
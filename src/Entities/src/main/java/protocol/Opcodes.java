@@ -0,0 +1,51 @@
+package protocol;
+
+import Commands.AuthorizationCommand;
+import Commands.Command;
+
+import java.io.IOException;
+
+//Коды команд в заголовке кадра. Код строится из номера константы перечисления,
+//поэтому новые команды добавляются только в конец AuthorizationCommand/Command
+public final class Opcodes {
+
+    public static final int RESPONSE = 0;
+
+    //Кадр без запроса: сервер останавливается и закроет подключение
+    public static final int GOING_AWAY = 1;
+
+    private static final int AUTHORIZATION_BASE = 0x100;
+
+    private static final int COMMAND_BASE = 0x200;
+
+    private static final AuthorizationCommand[] AUTHORIZATION_COMMANDS = AuthorizationCommand.values();
+
+    private static final Command[] COMMANDS = Command.values();
+
+    private Opcodes() {
+    }
+
+    public static int of(Object command) {
+
+        if (command instanceof AuthorizationCommand authorizationCommand)
+            return AUTHORIZATION_BASE + authorizationCommand.ordinal();
+        if (command instanceof Command clientCommand)
+            return COMMAND_BASE + clientCommand.ordinal();
+        throw new IllegalArgumentException("Not a command: " + command);
+    }
+
+    //AuthorizationCommand или Command по коду из кадра
+    public static Object command(int opcode) throws IOException {
+
+        int index = opcode & 0xFF;
+        switch (opcode & ~0xFF) {
+            case AUTHORIZATION_BASE -> {
+                if (index < AUTHORIZATION_COMMANDS.length) return AUTHORIZATION_COMMANDS[index];
+            }
+            case COMMAND_BASE -> {
+                if (index < COMMANDS.length) return COMMANDS[index];
+            }
+        }
+        throw new IOException("Unknown opcode: " + opcode);
+    }
+}
@@ -0,0 +1,12 @@
+package protocol;
+
+import java.io.IOException;
+import java.util.List;
+
+//Кодирование данных кадра
+public interface PayloadCodec {
+
+    byte[] encode(List<?> values) throws IOException;
+
+    PayloadReader open(byte[] payload) throws IOException;
+}
@@ -0,0 +1,9 @@
+package protocol;
+
+import java.io.IOException;
+
+//Последовательное чтение значений из данных кадра
+public interface PayloadReader {
+
+    <T> T read() throws IOException, ClassNotFoundException;
+}
@@ -0,0 +1,32 @@
+package protocol;
+
+import java.io.*;
+import java.util.List;
+
+//Данные кадра - объекты, записанные новым ObjectOutputStream
+//(каждый кадр разбирается независимо от предыдущих)
+public class SerializedPayloadCodec implements PayloadCodec {
+
+    @Override
+    public byte[] encode(List<?> values) throws IOException {
+
+        var bytes = new ByteArrayOutputStream();
+        try (var objectOutputStream = new ObjectOutputStream(bytes)) {
+            for (var value : values)
+                objectOutputStream.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public PayloadReader open(byte[] payload) throws IOException {
+
+        var objectInputStream = new ObjectInputStream(new ByteArrayInputStream(payload));
+        return new PayloadReader() {
+            @Override
+            public <T> T read() throws IOException, ClassNotFoundException {
+                return (T) objectInputStream.readObject();
+            }
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package protocol;
+
+//Формат обмена, который клиент предлагает при подключении.
+//Клиент отправляет MAGIC формата, сервер подтверждает его тем же числом.
+//Последняя цифра MAGIC - версия заголовка кадра (2 - с номером запроса).
+//Клиент, который начинает с заголовка ObjectOutputStream (0xACED), работает по старому
+//протоколу потока объектов
+public enum WireFormat {
+
+    //"BSF2" - кадры с сериализованными объектами
+    SERIALIZED(0x42534632, new SerializedPayloadCodec()),
+    //"BSB2" - кадры с двоичной раскладкой полей
+    BINARY(0x42534232, new BinaryPayloadCodec()),
+    ;
+
+    //Первые два байта заголовка ObjectOutputStream
+    public static final int OBJECT_STREAM_MAGIC = 0xACED;
+
+    private final int magic;
+
+    private final PayloadCodec codec;
+
+    WireFormat(int magic, PayloadCodec codec) {
+        this.magic = magic;
+        this.codec = codec;
+    }
+
+    public int getMagic() {
+        return magic;
+    }
+
+    public PayloadCodec getCodec() {
+        return codec;
+    }
+
+    public static WireFormat fromMagic(int magic) {
+        for (var format : values()) {
+            if (format.magic == magic) return format;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,242 @@
+package protocol;
+
+import Commands.Page;
+import Commands.PageRequest;
+import Commands.RecordFilter;
+import Commands.Response;
+import entities.*;
+import entities.Record;
+import enums.UserType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Значения после encode и read должны совпадать с исходными по всем полям, включая null
+class BinaryPayloadCodecTest {
+
+    private final BinaryPayloadCodec codec = new BinaryPayloadCodec();
+
+    private List<Object> roundTrip(Object... values) throws IOException, ClassNotFoundException {
+
+        var reader = codec.open(codec.encode(Arrays.asList(values)));
+        var result = new ArrayList<Object>();
+        for (int i = 0; i < values.length; i++)
+            result.add(reader.read());
+        return result;
+    }
+
+    private <T> T single(Object value) throws IOException, ClassNotFoundException {
+        return (T) roundTrip(value).get(0);
+    }
+
+    @Test
+    void simpleValues() throws IOException, ClassNotFoundException {
+
+        var values = roundTrip(null, 0, -1, Integer.MAX_VALUE, "", "Стрижка", (Object) null);
+        assertEquals(Arrays.asList(null, 0, -1, Integer.MAX_VALUE, "", "Стрижка", null), values);
+    }
+
+    @Test
+    void enums() throws IOException, ClassNotFoundException {
+
+        for (var response : Response.values())
+            assertSame(response, single(response));
+        for (var type : UserType.values())
+            assertSame(type, single(type));
+        for (var status : Status.values())
+            assertSame(status, single(status));
+    }
+
+    @Test
+    void user() throws IOException, ClassNotFoundException {
+
+        User user = single(new User(7, "login", "hash", "Full name", "+375290000000", Status.BANNED));
+        assertUser(7, "login", "hash", "Full name", "+375290000000", Status.BANNED, user);
+        User empty = single(new User(0, null, null, null, null, null));
+        assertUser(0, null, null, null, null, null, empty);
+    }
+
+    @Test
+    void masterAndAdmin() throws IOException, ClassNotFoundException {
+
+        Master master = single(new Master(3, "master", "hash", 12, "Master name", Status.NOT_BANNED));
+        assertEquals(3, master.getId());
+        assertEquals("master", master.getLogin());
+        assertEquals("hash", master.getPassword());
+        assertEquals(12, master.getExperience());
+        assertEquals("Master name", master.getFullName());
+        assertSame(Status.NOT_BANNED, master.getStatus());
+        Master noStatus = single(new Master(4, "m", "p", 0, "n", null));
+        assertNull(noStatus.getStatus());
+
+        Admin admin = single(new Admin(1, "admin", "hash"));
+        assertEquals(1, admin.getId());
+        assertEquals("admin", admin.getLogin());
+        assertEquals("hash", admin.getPassword());
+    }
+
+    @Test
+    void purposeAndRecord() throws IOException, ClassNotFoundException {
+
+        Purpose purpose = single(new Purpose(5, "Haircut", 12.5f));
+        assertEquals(5, purpose.getId());
+        assertEquals("Haircut", purpose.getName());
+        assertEquals(12.5f, purpose.getCost(), 0f);
+
+        var date = new Date(1_700_000_000_000L);
+        Record record = single(new Record(9, new Purpose(5, "Haircut", 12.5f),
+                new User(7, "login", "hash", "Full name", "phone", Status.NOT_BANNED), date));
+        assertEquals(9, record.getId());
+        assertEquals(date, record.getDate());
+        assertEquals("Haircut", record.getPurpose().getName());
+        assertUser(7, "login", "hash", "Full name", "phone", Status.NOT_BANNED, record.getClient());
+
+        Record bare = single(new Record(10, null, null, null));
+        assertEquals(10, bare.getId());
+        assertNull(bare.getPurpose());
+        assertNull(bare.getClient());
+        assertNull(bare.getDate());
+    }
+
+    @Test
+    void nestedLists() throws IOException, ClassNotFoundException {
+
+        List<Object> list = single(Arrays.asList(1, "two", null, List.of(new Purpose(1, "p", 1f)), List.of()));
+        assertEquals(5, list.size());
+        assertEquals(1, list.get(0));
+        assertEquals("two", list.get(1));
+        assertNull(list.get(2));
+        assertEquals("p", ((Purpose) ((List<?>) list.get(3)).get(0)).getName());
+        assertTrue(((List<?>) list.get(4)).isEmpty());
+    }
+
+    @Test
+    void pageRequests() throws IOException, ClassNotFoundException {
+
+        PageRequest first = single(new PageRequest(20));
+        assertEquals(20, first.getPageSize());
+        assertTrue(first.isFirstPage());
+        assertNull(first.getAfterDate());
+
+        var date = new Date(1_700_000_000_000L);
+        PageRequest next = single(new PageRequest(30, 42, date));
+        assertEquals(30, next.getPageSize());
+        assertEquals(42, next.getAfterId());
+        assertEquals(date, next.getAfterDate());
+    }
+
+    @Test
+    void pages() throws IOException, ClassNotFoundException {
+
+        Page<Purpose> last = single(new Page<>(List.of(new Purpose(1, "a", 1f)), null));
+        assertEquals(1, last.getItems().size());
+        assertFalse(last.hasNext());
+
+        Page<Purpose> withNext = single(new Page<>(List.of(new Purpose(1, "a", 1f), new Purpose(2, "b", 2f)),
+                new PageRequest(2, 2, null)));
+        assertEquals("b", withNext.getItems().get(1).getName());
+        assertTrue(withNext.hasNext());
+        assertEquals(2, withNext.getNext().getAfterId());
+
+        Page<Purpose> empty = single(new Page<>(List.<Purpose>of(), null));
+        assertTrue(empty.getItems().isEmpty());
+    }
+
+    @Test
+    void recordFilters() throws IOException, ClassNotFoundException {
+
+        var filter = new RecordFilter();
+        filter.setCostFrom(1.5f);
+        filter.setCostTo(99f);
+        filter.setPurposeName("cut");
+        filter.setFrom(new Date(1_000_000L));
+        filter.setTo(new Date(2_000_000L));
+        filter.setClientId(3);
+        filter.setMasterId(4);
+        filter.setAcceptance(RecordFilter.Acceptance.ACCEPTED);
+        RecordFilter full = single(filter);
+        assertEquals(1.5f, full.getCostFrom(), 0f);
+        assertEquals(99f, full.getCostTo(), 0f);
+        assertEquals("cut", full.getPurposeName());
+        assertEquals(new Date(1_000_000L), full.getFrom());
+        assertEquals(new Date(2_000_000L), full.getTo());
+        assertEquals(3, (int) full.getClientId());
+        assertEquals(4, (int) full.getMasterId());
+        assertSame(RecordFilter.Acceptance.ACCEPTED, full.getAcceptance());
+
+        RecordFilter empty = single(new RecordFilter());
+        assertNull(empty.getCostFrom());
+        assertNull(empty.getCostTo());
+        assertNull(empty.getPurposeName());
+        assertNull(empty.getFrom());
+        assertNull(empty.getTo());
+        assertNull(empty.getClientId());
+        assertNull(empty.getMasterId());
+        assertSame(new RecordFilter().getAcceptance(), empty.getAcceptance());
+    }
+
+    @Test
+    void otherTypesAreSerialized() throws IOException, ClassNotFoundException {
+
+        var date = new Date(1_700_000_000_000L);
+        assertEquals(date, single(date));
+        assertEquals(12.5f, (Float) single(12.5f), 0f);
+    }
+
+    @Test
+    void severalValuesInOnePayload() throws IOException, ClassNotFoundException {
+
+        var values = roundTrip(Response.SUCCESSFULLY, new Purpose(1, "a", 1f), List.of(1, 2), "end");
+        assertSame(Response.SUCCESSFULLY, values.get(0));
+        assertEquals("a", ((Purpose) values.get(1)).getName());
+        assertEquals(List.of(1, 2), values.get(2));
+        assertEquals("end", values.get(3));
+    }
+
+    @Test
+    void hostileLengthsAreRejected() throws IOException {
+
+        //больше кадра не бывает ни один список
+        var bytes = new ByteArrayOutputStream();
+        var out = new DataOutputStream(bytes);
+        out.writeByte(11);
+        out.writeInt(1_000_000_000);
+        assertThrows(IOException.class, () -> codec.open(bytes.toByteArray()).read());
+
+        //список из миллиона элементов в кадре из пяти байт
+        bytes.reset();
+        out.writeByte(11);
+        out.writeInt(1_000_000);
+        assertThrows(StreamCorruptedException.class, () -> codec.open(bytes.toByteArray()).read());
+
+        bytes.reset();
+        out.writeByte(2);
+        out.writeInt(100);
+        out.write(new byte[10]);
+        assertThrows(StreamCorruptedException.class, () -> codec.open(bytes.toByteArray()).read());
+    }
+
+    @Test
+    void unknownTagIsRejected() {
+        assertThrows(StreamCorruptedException.class, () -> codec.open(new byte[]{42}).read());
+    }
+
+    private static void assertUser(int id, String login, String password, String fullName, String phone,
+                                   Status status, User user) {
+        assertEquals(id, user.getId());
+        assertEquals(login, user.getLogin());
+        assertEquals(password, user.getPassword());
+        assertEquals(fullName, user.getFullName());
+        assertEquals(phone, user.getPhone());
+        assertSame(status, user.getStatus());
+    }
+}
@@ -1,18 +1,40 @@
+import org.junit.Assume;
+import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Properties;
 
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
 
+//Подключение берется из dbLayer/config.properties (рабочий каталог - src); без MySQL (backend = MEMORY) тесты пропускаются
 public class JDBC_CRUDTest {
-    private static final String ADRESS = "jdbc:mysql://localhost:3306/barbershop_database";
-    private static final String LOGIN="root";
-    private static final String PASSWORD="11122517";
+    private static final String CONFIG = "Server/DataLayer/src/main/resources/dbLayer/config.properties";
+    private static String ADRESS;
+    private static String LOGIN;
+    private static String PASSWORD;
     private static final String TABLE_NAME="admins";
 
+    @BeforeClass
+    public static void loadConfig() throws IOException {
+        Assume.assumeTrue("no " + CONFIG, Files.exists(Path.of(CONFIG)));
+        var properties = new Properties();
+        try (var inputStream = new FileInputStream(CONFIG)) {
+            properties.load(inputStream);
+        }
+        Assume.assumeTrue("backend is not MYSQL", "MYSQL".equalsIgnoreCase(properties.getProperty("backend", "MYSQL").trim()));
+        ADRESS = properties.getProperty("dbServerConnectionString") + properties.getProperty("dbName");
+        LOGIN = properties.getProperty("userName");
+        PASSWORD = properties.getProperty("password");
+    }
+
     @Test
     public void testClass() {
         try {
@@ -0,0 +1,140 @@
+package dbLayer.cache;
+
+import enums.UserType;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+//Фильтр Блума по логинам всех таблиц (clients, masters, admins) для CHECK_IF_LOGIN_EXISTS:
+//"нет" - логин точно свободен и БД не нужна, "может быть" - проверка в БД.
+//Около 1.2 байта на логин при 1% ложных срабатываний; биты только устанавливаются, без блокировок.
+//Пока фильтр не заполнен из таблиц (isReady() == false), он на все отвечает "может быть"
+public class LoginBloomFilter implements LoginIndex {
+
+    private final AtomicLongArray bits;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    //на сколько логинов рассчитан размер
+    private final long capacity;
+
+    private final double targetFalsePositiveRate;
+
+    private volatile boolean ready;
+
+    private final LongAdder logins = new LongAdder();
+
+    private final LongAdder checks = new LongAdder();
+
+    private final LongAdder definitelyFree = new LongAdder();
+
+    private final LongAdder falsePositives = new LongAdder();
+
+    private LoginBloomFilter(long bitCount, int hashCount, long capacity, double targetFalsePositiveRate) {
+        this.bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.capacity = capacity;
+        this.targetFalsePositiveRate = targetFalsePositiveRate;
+    }
+
+    //Оптимальные размер и число хеш-функций: m = -n ln p / (ln 2)^2, k = m / n ln 2
+    public static LoginBloomFilter create(long expectedLogins, double falsePositiveRate) {
+
+        var n = Math.max(expectedLogins, 1);
+        var m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        var k = (int) Math.max(1, Math.round((double) m / n * Math.log(2)));
+        return new LoginBloomFilter(Math.max(m, 64), k, n, falsePositiveRate);
+    }
+
+    @Override
+    public void add(String login, UserType role) {
+        add(login);
+    }
+
+    public void add(String login) {
+
+        if (login == null) return;
+        long hash = hash(LoginIndex.normalize(login));
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            bits.getAndAccumulate((int) (bit >>> 6), 1L << bit, (word, mask) -> word | mask);
+        }
+        logins.increment();
+    }
+
+    //false - логина точно нет ни в одной таблице
+    public boolean mightContain(String login) {
+
+        checks.increment();
+        if (!ready || login == null) return true;
+        long hash = hash(LoginIndex.normalize(login));
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                definitelyFree.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //Фильтр ответил "может быть", а в БД логина не оказалось
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long getLogins() {
+        return logins.sum();
+    }
+
+    //логинов больше, чем рассчитан фильтр: доля ложных срабатываний выше заданной
+    public boolean isOverloaded() {
+        return logins.sum() > capacity;
+    }
+
+    private long index(int combinedHash) {
+        return Integer.toUnsignedLong(combinedHash) % bitCount;
+    }
+
+    //64-битный FNV-1a с перемешиванием из MurmurHash3; две половины дают две независимые хеш-функции
+    private static long hash(String key) {
+
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    public LoginFilterStats getStats() {
+
+        long setBits = 0;
+        for (int i = 0; i < bits.length(); i++)
+            setBits += Long.bitCount(bits.get(i));
+        //ожидаемая доля ложных срабатываний по заполненности: (доля единичных битов)^k
+        var expectedRate = Math.pow((double) setBits / bitCount, hashCount);
+        return new LoginFilterStats(bitCount, hashCount, capacity, logins.sum(), ready,
+                targetFalsePositiveRate, expectedRate, checks.sum(), definitelyFree.sum(), falsePositives.sum());
+    }
+}
@@ -0,0 +1,73 @@
+package dbLayer.cache;
+
+import enums.UserType;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Справочник логинов: в каких таблицах (clients, admins, masters) есть логин. Загружается при старте
+//сервера и пополняется репозиториями при создании и изменении учетных записей, поэтому вход
+//проверяет пароль только в тех таблицах, где логин действительно есть.
+//Лишняя роль в справочнике безопасна (запрос просто ничего не найдет), а отсутствующая - нет,
+//поэтому записи только добавляются и до загрузки справочник отвечает "логин может быть везде"
+public class LoginDirectory implements LoginIndex {
+
+    private static final Set<UserType> ALL_ROLES = EnumSet.of(UserType.USER, UserType.ADMIN, UserType.MASTER);
+
+    //нормализованный логин -> роли (биты UserType.ordinal())
+    private final ConcurrentHashMap<String, Integer> roles = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+
+    //есть логин не из ASCII - промаху справочника нельзя верить ни для какого логина
+    private volatile boolean hasInexactLogins;
+
+    @Override
+    public void add(String login, UserType role) {
+        if (login == null) return;
+        if (!LoginIndex.isExact(login))
+            hasInexactLogins = true;
+        roles.merge(LoginIndex.normalize(login), 1 << role.ordinal(), (a, b) -> a | b);
+    }
+
+    //Логины таблицы целиком; добавленные во время загрузки не теряются
+    public void load(Iterable<String> logins, UserType role) {
+        for (var login : logins)
+            add(login, role);
+    }
+
+    public void markLoaded() {
+        loaded = true;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    //Таблицы, в которых может быть логин (пустое множество - логина нет нигде)
+    public Set<UserType> find(String login) {
+
+        if (!loaded) return ALL_ROLES;
+        if (login == null) return Set.of();
+        var mask = roles.get(LoginIndex.normalize(login));
+        if (mask == null) return Set.of();
+        var result = EnumSet.noneOf(UserType.class);
+        for (var role : ALL_ROLES) {
+            if ((mask & (1 << role.ordinal())) != 0)
+                result.add(role);
+        }
+        return result;
+    }
+
+    //true - роли из find() окончательны: логина точно нет в остальных таблицах.
+    //false - справочник только подсказывает, где искать сначала (логин или один из логинов таблиц не из ASCII:
+    //normalize может не совпасть с utf8mb4_0900_ai_ci, например ß и ss); остальные таблицы проверяются запросом
+    public boolean isExact(String login) {
+        return loaded && login != null && !hasInexactLogins && LoginIndex.isExact(login);
+    }
+
+    public int size() {
+        return roles.size();
+    }
+}
@@ -0,0 +1,22 @@
+package dbLayer.cache;
+
+//Снимок состояния фильтра логинов
+public record LoginFilterStats(long bits,
+                               int hashFunctions,
+                               long capacity,
+                               long logins,
+                               boolean ready,
+                               double targetFalsePositiveRate,
+                               double expectedFalsePositiveRate,
+                               long checks,
+                               long definitelyFree,
+                               long falsePositives) {
+
+    @Override
+    public String toString() {
+        return String.format("logins=%d/%d, size=%d KB, k=%d, ready=%s, fpp=%.4f%% (target %.4f%%), checks=%d, " +
+                        "definitelyFree=%d, falsePositives=%d",
+                logins, capacity, bits / 8 / 1024, hashFunctions, ready, expectedFalsePositiveRate * 100,
+                targetFalsePositiveRate * 100, checks, definitelyFree, falsePositives);
+    }
+}
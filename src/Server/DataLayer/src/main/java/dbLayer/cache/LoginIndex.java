@@ -0,0 +1,27 @@
+package dbLayer.cache;
+
+import enums.UserType;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+//Структура, которую репозитории пополняют логинами после успешного создания или изменения учетной записи
+@FunctionalInterface
+public interface LoginIndex {
+
+    void add(String login, UserType role);
+
+    //Ключ логина: без учета регистра и диакритики, как в collation MySQL по умолчанию (utf8mb4_0900_ai_ci).
+    //Совпадение ключей у разных логинов дает только лишний запрос к БД. Обратное точно только для ASCII:
+    //для остальных символов MySQL сравнивает по UCA (ß = ss, æ = ae), и равные для нее логины
+    //могут получить разные ключи - см. isExact
+    static String normalize(String login) {
+        var lowerCase = login.toLowerCase(Locale.ROOT);
+        return Normalizer.normalize(lowerCase, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    }
+
+    //Для логина из ASCII collation MySQL - просто сравнение без учета регистра, и ключ ему соответствует
+    static boolean isExact(String login) {
+        return login.chars().allMatch(c -> c < 0x80);
+    }
+}
@@ -0,0 +1,95 @@
+package dbLayer.cache;
+
+import entities.Purpose;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+//Общий для всех подключений справочник услуг. Таблица purposes меняется редко
+//(CREATE_PURPOSE, EDIT_PURPOSE, DELETE_PURPOSE), поэтому она целиком загружается при первом
+//чтении и сбрасывается после каждого изменения.
+//Объекты Purpose из кэша общие для всех потоков - их нельзя изменять
+public class PurposeCache {
+
+    @FunctionalInterface
+    public interface Loader {
+        List<Purpose> load() throws SQLException;
+    }
+
+    private record Snapshot(List<Purpose> purposes, Map<Integer, Purpose> purposesById) {
+    }
+
+    private volatile Snapshot snapshot;
+
+    //Версия данных таблицы: увеличивается при каждом изменении
+    private final AtomicLong version = new AtomicLong();
+
+    //Загрузка и сброс выполняются под одной блокировкой, чтобы снимок, загруженный
+    //до изменения таблицы, не был сохранен после сброса
+    private final Object lock = new Object();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    public List<Purpose> getAll(Loader loader) throws SQLException {
+        return getSnapshot(loader).purposes();
+    }
+
+    //null, если услуги нет
+    public Purpose getById(int id, Loader loader) throws SQLException {
+        return getSnapshot(loader).purposesById().get(id);
+    }
+
+    private Snapshot getSnapshot(Loader loader) throws SQLException {
+
+        var current = snapshot;
+        if (current != null) {
+            hits.increment();
+            return current;
+        }
+        synchronized (lock) {
+            current = snapshot;
+            if (current != null) {
+                hits.increment();
+                return current;
+            }
+            misses.increment();
+            var purposes = List.copyOf(loader.load());
+            var purposesById = new HashMap<Integer, Purpose>();
+            for (var purpose : purposes)
+                purposesById.put(purpose.getId(), purpose);
+            snapshot = new Snapshot(purposes, Map.copyOf(purposesById));
+            return snapshot;
+        }
+    }
+
+    //Вызывается после изменения таблицы purposes
+    public void invalidate() {
+        synchronized (lock) {
+            version.incrementAndGet();
+            snapshot = null;
+            invalidations.increment();
+        }
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public PurposeCacheStats getStats() {
+
+        var current = snapshot;
+        return new PurposeCacheStats(current == null ? 0 : current.purposes().size(),
+                version.get(),
+                hits.sum(),
+                misses.sum(),
+                invalidations.sum());
+    }
+}
@@ -0,0 +1,18 @@
+package dbLayer.cache;
+
+//Снимок состояния кэша услуг
+public record PurposeCacheStats(int size,
+                                long version,
+                                long hits,
+                                long misses,
+                                long invalidations) {
+
+    @Override
+    public String toString() {
+        return "size=" + size +
+                ", version=" + version +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", invalidations=" + invalidations;
+    }
+}
@@ -0,0 +1,9 @@
+package dbLayer.managers;
+
+//Где хранятся данные: backend в dbLayer/config.properties
+public enum Backend {
+    //MySQL через пул подключений
+    MYSQL,
+    //MemoryDatabase в памяти процесса (тесты и бенчмарки без БД)
+    MEMORY
+}
@@ -1,10 +1,13 @@
 package dbLayer.managers;
 
+import dbLayer.cache.PurposeCache;
+import dbLayer.memory.*;
+import dbLayer.pool.ConnectionLease;
 import dbLayer.repositories.*;
 
 import java.sql.Connection;
 
-public class DataAccessManager {
+public class DataAccessManager implements AutoCloseable {
 
     public final ClientsRepository clientsRepository;
     public final AdminsRepository adminsRepository;
@@ -12,12 +15,63 @@ public class DataAccessManager {
     public final PurposesRepository purposesRepository;
     public final RecordsRepository recordsRepository;
 
+    //Аренда подключения из пула (null, если подключение передано напрямую или данные в памяти)
+    private final ConnectionLease lease;
+
     //инициализация каждого репозитория
     public DataAccessManager(Connection connection) {
-        clientsRepository = new ClientsRepository(connection);
-        adminsRepository = new AdminsRepository(connection);
-        mastersRepository = new MastersRepository(connection);
-        purposesRepository = new PurposesRepository(connection);
-        recordsRepository = new RecordsRepository(connection);
+        this(connection, null, null);
+    }
+
+    //подключение берется из пула при первом запросе к БД и возвращается в close(),
+    //справочник услуг читается из общего кэша, новые логины попадают в справочник и фильтр логинов.
+    //При backend = MEMORY подключение не нужно
+    public DataAccessManager(DataStore dataStore) {
+        this(dataStore.getMemoryDatabase() == null ? dataStore.getConnectionPool().lease() : null, dataStore);
+    }
+
+    private DataAccessManager(ConnectionLease lease, DataStore dataStore) {
+        var memoryDatabase = dataStore.getMemoryDatabase();
+        var loginIndex = dataStore.getLoginIndex();
+        if (memoryDatabase == null) {
+            this.lease = lease;
+            var connection = lease.getConnection();
+            clientsRepository = new JdbcClientsRepository(connection, loginIndex);
+            adminsRepository = new JdbcAdminsRepository(connection, loginIndex);
+            mastersRepository = new JdbcMastersRepository(connection, loginIndex);
+            purposesRepository = new JdbcPurposesRepository(connection, dataStore.getPurposeCache());
+            recordsRepository = new JdbcRecordsRepository(connection);
+        } else {
+            this.lease = null;
+            clientsRepository = new MemoryClientsRepository(memoryDatabase, loginIndex);
+            adminsRepository = new MemoryAdminsRepository(memoryDatabase, loginIndex);
+            mastersRepository = new MemoryMastersRepository(memoryDatabase, loginIndex);
+            purposesRepository = new MemoryPurposesRepository(memoryDatabase, dataStore.getPurposeCache());
+            recordsRepository = new MemoryRecordsRepository(memoryDatabase);
+        }
+    }
+
+    private DataAccessManager(Connection connection, ConnectionLease lease, PurposeCache purposeCache) {
+        this.lease = lease;
+        clientsRepository = new JdbcClientsRepository(connection);
+        adminsRepository = new JdbcAdminsRepository(connection);
+        mastersRepository = new JdbcMastersRepository(connection);
+        purposesRepository = new JdbcPurposesRepository(connection, purposeCache);
+        recordsRepository = new JdbcRecordsRepository(connection);
+    }
+
+    //Время запросов к БД и число ошибок SQL за время работы менеджера (0 без пула)
+    public long getSqlNanos() {
+        return lease != null ? lease.getSqlNanos() : 0;
+    }
+
+    public int getSqlErrors() {
+        return lease != null ? lease.getSqlErrors() : 0;
+    }
+
+    @Override
+    public void close() {
+        if (lease != null)
+            lease.close();
     }
 }
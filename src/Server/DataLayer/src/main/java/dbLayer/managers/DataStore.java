@@ -0,0 +1,154 @@
+package dbLayer.managers;
+
+import dbLayer.cache.LoginBloomFilter;
+import dbLayer.cache.LoginDirectory;
+import dbLayer.cache.LoginIndex;
+import dbLayer.cache.PurposeCache;
+import dbLayer.memory.MemoryDatabase;
+import dbLayer.pool.ConnectionPool;
+import dbLayer.pool.PoolMetrics;
+import enums.UserType;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Properties;
+
+//Общее для всего сервера хранилище: пул подключений к БД (или база в памяти) и кэши справочников.
+//DataAccessManager для каждой команды создается из него
+public class DataStore implements AutoCloseable {
+
+    //Размер фильтра логинов, если loginFilterExpectedLogins и loginFilterFalsePositiveRate не заданы
+    private static final long DEFAULT_LOGIN_FILTER_EXPECTED_LOGINS = 100_000;
+
+    private static final double DEFAULT_LOGIN_FILTER_FALSE_POSITIVE_RATE = 0.01;
+
+    //null при backend = MEMORY
+    private final ConnectionPool connectionPool;
+
+    //null при backend = MYSQL
+    private final MemoryDatabase memoryDatabase;
+
+    private final PurposeCache purposeCache = new PurposeCache();
+
+    private final LoginDirectory loginDirectory = new LoginDirectory();
+
+    //Фильтр логинов для CHECK_IF_LOGIN_EXISTS; при перестройке подменяется целиком
+    private volatile LoginBloomFilter loginFilter;
+
+    private final long loginFilterExpectedLogins;
+
+    private final double loginFilterFalsePositiveRate;
+
+    //Новые логины репозитории добавляют и в справочник, и в текущий фильтр
+    private final LoginIndex loginIndex = (login, role) -> {
+        loginDirectory.add(login, role);
+        loginFilter.add(login);
+    };
+
+    public DataStore(ConnectionPool connectionPool) {
+        this(connectionPool, null, DEFAULT_LOGIN_FILTER_EXPECTED_LOGINS, DEFAULT_LOGIN_FILTER_FALSE_POSITIVE_RATE);
+    }
+
+    public DataStore(MemoryDatabase memoryDatabase) {
+        this(null, memoryDatabase, DEFAULT_LOGIN_FILTER_EXPECTED_LOGINS, DEFAULT_LOGIN_FILTER_FALSE_POSITIVE_RATE);
+    }
+
+    private DataStore(ConnectionPool connectionPool, MemoryDatabase memoryDatabase,
+                      long loginFilterExpectedLogins, double loginFilterFalsePositiveRate) {
+        this.connectionPool = connectionPool;
+        this.memoryDatabase = memoryDatabase;
+        this.loginFilterExpectedLogins = loginFilterExpectedLogins;
+        this.loginFilterFalsePositiveRate = loginFilterFalsePositiveRate;
+        loginFilter = LoginBloomFilter.create(loginFilterExpectedLogins, loginFilterFalsePositiveRate);
+    }
+
+    public static DataStore fromProperties(Properties properties) {
+
+        var backend = Backend.valueOf(properties.getProperty("backend", Backend.MYSQL.name()).trim());
+        var expectedLogins = Long.parseLong(properties.getProperty("loginFilterExpectedLogins",
+                String.valueOf(DEFAULT_LOGIN_FILTER_EXPECTED_LOGINS)).trim());
+        var falsePositiveRate = Double.parseDouble(properties.getProperty("loginFilterFalsePositiveRate",
+                String.valueOf(DEFAULT_LOGIN_FILTER_FALSE_POSITIVE_RATE)).trim());
+        return switch (backend) {
+            case MYSQL -> new DataStore(ConnectionPool.fromProperties(properties), null,
+                    expectedLogins, falsePositiveRate);
+            case MEMORY -> new DataStore(null, MemoryDatabase.createDefault(), expectedLogins, falsePositiveRate);
+        };
+    }
+
+    public Backend getBackend() {
+        return memoryDatabase != null ? Backend.MEMORY : Backend.MYSQL;
+    }
+
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    public MemoryDatabase getMemoryDatabase() {
+        return memoryDatabase;
+    }
+
+    public PurposeCache getPurposeCache() {
+        return purposeCache;
+    }
+
+    public LoginDirectory getLoginDirectory() {
+        return loginDirectory;
+    }
+
+    public LoginBloomFilter getLoginFilter() {
+        return loginFilter;
+    }
+
+    //Для репозиториев: куда добавлять логины новых и измененных учетных записей
+    public LoginIndex getLoginIndex() {
+        return loginIndex;
+    }
+
+    //Загрузка справочника логинов из таблиц (при старте сервера); число логинов в справочнике
+    public int loadLoginDirectory() throws SQLException {
+
+        for (var role : new UserType[]{UserType.USER, UserType.ADMIN, UserType.MASTER})
+            loginDirectory.load(getAllLogins(role), role);
+        loginDirectory.markLoaded();
+        return loginDirectory.size();
+    }
+
+    //Заполнение фильтра логинов из таблиц (при старте сервера или если логинов стало больше расчетного).
+    //Новый фильтр подменяет старый до чтения таблиц, поэтому логины, созданные во время перестройки,
+    //попадают в него; пока он не заполнен, все проверки идут в БД
+    public LoginBloomFilter rebuildLoginFilter() throws SQLException {
+
+        var filter = LoginBloomFilter.create(Math.max(loginFilterExpectedLogins, 2 * loginFilter.getLogins()),
+                loginFilterFalsePositiveRate);
+        loginFilter = filter;
+        for (var role : new UserType[]{UserType.USER, UserType.ADMIN, UserType.MASTER}) {
+            for (var login : getAllLogins(role))
+                filter.add(login);
+        }
+        filter.markReady();
+        return filter.isOverloaded() ? rebuildLoginFilter() : filter;
+    }
+
+    private List<String> getAllLogins(UserType role) throws SQLException {
+
+        try (var dataAccessManager = new DataAccessManager(this)) {
+            return switch (role) {
+                case ADMIN -> dataAccessManager.adminsRepository.getAllLogins();
+                case MASTER -> dataAccessManager.mastersRepository.getAllLogins();
+                default -> dataAccessManager.clientsRepository.getAllLogins();
+            };
+        }
+    }
+
+    //Без пула (backend = MEMORY) - нулевой снимок
+    public PoolMetrics getPoolMetrics() {
+        return connectionPool != null ? connectionPool.getMetrics() : PoolMetrics.EMPTY;
+    }
+
+    @Override
+    public void close() {
+        if (connectionPool != null)
+            connectionPool.close();
+    }
+}
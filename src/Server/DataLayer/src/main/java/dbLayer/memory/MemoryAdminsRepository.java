@@ -0,0 +1,96 @@
+package dbLayer.memory;
+
+import dbLayer.cache.LoginIndex;
+import dbLayer.repositories.AdminsRepository;
+import entities.Admin;
+import enums.UserType;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+//Реализация в памяти (MemoryDatabase)
+public class MemoryAdminsRepository implements AdminsRepository {
+
+    private final MemoryDatabase database;
+
+    //null - логины никуда не добавляются
+    private final LoginIndex loginIndex;
+
+    public MemoryAdminsRepository(MemoryDatabase database) {
+        this(database, null);
+    }
+
+    public MemoryAdminsRepository(MemoryDatabase database, LoginIndex loginIndex) {
+        this.database = database;
+        this.loginIndex = loginIndex;
+    }
+
+    private void addLogin(String login) {
+        if (loginIndex != null)
+            loginIndex.add(login, UserType.ADMIN);
+    }
+
+    private static void checkNotNull(Admin obj) throws SQLException {
+        MemoryDatabase.notNull(obj.getLogin(), "login");
+        MemoryDatabase.notNull(obj.getPassword(), "password");
+    }
+
+    @Override
+    public int create(Admin obj) throws SQLException {
+        checkNotNull(obj);
+        int id = database.write(() -> database.admins.insert(obj));
+        addLogin(obj.getLogin());
+        return id;
+    }
+
+    @Override
+    public void update(Admin obj) throws SQLException {
+        checkNotNull(obj);
+        database.write(() -> {
+            database.admins.update(obj);
+            return null;
+        });
+        addLogin(obj.getLogin());
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        database.write(() -> {
+            database.admins.delete(id);
+            return null;
+        });
+    }
+
+    @Override
+    public Admin getById(int id) {
+        var admin = database.admins.get(id);
+        return admin != null ? admin : new Admin();
+    }
+
+    //логин и пароль сравниваются без учета регистра, как в collation таблицы
+    @Override
+    public Admin get(String login, String password) {
+        var admin = database.admins.findByUnique(login);
+        return admin != null && admin.getPassword().equalsIgnoreCase(password) ? admin : new Admin();
+    }
+
+    @Override
+    public Admin get(String login) {
+        var admin = database.admins.findByUnique(login);
+        return admin != null ? admin : new Admin();
+    }
+
+    @Override
+    public List<String> getAllLogins() {
+        var list = new ArrayList<String>();
+        for (var row : database.admins.getAll())
+            list.add(row.getLogin());
+        return list;
+    }
+
+    @Override
+    public List<Admin> getAll() {
+        return database.admins.getAll();
+    }
+}
@@ -0,0 +1,110 @@
+package dbLayer.memory;
+
+import Commands.Page;
+import Commands.PageRequest;
+import dbLayer.cache.LoginIndex;
+import dbLayer.repositories.ClientsRepository;
+import dbLayer.repositories.Pages;
+import entities.User;
+import enums.UserType;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+//Реализация в памяти (MemoryDatabase)
+public class MemoryClientsRepository implements ClientsRepository {
+
+    private final MemoryDatabase database;
+
+    //null - логины никуда не добавляются
+    private final LoginIndex loginIndex;
+
+    public MemoryClientsRepository(MemoryDatabase database) {
+        this(database, null);
+    }
+
+    public MemoryClientsRepository(MemoryDatabase database, LoginIndex loginIndex) {
+        this.database = database;
+        this.loginIndex = loginIndex;
+    }
+
+    private void addLogin(String login) {
+        if (loginIndex != null)
+            loginIndex.add(login, UserType.USER);
+    }
+
+    private static void checkNotNull(User obj) throws SQLException {
+        MemoryDatabase.notNull(obj.getLogin(), "login");
+        MemoryDatabase.notNull(obj.getPassword(), "password");
+        MemoryDatabase.notNull(obj.getFullName(), "fullName");
+        MemoryDatabase.notNull(obj.getPhone(), "phone");
+        MemoryDatabase.notNull(obj.getStatus(), "status");
+    }
+
+    @Override
+    public int create(User obj) throws SQLException {
+        checkNotNull(obj);
+        int id = database.write(() -> database.clients.insert(obj));
+        addLogin(obj.getLogin());
+        return id;
+    }
+
+    @Override
+    public void update(User obj) throws SQLException {
+        checkNotNull(obj);
+        database.write(() -> {
+            database.clients.update(obj);
+            return null;
+        });
+        addLogin(obj.getLogin());
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        database.write(() -> {
+            if (database.recordsByClient.containsKey(id))
+                throw MemoryDatabase.referenced("records", "FK_records_clients");
+            database.clients.delete(id);
+            return null;
+        });
+    }
+
+    @Override
+    public User getById(int id) {
+        var client = database.clients.get(id);
+        return client != null ? client : new User();
+    }
+
+    //логин и пароль сравниваются без учета регистра, как в collation таблицы
+    @Override
+    public User get(String login, String password) {
+        var client = database.clients.findByUnique(login);
+        return client != null && client.getPassword().equalsIgnoreCase(password) ? client : new User();
+    }
+
+    @Override
+    public User get(String login) {
+        var client = database.clients.findByUnique(login);
+        return client != null ? client : new User();
+    }
+
+    @Override
+    public List<String> getAllLogins() {
+        var list = new ArrayList<String>();
+        for (var row : database.clients.getAll())
+            list.add(row.getLogin());
+        return list;
+    }
+
+    @Override
+    public List<User> getAll() {
+        return database.clients.getAll();
+    }
+
+    @Override
+    public Page<User> getPage(PageRequest pageRequest) {
+        return Pages.of(database.clients.getAfter(pageRequest.getAfterId(), pageRequest.getPageSize() + 1),
+                pageRequest, last -> new PageRequest(pageRequest.getPageSize(), last.getId(), null));
+    }
+}
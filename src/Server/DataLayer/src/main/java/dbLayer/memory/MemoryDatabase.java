@@ -0,0 +1,189 @@
+package dbLayer.memory;
+
+import entities.Admin;
+import entities.Master;
+import entities.Purpose;
+import entities.User;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//База данных в памяти с той же схемой, что barbershop_database после всех миграций
+//(backend = MEMORY в config.properties).
+//Нужна для тестов и бенчмарков без MySQL: ограничения (уникальные логины, внешние ключи, NOT NULL)
+//проверяются так же, ошибки - те же SQLIntegrityConstraintViolationException.
+//Изменения выполняются по одному под общей блокировкой, чтение идет без блокировок по concurrent-индексам
+public class MemoryDatabase {
+
+    //Строка таблицы records; сама запись собирается вместе с клиентом и услугой при чтении.
+    //masterId - мастер, принявший запись (0 - не принята, как NULL в records.masterId)
+    record RecordRow(int id, int purposeId, int clientId, long clearanceTime, int masterId) {
+
+        RecordKey key() {
+            return new RecordKey(clearanceTime, id);
+        }
+
+        boolean accepted() {
+            return masterId != 0;
+        }
+
+        RecordRow withMaster(int masterId) {
+            return new RecordRow(id, purposeId, clientId, clearanceTime, masterId);
+        }
+    }
+
+    //Ключ страниц записей: (clearanceDateTime, id)
+    record RecordKey(long clearanceTime, int id) implements Comparable<RecordKey> {
+
+        @Override
+        public int compareTo(RecordKey other) {
+            int byTime = Long.compare(clearanceTime, other.clearanceTime);
+            return byTime != 0 ? byTime : Integer.compare(id, other.id);
+        }
+    }
+
+    interface Write<T> {
+        T run() throws SQLException;
+    }
+
+    private final Object writeLock = new Object();
+
+    final MemoryTable<User> clients = new MemoryTable<>("clients", MemoryDatabase::copy, User::getId, User::setId,
+            "login", User::getLogin);
+
+    final MemoryTable<Master> masters = new MemoryTable<>("masters", MemoryDatabase::copy, Master::getId,
+            Master::setId, "login", Master::getLogin);
+
+    final MemoryTable<Admin> admins = new MemoryTable<>("admins", MemoryDatabase::copy, Admin::getId, Admin::setId,
+            "login", Admin::getLogin);
+
+    final MemoryTable<Purpose> purposes = new MemoryTable<>("purposes", MemoryDatabase::copy, Purpose::getId,
+            Purpose::setId, "name", Purpose::getName);
+
+    //records и индексы к ней: по дате (страницы), по дате отдельно для принятых и непринятых
+    //(IX_records_accepted), по клиенту, по услуге и по принявшему мастеру (внешние ключи)
+    final ConcurrentSkipListMap<Integer, RecordRow> records = new ConcurrentSkipListMap<>();
+
+    final ConcurrentSkipListMap<RecordKey, RecordRow> recordsByDate = new ConcurrentSkipListMap<>();
+
+    final ConcurrentSkipListMap<RecordKey, RecordRow> acceptedByDate = new ConcurrentSkipListMap<>();
+
+    final ConcurrentSkipListMap<RecordKey, RecordRow> notAcceptedByDate = new ConcurrentSkipListMap<>();
+
+    final ConcurrentHashMap<Integer, Map<Integer, RecordRow>> recordsByClient = new ConcurrentHashMap<>();
+
+    final ConcurrentHashMap<Integer, Map<Integer, RecordRow>> recordsByPurpose = new ConcurrentHashMap<>();
+
+    final ConcurrentHashMap<Integer, Map<Integer, RecordRow>> recordsByAcceptingMaster = new ConcurrentHashMap<>();
+
+    final AtomicInteger recordsAutoIncrement = new AtomicInteger();
+
+    //masters_records в обе стороны; пара (recordId, masterId) - первичный ключ (миграция 2)
+    final ConcurrentHashMap<Integer, CopyOnWriteArrayList<Integer>> mastersByRecord = new ConcurrentHashMap<>();
+
+    final ConcurrentHashMap<Integer, CopyOnWriteArrayList<Integer>> recordsByMaster = new ConcurrentHashMap<>();
+
+    //Пустая база с администратором admin/admin, как после barbershop database generation.sql
+    public static MemoryDatabase createDefault() {
+
+        var database = new MemoryDatabase();
+        try {
+            database.admins.insert(new Admin(0, "admin", "admin"));
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return database;
+    }
+
+    <T> T write(Write<T> write) throws SQLException {
+        synchronized (writeLock) {
+            return write.run();
+        }
+    }
+
+    //Индексы записей меняются только под блокировкой записи
+    void putRecord(RecordRow row) {
+        records.put(row.id(), row);
+        recordsByDate.put(row.key(), row);
+        recordsByClient.computeIfAbsent(row.clientId(), id -> new ConcurrentSkipListMap<>()).put(row.id(), row);
+        recordsByPurpose.computeIfAbsent(row.purposeId(), id -> new ConcurrentSkipListMap<>()).put(row.id(), row);
+        (row.accepted() ? acceptedByDate : notAcceptedByDate).put(row.key(), row);
+        if (row.accepted())
+            recordsByAcceptingMaster.computeIfAbsent(row.masterId(), id -> new ConcurrentSkipListMap<>())
+                    .put(row.id(), row);
+    }
+
+    void removeRecord(RecordRow row) {
+        records.remove(row.id());
+        recordsByDate.remove(row.key());
+        removeFrom(recordsByClient, row.clientId(), row.id());
+        removeFrom(recordsByPurpose, row.purposeId(), row.id());
+        (row.accepted() ? acceptedByDate : notAcceptedByDate).remove(row.key());
+        if (row.accepted())
+            removeFrom(recordsByAcceptingMaster, row.masterId(), row.id());
+    }
+
+    private static void removeFrom(ConcurrentHashMap<Integer, Map<Integer, RecordRow>> index, int key, int recordId) {
+        index.computeIfPresent(key, (k, rows) -> {
+            rows.remove(recordId);
+            return rows.isEmpty() ? null : rows;
+        });
+    }
+
+    //Строка заменяется целиком, чтобы индексы по дате и мастеру не расходились с ней
+    void replaceRecord(RecordRow old, RecordRow row) {
+        removeRecord(old);
+        putRecord(row);
+    }
+
+    //DATETIME хранит время с точностью до секунды (дробная часть округляется)
+    static long toDateTime(Date date) {
+        return Math.floorDiv(date.getTime() + 500, 1000) * 1000;
+    }
+
+    static SQLIntegrityConstraintViolationException duplicate(String table, String column, String value) {
+        return new SQLIntegrityConstraintViolationException(
+                "Duplicate entry '" + value + "' for key '" + table + "." + column + "'", "23000", 1062);
+    }
+
+    //Удаление строки, на которую ссылаются
+    static SQLIntegrityConstraintViolationException referenced(String table, String constraint) {
+        return new SQLIntegrityConstraintViolationException("Cannot delete or update a parent row: " +
+                "a foreign key constraint fails (" + table + ", CONSTRAINT " + constraint + ")", "23000", 1451);
+    }
+
+    //Ссылка на несуществующую строку
+    static SQLIntegrityConstraintViolationException missingReference(String table, String constraint) {
+        return new SQLIntegrityConstraintViolationException("Cannot add or update a child row: " +
+                "a foreign key constraint fails (" + table + ", CONSTRAINT " + constraint + ")", "23000", 1452);
+    }
+
+    static void notNull(Object value, String column) throws SQLIntegrityConstraintViolationException {
+        if (value == null)
+            throw new SQLIntegrityConstraintViolationException("Column '" + column + "' cannot be null", "23000", 1048);
+    }
+
+    private static User copy(User user) {
+        return new User(user.getId(), user.getLogin(), user.getPassword(), user.getFullName(), user.getPhone(),
+                user.getStatus());
+    }
+
+    private static Master copy(Master master) {
+        return new Master(master.getId(), master.getLogin(), master.getPassword(), master.getExperience(),
+                master.getFullName(), master.getStatus());
+    }
+
+    private static Admin copy(Admin admin) {
+        return new Admin(admin.getId(), admin.getLogin(), admin.getPassword());
+    }
+
+    private static Purpose copy(Purpose purpose) {
+        return new Purpose(purpose.getId(), purpose.getName(), purpose.getCost());
+    }
+}
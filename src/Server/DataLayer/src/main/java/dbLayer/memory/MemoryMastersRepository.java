@@ -0,0 +1,109 @@
+package dbLayer.memory;
+
+import Commands.Page;
+import Commands.PageRequest;
+import dbLayer.cache.LoginIndex;
+import dbLayer.repositories.MastersRepository;
+import dbLayer.repositories.Pages;
+import entities.Master;
+import enums.UserType;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+//Реализация в памяти (MemoryDatabase)
+public class MemoryMastersRepository implements MastersRepository {
+
+    private final MemoryDatabase database;
+
+    //null - логины никуда не добавляются
+    private final LoginIndex loginIndex;
+
+    public MemoryMastersRepository(MemoryDatabase database) {
+        this(database, null);
+    }
+
+    public MemoryMastersRepository(MemoryDatabase database, LoginIndex loginIndex) {
+        this.database = database;
+        this.loginIndex = loginIndex;
+    }
+
+    private void addLogin(String login) {
+        if (loginIndex != null)
+            loginIndex.add(login, UserType.MASTER);
+    }
+
+    private static void checkNotNull(Master obj) throws SQLException {
+        MemoryDatabase.notNull(obj.getLogin(), "login");
+        MemoryDatabase.notNull(obj.getPassword(), "password");
+        MemoryDatabase.notNull(obj.getFullName(), "fullName");
+        MemoryDatabase.notNull(obj.getStatus(), "status");
+    }
+
+    @Override
+    public int create(Master obj) throws SQLException {
+        checkNotNull(obj);
+        int id = database.write(() -> database.masters.insert(obj));
+        addLogin(obj.getLogin());
+        return id;
+    }
+
+    @Override
+    public void update(Master obj) throws SQLException {
+        checkNotNull(obj);
+        database.write(() -> {
+            database.masters.update(obj);
+            return null;
+        });
+        addLogin(obj.getLogin());
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        database.write(() -> {
+            if (database.recordsByMaster.containsKey(id))
+                throw MemoryDatabase.referenced("masters_records", "FK_records_masters");
+            database.masters.delete(id);
+            return null;
+        });
+    }
+
+    @Override
+    public Master getById(int id) {
+        var master = database.masters.get(id);
+        return master != null ? master : new Master();
+    }
+
+    //логин и пароль сравниваются без учета регистра, как в collation таблицы
+    @Override
+    public Master get(String login, String password) {
+        var master = database.masters.findByUnique(login);
+        return master != null && master.getPassword().equalsIgnoreCase(password) ? master : new Master();
+    }
+
+    @Override
+    public Master get(String login) {
+        var master = database.masters.findByUnique(login);
+        return master != null ? master : new Master();
+    }
+
+    @Override
+    public List<String> getAllLogins() {
+        var list = new ArrayList<String>();
+        for (var row : database.masters.getAll())
+            list.add(row.getLogin());
+        return list;
+    }
+
+    @Override
+    public List<Master> getAll() {
+        return database.masters.getAll();
+    }
+
+    @Override
+    public Page<Master> getPage(PageRequest pageRequest) {
+        return Pages.of(database.masters.getAfter(pageRequest.getAfterId(), pageRequest.getPageSize() + 1),
+                pageRequest, last -> new PageRequest(pageRequest.getPageSize(), last.getId(), null));
+    }
+}
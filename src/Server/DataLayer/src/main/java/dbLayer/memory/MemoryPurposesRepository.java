@@ -0,0 +1,86 @@
+package dbLayer.memory;
+
+import dbLayer.cache.PurposeCache;
+import dbLayer.repositories.PurposesRepository;
+import entities.Purpose;
+
+import java.sql.SQLException;
+import java.util.List;
+
+//Реализация в памяти (MemoryDatabase). Кэш сбрасывается так же, как в JdbcPurposesRepository:
+//от его версии зависит кэш ответов сервера
+public class MemoryPurposesRepository implements PurposesRepository {
+
+    private final MemoryDatabase database;
+
+    //null - чтение всегда из таблицы
+    private final PurposeCache purposeCache;
+
+    public MemoryPurposesRepository(MemoryDatabase database) {
+        this(database, null);
+    }
+
+    public MemoryPurposesRepository(MemoryDatabase database, PurposeCache purposeCache) {
+        this.database = database;
+        this.purposeCache = purposeCache;
+    }
+
+    private void invalidateCache() {
+        if (purposeCache != null)
+            purposeCache.invalidate();
+    }
+
+    @Override
+    public int create(Purpose obj) throws SQLException {
+        try {
+            MemoryDatabase.notNull(obj.getName(), "name");
+            return database.write(() -> database.purposes.insert(obj));
+        } finally {
+            invalidateCache();
+        }
+    }
+
+    @Override
+    public void update(Purpose obj) throws SQLException {
+        try {
+            MemoryDatabase.notNull(obj.getName(), "name");
+            database.write(() -> {
+                database.purposes.update(obj);
+                return null;
+            });
+        } finally {
+            invalidateCache();
+        }
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        try {
+            database.write(() -> {
+                if (database.recordsByPurpose.containsKey(id))
+                    throw MemoryDatabase.referenced("records", "FK_records_purposes");
+                database.purposes.delete(id);
+                return null;
+            });
+        } finally {
+            invalidateCache();
+        }
+    }
+
+    @Override
+    public Purpose getById(int id) throws SQLException {
+
+        var purpose = purposeCache != null
+                ? purposeCache.getById(id, database.purposes::getAll)
+                : database.purposes.get(id);
+        return purpose != null ? purpose : new Purpose();
+    }
+
+    @Override
+    public List<Purpose> getAll() throws SQLException {
+
+        if (purposeCache != null)
+            return purposeCache.getAll(database.purposes::getAll);
+        return database.purposes.getAll();
+    }
+}
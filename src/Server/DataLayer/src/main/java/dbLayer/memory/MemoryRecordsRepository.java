@@ -0,0 +1,269 @@
+package dbLayer.memory;
+
+import Commands.Page;
+import Commands.PageRequest;
+import Commands.RecordFilter;
+import dbLayer.memory.MemoryDatabase.RecordKey;
+import dbLayer.memory.MemoryDatabase.RecordRow;
+import dbLayer.repositories.Pages;
+import dbLayer.repositories.RecordsRepository;
+import entities.Record;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+//Реализация в памяти (MemoryDatabase). Запись собирается вместе с клиентом и услугой,
+//как SELECT ... INNER JOIN в JdbcRecordsRepository; страницы идут по индексу (clearanceDateTime, id),
+//принятые и непринятые - по своим индексам, как по IX_records_accepted
+public class MemoryRecordsRepository implements RecordsRepository {
+
+    private final MemoryDatabase database;
+
+    public MemoryRecordsRepository(MemoryDatabase database) {
+        this.database = database;
+    }
+
+    //null, если клиента или услуги уже нет (строка не попала бы в INNER JOIN)
+    private Record toRecord(RecordRow row) {
+
+        var client = database.clients.get(row.clientId());
+        var purpose = database.purposes.get(row.purposeId());
+        if (client == null || purpose == null) return null;
+        return new Record(row.id(), purpose, client, new Date(row.clearanceTime()));
+    }
+
+    private List<Record> toRecords(Collection<RecordRow> rows, Predicate<RecordRow> condition) {
+
+        var list = new ArrayList<Record>();
+        for (var row : rows) {
+            if (!condition.test(row)) continue;
+            var record = toRecord(row);
+            if (record != null)
+                list.add(record);
+        }
+        return list;
+    }
+
+    //Строка records из записи с проверкой NOT NULL и внешних ключей
+    private RecordRow toRow(int id, Record obj) throws SQLException {
+
+        MemoryDatabase.notNull(obj.getPurpose(), "purposeId");
+        MemoryDatabase.notNull(obj.getClient(), "clientId");
+        MemoryDatabase.notNull(obj.getDate(), "clearanceDateTime");
+        int purposeId = obj.getPurpose().getId();
+        int clientId = obj.getClient().getId();
+        if (!database.purposes.contains(purposeId))
+            throw MemoryDatabase.missingReference("records", "FK_records_purposes");
+        if (!database.clients.contains(clientId))
+            throw MemoryDatabase.missingReference("records", "FK_records_clients");
+        return new RecordRow(id, purposeId, clientId, MemoryDatabase.toDateTime(obj.getDate()), 0);
+    }
+
+    @Override
+    public int create(Record obj) throws SQLException {
+        return database.write(() -> {
+            var row = toRow(database.recordsAutoIncrement.get() + 1, obj);
+            database.recordsAutoIncrement.incrementAndGet();
+            database.putRecord(row);
+            return row.id();
+        });
+    }
+
+    @Override
+    public void update(Record obj) throws SQLException {
+        database.write(() -> {
+            var old = database.records.get(obj.getId());
+            if (old == null) return null;
+            //UPDATE records не меняет accepted и masterId
+            database.replaceRecord(old, toRow(obj.getId(), obj).withMaster(old.masterId()));
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        database.write(() -> {
+            var old = database.records.get(id);
+            if (old == null) return null;
+            if (database.mastersByRecord.containsKey(id))
+                throw MemoryDatabase.referenced("masters_records", "FK_masters_records_records");
+            database.removeRecord(old);
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteAcception(int id) throws SQLException {
+        database.write(() -> {
+            var masterIds = database.mastersByRecord.remove(id);
+            if (masterIds != null)
+                for (var masterId : masterIds)
+                    removeAcception(masterId, id);
+            var old = database.records.get(id);
+            if (old != null && old.accepted())
+                database.replaceRecord(old, old.withMaster(0));
+            return null;
+        });
+    }
+
+    @Override
+    public Record getById(int id) {
+
+        var row = database.records.get(id);
+        var record = row != null ? toRecord(row) : null;
+        return record != null ? record : new Record();
+    }
+
+    @Override
+    public List<Record> getAll() {
+        return toRecords(database.records.values(), row -> true);
+    }
+
+    @Override
+    public List<Record> getAllNotAccepted() {
+        return toRecords(database.notAcceptedByDate.values(), row -> true);
+    }
+
+    @Override
+    public List<Record> getAllAccepted() {
+        return toRecords(database.acceptedByDate.values(), row -> true);
+    }
+
+    @Override
+    public List<Record> getAllMasterRecords(int masterId) {
+
+        var rows = database.recordsByAcceptingMaster.get(masterId);
+        if (rows == null) return new ArrayList<>();
+        return toRecords(rows.values(), row -> true);
+    }
+
+    @Override
+    public List<Record> getAllClientRecords(int clientId) {
+
+        var rows = database.recordsByClient.get(clientId);
+        if (rows == null) return new ArrayList<>();
+        return toRecords(rows.values(), RecordRow::accepted);
+    }
+
+    @Override
+    public void addRecordToMaster(int masterId, int recordId) throws SQLException {
+        database.write(() -> {
+            var old = database.records.get(recordId);
+            if (old == null || old.accepted())
+                throw new SQLException("Record " + recordId + " does not exist or is already accepted");
+            if (!database.masters.contains(masterId))
+                throw MemoryDatabase.missingReference("records", "FK_records_accepted_master");
+            database.replaceRecord(old, old.withMaster(masterId));
+            database.mastersByRecord.computeIfAbsent(recordId, id -> new CopyOnWriteArrayList<>()).add(masterId);
+            database.recordsByMaster.computeIfAbsent(masterId, id -> new CopyOnWriteArrayList<>()).add(recordId);
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteRecordFromMaster(int masterId, int recordId) throws SQLException {
+        database.write(() -> {
+            var masterIds = database.mastersByRecord.computeIfPresent(recordId, (key, ids) -> {
+                ids.removeIf(id -> id == masterId);
+                return ids.isEmpty() ? null : ids;
+            });
+            removeAcception(masterId, recordId);
+            //запись переходит к оставшемуся мастеру с меньшим id, как в JdbcRecordsRepository
+            var old = database.records.get(recordId);
+            if (old != null && old.masterId() == masterId)
+                database.replaceRecord(old, old.withMaster(masterIds == null ? 0 :
+                        masterIds.stream().mapToInt(Integer::intValue).min().orElse(0)));
+            return null;
+        });
+    }
+
+    //Удаляет пару (masterId, recordId) из индекса мастера
+    private void removeAcception(int masterId, int recordId) {
+        database.recordsByMaster.computeIfPresent(masterId, (key, recordIds) -> {
+            recordIds.removeIf(id -> id == recordId);
+            return recordIds.isEmpty() ? null : recordIds;
+        });
+    }
+
+    @Override
+    public Page<Record> getPage(PageRequest pageRequest) {
+        return getPage(database.recordsByDate, row -> true, pageRequest);
+    }
+
+    @Override
+    public Page<Record> getAcceptedPage(PageRequest pageRequest) {
+        return getPage(database.acceptedByDate, row -> true, pageRequest);
+    }
+
+    @Override
+    public Page<Record> getNotAcceptedPage(PageRequest pageRequest) {
+        return getPage(database.notAcceptedByDate, row -> true, pageRequest);
+    }
+
+    //Условия фильтра - те же, что WHERE в JdbcRecordsRepository.query
+    @Override
+    public Page<Record> query(RecordFilter filter, PageRequest pageRequest) {
+
+        Predicate<RecordRow> condition = row -> true;
+        if (filter.getCostFrom() != null || filter.getCostTo() != null || filter.getPurposeName() != null) {
+            condition = condition.and(row -> {
+                var purpose = database.purposes.get(row.purposeId());
+                return purpose != null &&
+                        (filter.getCostFrom() == null || purpose.getCost() >= filter.getCostFrom()) &&
+                        (filter.getCostTo() == null || purpose.getCost() <= filter.getCostTo()) &&
+                        (filter.getPurposeName() == null || purpose.getName().toLowerCase(Locale.ROOT)
+                                .contains(filter.getPurposeName().toLowerCase(Locale.ROOT)));
+            });
+        }
+        if (filter.getFrom() != null) {
+            var from = filter.getFrom().getTime();
+            condition = condition.and(row -> row.clearanceTime() >= from);
+        }
+        if (filter.getTo() != null) {
+            var to = filter.getTo().getTime();
+            condition = condition.and(row -> row.clearanceTime() < to);
+        }
+        if (filter.getClientId() != null) {
+            int clientId = filter.getClientId();
+            condition = condition.and(row -> row.clientId() == clientId);
+        }
+        if (filter.getMasterId() != null) {
+            int masterId = filter.getMasterId();
+            condition = condition.and(row -> row.masterId() == masterId);
+        }
+        var index = switch (filter.getAcceptance()) {
+            case ACCEPTED -> database.acceptedByDate;
+            case NOT_ACCEPTED -> database.notAcceptedByDate;
+            case ANY -> database.recordsByDate;
+        };
+        return getPage(index, condition, pageRequest);
+    }
+
+    //Страница по (clearanceDateTime, id): строки индекса после ключа запроса, отобранные условием
+    private Page<Record> getPage(ConcurrentSkipListMap<RecordKey, RecordRow> index, Predicate<RecordRow> condition,
+                                 PageRequest pageRequest) {
+
+        var rows = pageRequest.getAfterDate() == null
+                ? index.values()
+                : index.tailMap(new RecordKey(MemoryDatabase.toDateTime(pageRequest.getAfterDate()),
+                pageRequest.getAfterId()), false).values();
+        int limit = pageRequest.getPageSize() + 1;
+        var list = new ArrayList<Record>(limit);
+        for (var row : rows) {
+            if (list.size() >= limit) break;
+            if (!condition.test(row)) continue;
+            var record = toRecord(row);
+            if (record != null)
+                list.add(record);
+        }
+        return Pages.of(list, pageRequest,
+                last -> new PageRequest(pageRequest.getPageSize(), last.getId(), last.getDate()));
+    }
+}
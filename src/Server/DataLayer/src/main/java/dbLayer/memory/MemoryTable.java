@@ -0,0 +1,126 @@
+package dbLayer.memory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+//Таблица в памяти: строки по первичному ключу в порядке возрастания (как PRIMARY KEY в InnoDB)
+//и необязательный уникальный столбец. Строки хранятся копиями и отдаются копиями, поэтому
+//изменение полученного объекта не меняет таблицу - как и в JDBC.
+//Изменения - только под блокировкой записи MemoryDatabase, чтение без блокировок
+class MemoryTable<T> {
+
+    private final String name;
+
+    private final ConcurrentSkipListMap<Integer, T> rows = new ConcurrentSkipListMap<>();
+
+    //значение уникального столбца -> id
+    private final ConcurrentHashMap<String, Integer> uniqueIndex = new ConcurrentHashMap<>();
+
+    private final AtomicInteger autoIncrement = new AtomicInteger();
+
+    private final UnaryOperator<T> copy;
+
+    private final ToIntFunction<T> getId;
+
+    private final ObjIntConsumer<T> setId;
+
+    private final String uniqueColumnName;
+
+    private final Function<T, String> uniqueColumn;
+
+    MemoryTable(String name, UnaryOperator<T> copy, ToIntFunction<T> getId, ObjIntConsumer<T> setId,
+                String uniqueColumnName, Function<T, String> uniqueColumn) {
+        this.name = name;
+        this.copy = copy;
+        this.getId = getId;
+        this.setId = setId;
+        this.uniqueColumnName = uniqueColumnName;
+        this.uniqueColumn = uniqueColumn;
+    }
+
+    //Сравнение строк без учета регистра, как в collation MySQL по умолчанию
+    private static String key(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    //null, если строки нет
+    T get(int id) {
+        var row = rows.get(id);
+        return row == null ? null : copy.apply(row);
+    }
+
+    boolean contains(int id) {
+        return rows.containsKey(id);
+    }
+
+    T findByUnique(String value) {
+        var id = value == null ? null : uniqueIndex.get(key(value));
+        return id == null ? null : get(id);
+    }
+
+    List<T> getAll() {
+        return copyAll(rows.values(), Integer.MAX_VALUE);
+    }
+
+    //limit строк с id больше afterId
+    List<T> getAfter(int afterId, int limit) {
+        return copyAll(rows.tailMap(afterId, false).values(), limit);
+    }
+
+    private List<T> copyAll(Iterable<T> source, int limit) {
+
+        var list = new ArrayList<T>();
+        for (var row : source) {
+            if (list.size() >= limit) break;
+            list.add(copy.apply(row));
+        }
+        return list;
+    }
+
+    //id новой строки (id объекта не используется, как и при AUTO_INCREMENT)
+    int insert(T row) throws SQLException {
+
+        var uniqueKey = key(uniqueColumn.apply(row));
+        if (uniqueIndex.containsKey(uniqueKey))
+            throw MemoryDatabase.duplicate(name, uniqueColumnName, uniqueColumn.apply(row));
+        int id = autoIncrement.incrementAndGet();
+        var stored = copy.apply(row);
+        setId.accept(stored, id);
+        rows.put(id, stored);
+        uniqueIndex.put(uniqueKey, id);
+        return id;
+    }
+
+    //Строки с таким id нет - ничего не меняется (UPDATE без затронутых строк)
+    void update(T row) throws SQLException {
+
+        int id = getId.applyAsInt(row);
+        var old = rows.get(id);
+        if (old == null) return;
+        var oldKey = key(uniqueColumn.apply(old));
+        var newKey = key(uniqueColumn.apply(row));
+        var owner = uniqueIndex.get(newKey);
+        if (owner != null && owner != id)
+            throw MemoryDatabase.duplicate(name, uniqueColumnName, uniqueColumn.apply(row));
+        rows.put(id, copy.apply(row));
+        if (!newKey.equals(oldKey)) {
+            uniqueIndex.put(newKey, id);
+            uniqueIndex.remove(oldKey, id);
+        }
+    }
+
+    void delete(int id) {
+        var old = rows.remove(id);
+        if (old != null)
+            uniqueIndex.remove(key(uniqueColumn.apply(old)), id);
+    }
+}
@@ -0,0 +1,43 @@
+package dbLayer.migrations;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+//Один скрипт миграции: V<версия>__<описание>.sql. Запросы разделяются ';' в конце строки,
+//строки, начинающиеся с '--', - комментарии
+public record Migration(int version, String description, List<String> statements) {
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    //null, если файл - не скрипт миграции
+    public static Migration read(Path file) throws IOException {
+
+        var matcher = FILE_NAME.matcher(file.getFileName().toString());
+        if (!matcher.matches()) return null;
+        return new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '),
+                parseStatements(Files.readAllLines(file)));
+    }
+
+    //Запросы SQL-скрипта (так же разбирается и barbershop database generation.sql)
+    public static List<String> parseStatements(List<String> lines) {
+
+        var statements = new ArrayList<String>();
+        var statement = new StringBuilder();
+        for (var line : lines) {
+            var trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) continue;
+            statement.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                statements.add(statement.substring(0, statement.lastIndexOf(";")).trim());
+                statement.setLength(0);
+            }
+        }
+        if (!statement.toString().isBlank())
+            statements.add(statement.toString().trim());
+        return List.copyOf(statements);
+    }
+}
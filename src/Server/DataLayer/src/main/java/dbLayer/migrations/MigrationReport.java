@@ -0,0 +1,17 @@
+package dbLayer.migrations;
+
+import java.util.List;
+
+//Итог запуска миграций: версия схемы до и после и примененные скрипты
+public record MigrationReport(int fromVersion,
+                              int toVersion,
+                              List<String> applied,
+                              long durationMs) {
+
+    @Override
+    public String toString() {
+        if (applied.isEmpty())
+            return "version " + toVersion + ", up to date";
+        return "version " + fromVersion + " -> " + toVersion + ", applied " + applied + " in " + durationMs + " ms";
+    }
+}
@@ -0,0 +1,143 @@
+package dbLayer.migrations;
+
+import dbLayer.pool.PoolSettings;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+//Версионные миграции схемы MySQL. Скрипты V<версия>__<описание>.sql из каталога migrations
+//применяются по порядку номеров, каждая примененная версия записывается в schema_version.
+//Несколько серверов, стартующих одновременно, не применяют миграции дважды - на время работы
+//берется именованная блокировка MySQL. DDL в MySQL не откатывается, поэтому миграция,
+//упавшая на середине, оставляет схему как есть - ее нужно исправить вручную до следующего старта
+public class MigrationRunner {
+
+    private static final String LOCK_NAME = "barbershop_schema_migration";
+
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    private final Connection connection;
+
+    private final List<Migration> migrations;
+
+    public MigrationRunner(Connection connection, List<Migration> migrations) {
+        this.connection = connection;
+        this.migrations = migrations.stream().sorted(Comparator.comparingInt(Migration::version)).toList();
+    }
+
+    //Каталог скриптов (migrationsDirectory в dbLayer/config.properties, путь от каталога src)
+    public static List<Migration> loadMigrations(Path directory) throws IOException {
+
+        try (var files = Files.list(directory)) {
+            var migrations = new ArrayList<Migration>();
+            for (var file : files.toList()) {
+                var migration = Migration.read(file);
+                if (migration != null)
+                    migrations.add(migration);
+            }
+            return migrations;
+        }
+    }
+
+    //Отдельное подключение без пула: миграции выполняются до его создания
+    public static Connection openConnection(PoolSettings settings) throws SQLException {
+        return DriverManager.getConnection(settings.url(), settings.userName(), settings.password());
+    }
+
+    public MigrationReport migrate() throws SQLException {
+        return migrate(Integer.MAX_VALUE);
+    }
+
+    //Применяет миграции до версии targetVersion включительно
+    public MigrationReport migrate(int targetVersion) throws SQLException {
+
+        var start = System.nanoTime();
+        lock();
+        try {
+            createVersionTable();
+            int fromVersion = getCurrentVersion();
+            int version = fromVersion;
+            var applied = new ArrayList<String>();
+            for (var migration : migrations) {
+                if (migration.version() <= version || migration.version() > targetVersion) continue;
+                apply(migration);
+                version = migration.version();
+                applied.add(migration.version() + " " + migration.description());
+            }
+            return new MigrationReport(fromVersion, version, applied, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            unlock();
+        }
+    }
+
+    public int getCurrentVersion() throws SQLException {
+
+        createVersionTable();
+        try (var statement = connection.createStatement();
+             var resultSet = statement.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private void apply(Migration migration) throws SQLException {
+
+        var start = System.nanoTime();
+        try (var statement = connection.createStatement()) {
+            for (var sql : migration.statements())
+                statement.execute(sql);
+        } catch (SQLException e) {
+            throw new SQLException("Migration " + migration.version() + " (" + migration.description() +
+                    ") failed: " + e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+        }
+        try (var insertStatement = connection.prepareStatement(
+                "INSERT INTO schema_version (version, description, appliedAt, durationMs) values (?, ?, ?, ?)")) {
+            insertStatement.setInt(1, migration.version());
+            insertStatement.setString(2, migration.description());
+            insertStatement.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+            insertStatement.setLong(4, (System.nanoTime() - start) / 1_000_000);
+            insertStatement.executeUpdate();
+        }
+    }
+
+    private void createVersionTable() throws SQLException {
+
+        try (var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version int not null, " +
+                    "description varchar(200) not null, " +
+                    "appliedAt datetime not null, " +
+                    "durationMs bigint not null, " +
+                    "constraint PK_schema_version primary key (version))");
+        }
+    }
+
+    private void lock() throws SQLException {
+
+        try (var statement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (var resultSet = statement.executeQuery()) {
+                //1 - блокировка получена, 0 - истек таймаут, NULL - ошибка
+                if (!resultSet.next() || resultSet.getInt(1) != 1)
+                    throw new SQLException("Schema migration lock is held by another server");
+            }
+        }
+    }
+
+    private void unlock() throws SQLException {
+
+        try (var statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.executeQuery().close();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package dbLayer.pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+//Право на одно подключение из пула на время выполнения одной команды.
+//Физическое подключение берется лениво - при первом обращении к БД, поэтому команды,
+//которым БД не нужна, пул не занимают, а ошибка ожидания приходит как обычное SQLException.
+//prepareStatement() выдает запросы из кэша подключения; close() у них возвращает запрос в кэш,
+//а все, что не закрыли репозитории, закрывается вместе с арендой
+public class ConnectionLease implements AutoCloseable {
+
+    private final ConnectionPool pool;
+
+    private final Connection connection;
+
+    private PooledConnection pooledConnection;
+
+    private final Set<LeasedStatement> openStatements = new LinkedHashSet<>();
+
+    private boolean closed;
+
+    //Время вызовов JDBC и число ошибок SQL за аренду (аренда используется одной командой)
+    private long sqlNanos;
+
+    private int sqlErrors;
+
+    ConnectionLease(ConnectionPool pool) {
+        this.pool = pool;
+        connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new LeaseHandler());
+    }
+
+    //Подключение для репозиториев. close() у него ничего не делает - вернуть подключение может только аренда
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public long getSqlNanos() {
+        return sqlNanos;
+    }
+
+    public int getSqlErrors() {
+        return sqlErrors;
+    }
+
+    //Вызов метода JDBC с замером времени
+    private Object timed(Method method, Object target, Object[] args, PooledConnection owner) throws Throwable {
+
+        var start = System.nanoTime();
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                sqlErrors++;
+                owner.checkError(sqlException);
+            }
+            throw e.getCause();
+        } finally {
+            sqlNanos += System.nanoTime() - start;
+        }
+    }
+
+    private synchronized PooledConnection acquire() throws SQLException {
+
+        if (closed)
+            throw new SQLException("Connection lease is already closed");
+        if (pooledConnection == null)
+            pooledConnection = pool.borrow();
+        return pooledConnection;
+    }
+
+    private synchronized PreparedStatement prepare(StatementKey key) throws SQLException {
+
+        var target = acquire();
+        var statement = new LeasedStatement(key, target, target.getStatementCache().take(key));
+        openStatements.add(statement);
+        pool.getLeakDetector().opened(statement, key.sql());
+        return statement.proxy;
+    }
+
+    @Override
+    public synchronized void close() {
+
+        if (closed) return;
+        closed = true;
+        for (var statement : new ArrayList<>(openStatements))
+            statement.close();
+        if (pooledConnection != null) {
+            pool.release(pooledConnection);
+            pooledConnection = null;
+        }
+    }
+
+    private class LeaseHandler implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                case "close" -> {
+                    return null;
+                }
+                case "isClosed" -> {
+                    synchronized (ConnectionLease.this) {
+                        return closed;
+                    }
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "ConnectionLease@" + Integer.toHexString(System.identityHashCode(proxy));
+                }
+                case "prepareStatement" -> {
+                    var key = toStatementKey(method, args);
+                    if (key != null)
+                        return prepare(key);
+                }
+            }
+
+            var target = acquire();
+            return timed(method, target.getConnection(), args, target);
+        }
+
+        //Кэшируются prepareStatement(sql), (sql, autoGeneratedKeys) и (sql, resultSetType, resultSetConcurrency)
+        private StatementKey toStatementKey(Method method, Object[] args) {
+
+            var parameterTypes = method.getParameterTypes();
+            if (parameterTypes.length == 1)
+                return StatementKey.of((String) args[0]);
+            if (parameterTypes.length == 2 && parameterTypes[1] == int.class)
+                return StatementKey.of((String) args[0], (Integer) args[1]);
+            if (parameterTypes.length == 3)
+                return StatementKey.of((String) args[0], (Integer) args[1], (Integer) args[2]);
+            return null;
+        }
+    }
+
+    //Запрос, выданный репозиторию из кэша
+    private class LeasedStatement implements InvocationHandler {
+
+        private final StatementKey key;
+
+        private final PooledConnection owner;
+
+        private final PreparedStatement target;
+
+        private final PreparedStatement proxy;
+
+        private volatile boolean statementClosed;
+
+        LeasedStatement(StatementKey key, PooledConnection owner, PreparedStatement target) {
+            this.key = key;
+            this.owner = owner;
+            this.target = target;
+            proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        //Логическое закрытие: закрываем результат и возвращаем запрос в кэш подключения
+        void close() {
+
+            synchronized (ConnectionLease.this) {
+                if (statementClosed) return;
+                statementClosed = true;
+                openStatements.remove(this);
+            }
+            pool.getLeakDetector().closed(this);
+            try {
+                var resultSet = target.getResultSet();
+                if (resultSet != null)
+                    resultSet.close();
+            } catch (SQLException ignored) {
+            }
+            owner.getStatementCache().giveBack(key, target);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                case "close" -> {
+                    close();
+                    return null;
+                }
+                case "isClosed" -> {
+                    return statementClosed;
+                }
+                case "getConnection" -> {
+                    return connection;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "LeasedStatement[" + key.sql() + "]";
+                }
+            }
+            if (statementClosed)
+                throw new SQLException("Statement is closed");
+            return timed(method, target, args, owner);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package dbLayer.pool;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Properties;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+//Пул подключений к MySQL, общий для всех клиентов сервера.
+//Свободные подключения хранятся в стеке (LIFO), поэтому "горячие" подключения
+//переиспользуются, а лишние дольше простаивают и закрываются фоновой очисткой
+public class ConnectionPool implements AutoCloseable {
+
+    private final PoolSettings settings;
+
+    private final long idleTimeoutNanos;
+    private final long validateAfterIdleNanos;
+
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+
+    //Разрешения на выдачу подключений - их ровно maxSize
+    private final Semaphore permits;
+
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+
+    private final StatementLeakDetector leakDetector;
+
+    private final ScheduledExecutorService evictor;
+
+    private volatile boolean closed;
+
+    public ConnectionPool(PoolSettings settings) {
+        if (settings.minSize() < 0 || settings.maxSize() < 1 || settings.minSize() > settings.maxSize())
+            throw new IllegalArgumentException("Invalid pool size: " + settings.minSize() + ".." + settings.maxSize());
+        this.settings = settings;
+        idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(settings.idleTimeoutMillis());
+        validateAfterIdleNanos = TimeUnit.MILLISECONDS.toNanos(settings.validateAfterIdleMillis());
+        permits = new Semaphore(settings.maxSize(), true);
+        leakDetector = new StatementLeakDetector(settings.statementLeakThresholdMillis());
+
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "db-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::maintain, 0, settings.evictionIntervalMillis(), TimeUnit.MILLISECONDS);
+        if (leakDetector.isEnabled()) {
+            long interval = Math.max(100, settings.statementLeakThresholdMillis() / 2);
+            evictor.scheduleWithFixedDelay(leakDetector::detect, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    //Параметры берутся из dbLayer/config.properties
+    public static ConnectionPool fromProperties(Properties properties) {
+        return new ConnectionPool(PoolSettings.fromProperties(properties));
+    }
+
+    //Аренда подключения на одну команду
+    public ConnectionLease lease() {
+        return new ConnectionLease(this);
+    }
+
+    PooledConnection borrow() throws SQLException {
+
+        if (closed)
+            throw new SQLException("Connection pool is closed");
+
+        long startedAt = System.nanoTime();
+        waiters.incrementAndGet();
+        boolean permitted;
+        try {
+            permitted = permits.tryAcquire(settings.acquireTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waiters.decrementAndGet();
+        }
+        recordWait(System.nanoTime() - startedAt);
+        if (!permitted) {
+            timeouts.increment();
+            throw new SQLTimeoutException("Timed out after " + settings.acquireTimeoutMillis() +
+                    " ms waiting for a database connection");
+        }
+
+        try {
+            var pooledConnection = takeIdleConnection();
+            if (pooledConnection == null)
+                pooledConnection = openConnection();
+            acquired.increment();
+            return pooledConnection;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeIdleConnection() {
+
+        PooledConnection pooledConnection;
+        while ((pooledConnection = idleConnections.pollFirst()) != null) {
+            if (pooledConnection.getIdleNanos() < validateAfterIdleNanos || isValid(pooledConnection))
+                return pooledConnection;
+            discard(pooledConnection);
+        }
+        return null;
+    }
+
+    private boolean isValid(PooledConnection pooledConnection) {
+        try {
+            return pooledConnection.getConnection().isValid(settings.validationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+
+        var connection = DriverManager.getConnection(settings.url(), settings.userName(), settings.password());
+        totalConnections.incrementAndGet();
+        return new PooledConnection(connection, new StatementCache(connection, settings.statementCacheSize(),
+                statementCacheHits, statementCacheMisses));
+    }
+
+    void release(PooledConnection pooledConnection) {
+
+        try {
+            if (closed || pooledConnection.isBroken() || pooledConnection.getConnection().isClosed()) {
+                discard(pooledConnection);
+                return;
+            }
+            pooledConnection.markReleased();
+            idleConnections.offerFirst(pooledConnection);
+        } catch (SQLException e) {
+            discard(pooledConnection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledConnection pooledConnection) {
+        totalConnections.decrementAndGet();
+        pooledConnection.closeQuietly();
+    }
+
+    StatementLeakDetector getLeakDetector() {
+        return leakDetector;
+    }
+
+    private void recordWait(long waitNanos) {
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    //Фоновая очистка: закрываем подключения, простаивающие дольше idleTimeout (но не меньше minSize),
+    //и дополняем пул до minSize
+    private void maintain() {
+
+        if (closed) return;
+        var iterator = idleConnections.descendingIterator();
+        while (iterator.hasNext() && totalConnections.get() > settings.minSize()) {
+            var pooledConnection = iterator.next();
+            if (pooledConnection.getIdleNanos() > idleTimeoutNanos && idleConnections.removeLastOccurrence(pooledConnection)) {
+                discard(pooledConnection);
+                evicted.increment();
+            }
+        }
+
+        while (totalConnections.get() < settings.minSize() && permits.tryAcquire()) {
+            try {
+                idleConnections.offerLast(openConnection());
+            } catch (SQLException e) {
+                System.out.println("Unable to open a pooled database connection: " + e.getMessage());
+                break;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    public PoolMetrics getMetrics() {
+
+        long acquiredCount = acquired.sum() + timeouts.sum();
+        int idle = idleConnections.size();
+        return new PoolMetrics(totalConnections.get(),
+                settings.maxSize() - permits.availablePermits(),
+                idle,
+                waiters.get(),
+                settings.minSize(),
+                settings.maxSize(),
+                acquired.sum(),
+                timeouts.sum(),
+                evicted.sum(),
+                acquiredCount == 0 ? 0 : totalWaitNanos.sum() / 1e6 / acquiredCount,
+                maxWaitNanos.get() / 1e6,
+                statementCacheHits.sum(),
+                statementCacheMisses.sum(),
+                leakDetector.getLeaks());
+    }
+
+    @Override
+    public void close() {
+
+        closed = true;
+        evictor.shutdownNow();
+        PooledConnection pooledConnection;
+        while ((pooledConnection = idleConnections.pollFirst()) != null)
+            discard(pooledConnection);
+    }
+}
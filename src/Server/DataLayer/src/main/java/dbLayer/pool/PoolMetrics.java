@@ -0,0 +1,30 @@
+package dbLayer.pool;
+
+//Снимок состояния пула подключений
+public record PoolMetrics(int total,
+                          int active,
+                          int idle,
+                          int waiters,
+                          int minSize,
+                          int maxSize,
+                          long acquired,
+                          long timeouts,
+                          long evicted,
+                          double averageWaitMillis,
+                          double maxWaitMillis,
+                          long statementCacheHits,
+                          long statementCacheMisses,
+                          long statementLeaks) {
+
+    //хранилище без пула подключений
+    public static final PoolMetrics EMPTY = new PoolMetrics(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+    @Override
+    public String toString() {
+        return String.format("total=%d, active=%d, idle=%d, waiters=%d, size=%d..%d, acquired=%d, timeouts=%d, " +
+                        "evicted=%d, avgWait=%.2fms, maxWait=%.2fms, statementCache=%d/%d hits, leaks=%d",
+                total, active, idle, waiters, minSize, maxSize, acquired, timeouts, evicted,
+                averageWaitMillis, maxWaitMillis, statementCacheHits, statementCacheHits + statementCacheMisses,
+                statementLeaks);
+    }
+}
@@ -0,0 +1,35 @@
+package dbLayer.pool;
+
+import java.util.Properties;
+
+//Параметры пула подключений (из dbLayer/config.properties)
+public record PoolSettings(String url,
+                           String userName,
+                           String password,
+                           int minSize,
+                           int maxSize,
+                           long acquireTimeoutMillis,
+                           long idleTimeoutMillis,
+                           long validateAfterIdleMillis,
+                           int validationTimeoutSeconds,
+                           long evictionIntervalMillis,
+                           int statementCacheSize,
+                           long statementLeakThresholdMillis) {
+
+    public static PoolSettings fromProperties(Properties properties) {
+
+        return new PoolSettings(
+                properties.getProperty("dbServerConnectionString") + properties.getProperty("dbName"),
+                properties.getProperty("userName"),
+                properties.getProperty("password"),
+                Integer.parseInt(properties.getProperty("poolMinSize", "2").trim()),
+                Integer.parseInt(properties.getProperty("poolMaxSize", "20").trim()),
+                Long.parseLong(properties.getProperty("poolAcquireTimeoutMs", "5000").trim()),
+                Long.parseLong(properties.getProperty("poolIdleTimeoutMs", "300000").trim()),
+                Long.parseLong(properties.getProperty("poolValidateAfterIdleMs", "5000").trim()),
+                Integer.parseInt(properties.getProperty("poolValidationTimeoutSec", "2").trim()),
+                Long.parseLong(properties.getProperty("poolEvictionIntervalMs", "30000").trim()),
+                Integer.parseInt(properties.getProperty("statementCacheSize", "64").trim()),
+                Long.parseLong(properties.getProperty("statementLeakThresholdMs", "0").trim()));
+    }
+}
@@ -0,0 +1,57 @@
+package dbLayer.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+//Физическое подключение, которым владеет пул
+class PooledConnection {
+
+    private final Connection connection;
+
+    private final StatementCache statementCache;
+
+    private volatile long lastReleasedAt;
+
+    private volatile boolean broken;
+
+    PooledConnection(Connection connection, StatementCache statementCache) {
+        this.connection = connection;
+        this.statementCache = statementCache;
+        lastReleasedAt = System.nanoTime();
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    StatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    long getIdleNanos() {
+        return System.nanoTime() - lastReleasedAt;
+    }
+
+    void markReleased() {
+        lastReleasedAt = System.nanoTime();
+    }
+
+    boolean isBroken() {
+        return broken;
+    }
+
+    //Ошибки класса 08 (connection exception) означают, что подключение больше не пригодно
+    void checkError(SQLException exception) {
+        var sqlState = exception.getSQLState();
+        if (sqlState != null && sqlState.startsWith("08"))
+            broken = true;
+    }
+
+    void closeQuietly() {
+        statementCache.close();
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
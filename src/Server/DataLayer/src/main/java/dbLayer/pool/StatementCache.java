@@ -0,0 +1,86 @@
+package dbLayer.pool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+//Кэш подготовленных запросов одного физического подключения (LRU).
+//Запрос, выданный репозиторию, на это время убирается из кэша, поэтому один и тот же
+//PreparedStatement никогда не используется двумя вызовами одновременно
+class StatementCache {
+
+    private final Connection connection;
+
+    private final int maxSize;
+
+    private final LongAdder hits;
+
+    private final LongAdder misses;
+
+    private final Map<StatementKey, PreparedStatement> statements;
+
+    StatementCache(Connection connection, int maxSize, LongAdder hits, LongAdder misses) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StatementKey, PreparedStatement> eldest) {
+                if (size() <= StatementCache.this.maxSize) return false;
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    synchronized PreparedStatement take(StatementKey key) throws SQLException {
+
+        var statement = statements.remove(key);
+        if (statement != null && !statement.isClosed()) {
+            hits.increment();
+            return statement;
+        }
+        misses.increment();
+        return prepare(key);
+    }
+
+    private PreparedStatement prepare(StatementKey key) throws SQLException {
+
+        if (key.autoGeneratedKeys() != Statement.NO_GENERATED_KEYS)
+            return connection.prepareStatement(key.sql(), key.autoGeneratedKeys());
+        return connection.prepareStatement(key.sql(), key.resultSetType(), key.resultSetConcurrency());
+    }
+
+    //Возврат запроса после логического закрытия
+    synchronized void giveBack(StatementKey key, PreparedStatement statement) {
+
+        try {
+            if (maxSize <= 0 || statement.isClosed() || statements.containsKey(key)) {
+                closeQuietly(statement);
+                return;
+            }
+            statement.clearParameters();
+            statements.put(key, statement);
+        } catch (SQLException e) {
+            closeQuietly(statement);
+        }
+    }
+
+    synchronized void close() {
+        for (var statement : statements.values())
+            closeQuietly(statement);
+        statements.clear();
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
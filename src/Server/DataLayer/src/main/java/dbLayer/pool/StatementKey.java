@@ -0,0 +1,21 @@
+package dbLayer.pool;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+//Ключ кэша подготовленных запросов: текст SQL и параметры создания запроса
+record StatementKey(String sql, int resultSetType, int resultSetConcurrency, int autoGeneratedKeys) {
+
+    static StatementKey of(String sql) {
+        return new StatementKey(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY,
+                Statement.NO_GENERATED_KEYS);
+    }
+
+    static StatementKey of(String sql, int autoGeneratedKeys) {
+        return new StatementKey(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, autoGeneratedKeys);
+    }
+
+    static StatementKey of(String sql, int resultSetType, int resultSetConcurrency) {
+        return new StatementKey(sql, resultSetType, resultSetConcurrency, Statement.NO_GENERATED_KEYS);
+    }
+}
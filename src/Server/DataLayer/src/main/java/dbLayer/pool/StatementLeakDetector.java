@@ -0,0 +1,67 @@
+package dbLayer.pool;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+//Поиск запросов, которые слишком долго не закрываются.
+//Включается параметром statementLeakThresholdMs > 0; место открытия запроса запоминается стеком вызовов
+class StatementLeakDetector {
+
+    private final long thresholdNanos;
+
+    private final Map<Object, OpenStatement> openStatements = new ConcurrentHashMap<>();
+
+    private final LongAdder leaks = new LongAdder();
+
+    private static final class OpenStatement {
+        final String sql;
+        final String threadName;
+        final long openedAt = System.nanoTime();
+        final Throwable openedBy = new Throwable("Statement opened here");
+        volatile boolean reported;
+
+        OpenStatement(String sql) {
+            this.sql = sql;
+            threadName = Thread.currentThread().getName();
+        }
+    }
+
+    StatementLeakDetector(long thresholdMillis) {
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    boolean isEnabled() {
+        return thresholdNanos > 0;
+    }
+
+    void opened(Object statement, String sql) {
+        if (isEnabled())
+            openStatements.put(statement, new OpenStatement(sql));
+    }
+
+    void closed(Object statement) {
+        if (isEnabled())
+            openStatements.remove(statement);
+    }
+
+    //Вызывается фоновой задачей пула
+    void detect() {
+
+        long now = System.nanoTime();
+        for (var openStatement : openStatements.values()) {
+            long openNanos = now - openStatement.openedAt;
+            if (openStatement.reported || openNanos < thresholdNanos) continue;
+            openStatement.reported = true;
+            leaks.increment();
+            System.out.println("Possible statement leak: open for " + TimeUnit.NANOSECONDS.toMillis(openNanos) +
+                    " ms in thread '" + openStatement.threadName + "': " + openStatement.sql);
+            openStatement.openedBy.printStackTrace(System.out);
+        }
+    }
+
+    long getLeaks() {
+        return leaks.sum();
+    }
+}
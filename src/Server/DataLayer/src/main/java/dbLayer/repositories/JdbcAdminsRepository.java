@@ -0,0 +1,188 @@
+package dbLayer.repositories;
+
+import dbLayer.cache.LoginIndex;
+import entities.Admin;
+import enums.UserType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+//Реализация на MySQL (JDBC)
+public class JdbcAdminsRepository implements AdminsRepository {
+
+    private final Connection dbConnection;
+
+    //null - логины никуда не добавляются
+    private final LoginIndex loginIndex;
+
+    public JdbcAdminsRepository(Connection dbConnection) {
+        this(dbConnection, null);
+    }
+
+    public JdbcAdminsRepository(Connection dbConnection, LoginIndex loginIndex) {
+        this.dbConnection = dbConnection;
+        this.loginIndex = loginIndex;
+    }
+
+    //логин добавляется в индекс только после успешного изменения таблицы
+    private void addLogin(String login) {
+        if (loginIndex != null)
+            loginIndex.add(login, UserType.ADMIN);
+    }
+
+
+    //Этот метод преобразует единственную строку ResultSet в объект типа Admin.
+    //Если строка существует, метод использует ее для создания и заполнения объекта Admin
+    // Если ResultSet не содержит строк, метод возвращает новый экземпляр Admin.
+    private Admin convertResultSetToSingleObj(ResultSet resultSet) throws SQLException {
+
+        resultSet.beforeFirst();
+        if (!resultSet.next())
+            return new Admin();
+        return convertResultSetToObj(resultSet);
+    }
+
+
+    //ResultSet представляет таблицу данных, полученную из базы данных,
+    // когда выполнен запрос к ней.
+
+    //В этом методе каждое поле из ResultSet извлекается по имени столбца и устанавливается в соответствующее поле объекта Admin.
+    // Затем созданный объект Admin возвращается.
+    // Если в ResultSet нет строк, то возвращается пустой объект Admin.
+    private Admin convertResultSetToObj(ResultSet resultSet) throws SQLException {
+
+        var obj = new Admin();
+        obj.setId(resultSet.getInt("id"));
+        obj.setLogin(resultSet.getString("login"));
+        obj.setPassword(resultSet.getString("password"));
+        return obj;
+    }
+
+    private List<Admin> convertResultSetToList(ResultSet resultSet) throws SQLException {
+
+        var list = new ArrayList<Admin>(); //создание нового ArrayList для хранения объектов Admin
+        resultSet.beforeFirst();// для перемещения курсора на первую строку, если он уже был перемещен
+        while (resultSet.next()) { //перемещается курсор и добавляется объект admin в список
+            list.add(convertResultSetToObj(resultSet));
+        }
+        return list;
+    }
+
+    //id новой строки берется из ответа на INSERT (а не отдельным SELECT MAX(id),
+    //который при одновременных вставках может вернуть чужой id)
+    private int getGeneratedId(PreparedStatement insertStatement) throws SQLException {
+
+        try (var generatedKeys = insertStatement.getGeneratedKeys()) {
+            if (!generatedKeys.next())
+                throw new SQLException("INSERT INTO admins did not return a generated id");
+            return generatedKeys.getInt(1);
+        }
+    }
+
+    public int create(Admin obj) throws SQLException {
+
+        try (var insertStatement = dbConnection.prepareStatement(
+                "INSERT INTO admins (login, password) " +
+                        "values (?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+
+            insertStatement.setString(1, obj.getLogin());
+            insertStatement.setString(2, obj.getPassword());
+            insertStatement.executeUpdate();//выполнение запроса на вставку новой записи в таблицу admins
+            int id = getGeneratedId(insertStatement);
+            addLogin(obj.getLogin());
+            return id;
+        }
+    }
+
+    public void update(Admin obj) throws SQLException {
+
+        try (var updateStatement = dbConnection.prepareStatement(
+                "UPDATE admins SET login=?, password=?  where id = ?")) {
+            updateStatement.setString(1, obj.getLogin());
+            updateStatement.setString(2, obj.getPassword());
+            updateStatement.setInt(3, obj.getId());
+            updateStatement.executeUpdate();
+            addLogin(obj.getLogin());
+        }
+    }
+
+    public void delete(int id) throws SQLException {
+
+        try (var deleteStatement = dbConnection.prepareStatement(
+                "DELETE from admins where id=?")) {
+            deleteStatement.setInt(1, id);
+            deleteStatement.executeUpdate();
+        }
+    }
+
+    public Admin getById(int id) throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                "SELECT * FROM admins where id = ?;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setInt(1, id);//устанавливается значение параметра в запросе
+            try (var resultSet = statement.executeQuery()) { //выполняет запрос на выборку записи из таблицы "admins"
+                return convertResultSetToSingleObj(resultSet);//Метод "convertResultSetToSingleObj" преобразует первую строку
+                // ResultSet в объект "Admin" и возвращает его
+            }
+        }
+    }
+
+
+    //получает запись из таблицы "admins" по заданным логину и паролю и возвращает объект "Admin" соответствующий этой записи.
+    public Admin get(String login, String password) throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                "SELECT * FROM admins where login = ? AND password = ?;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setString(1, login);
+            statement.setString(2, password);
+            try (var resultSet = statement.executeQuery()) {
+                return convertResultSetToSingleObj(resultSet);
+            }
+        }
+    }
+
+    public Admin get(String login) throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                "SELECT * FROM admins where login = ?;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setString(1, login);
+            try (var resultSet = statement.executeQuery()) {
+                return convertResultSetToSingleObj(resultSet);
+            }
+        }
+    }
+
+    public List<String> getAllLogins() throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement("SELECT login FROM admins;");
+             var resultSet = statement.executeQuery()) {
+            var list = new ArrayList<String>();
+            while (resultSet.next())
+                list.add(resultSet.getString(1));
+            return list;
+        }
+    }
+
+    //выбирает все записи из таблицы admin
+    public List<Admin> getAll() throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                "SELECT * FROM admins;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            try (var resultSet = statement.executeQuery()) {
+                return convertResultSetToList(resultSet);
+            }
+        }
+    }
+
+
+}
@@ -0,0 +1,214 @@
+package dbLayer.repositories;
+
+import Commands.Page;
+import Commands.PageRequest;
+import dbLayer.cache.LoginIndex;
+import entities.User;
+import entities.Status;
+import enums.UserType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+//Реализация на MySQL (JDBC)
+public class JdbcClientsRepository implements ClientsRepository {
+    private final Connection dbConnection;
+
+    //null - логины никуда не добавляются
+    private final LoginIndex loginIndex;
+
+    public JdbcClientsRepository(Connection dbConnection) {
+        this(dbConnection, null);
+    }
+
+    public JdbcClientsRepository(Connection dbConnection, LoginIndex loginIndex) {
+        this.dbConnection = dbConnection;
+        this.loginIndex = loginIndex;
+    }
+
+    //логин добавляется в индекс только после успешного изменения таблицы
+    private void addLogin(String login) {
+        if (loginIndex != null)
+            loginIndex.add(login, UserType.USER);
+    }
+
+
+    //Этот метод преобразует единственную строку ResultSet в объект типа User.
+    //Если строка существует, метод использует ее для создания и заполнения объекта Admin
+    // Если ResultSet не содержит строк, метод возвращает новый экземпляр User.
+    private User convertResultSetToSingleObj(ResultSet resultSet) throws SQLException {
+
+        resultSet.beforeFirst();
+        if (!resultSet.next()) return new User();
+        return convertResultSetToObj(resultSet);
+    }
+
+
+    //преобразует объект ResultSet в объект типа "User"
+    private User convertResultSetToObj(ResultSet resultSet) throws SQLException {
+
+        var obj = new User(); //создается новый объект "User" с помощью конструктора без аргументов
+        obj.setId(resultSet.getInt("id"));// устанавливаются значения столбцов
+        obj.setLogin(resultSet.getString("login"));
+        obj.setPassword(resultSet.getString("password"));
+        obj.setFullName(resultSet.getString("fullName"));
+        obj.setPhone(resultSet.getString("phone"));
+        switch (resultSet.getInt("status")){ // если значение 0, то статус "заблокирован"
+            case 0 -> {
+                obj.setStatus(Status.BANNED);
+            }
+            case 1 -> {
+                obj.setStatus(Status.NOT_BANNED);
+            }
+        }
+        return obj;
+    }
+
+    private List<User> convertResultSetToList(ResultSet resultSet) throws SQLException {
+
+        var list = new ArrayList<User>();//создание нового ArrayList для хранения объектов User
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+
+            list.add(convertResultSetToObj(resultSet));
+        }
+        return list;
+    }
+
+    //id новой строки берется из ответа на INSERT (а не отдельным SELECT MAX(id),
+    //который при одновременных вставках может вернуть чужой id)
+    private int getGeneratedId(PreparedStatement insertStatement) throws SQLException {
+
+        try (var generatedKeys = insertStatement.getGeneratedKeys()) {
+            if (!generatedKeys.next())
+                throw new SQLException("INSERT INTO clients did not return a generated id");
+            return generatedKeys.getInt(1);
+        }
+    }
+
+    public int create(User obj) throws SQLException {
+
+        try (var insertStatement = dbConnection.prepareStatement(
+                "INSERT INTO clients (login, password, fullName, phone, status) " +
+                        "values (?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+
+            insertStatement.setString(1, obj.getLogin());
+            insertStatement.setString(2, obj.getPassword());
+            insertStatement.setString(3, obj.getFullName());
+            insertStatement.setString(4, obj.getPhone());
+            insertStatement.setInt(5, obj.getStatus().ordinal());
+            insertStatement.executeUpdate();
+            int id = getGeneratedId(insertStatement);
+            addLogin(obj.getLogin());
+            return id;
+        }
+    }
+
+    public void update(User obj) throws SQLException {
+
+        try (var updateStatement = dbConnection.prepareStatement(
+                "UPDATE clients SET login=?, password=?, fullName=?, phone=?, status=? where id = ?")) {
+            updateStatement.setString(1, obj.getLogin());
+            updateStatement.setString(2, obj.getPassword());
+            updateStatement.setString(3, obj.getFullName());
+            updateStatement.setString(4, obj.getPhone());
+            updateStatement.setInt(5, obj.getStatus().ordinal());
+            updateStatement.setInt(6, obj.getId());
+            updateStatement.executeUpdate();
+            addLogin(obj.getLogin());
+        }
+    }
+
+    public void delete(int id) throws SQLException {
+
+        try (var deleteStatement = dbConnection.prepareStatement(
+                "DELETE from clients where id=?")) {
+            deleteStatement.setInt(1, id);
+            deleteStatement.executeUpdate();
+        }
+    }
+
+
+    //возвращает объект типа "User" из таблицы "clients" базы данных по указанному идентификатору "id"
+    public User getById(int id) throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                "SELECT * FROM clients where id = ?;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setInt(1, id);
+            try (var resultSet = statement.executeQuery()) {
+                return convertResultSetToSingleObj(resultSet);
+            }
+        }
+    }
+
+    public User get(String login, String password) throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                "SELECT * FROM clients where login = ? AND password = ?;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setString(1, login);
+            statement.setString(2, password);
+            try (var resultSet = statement.executeQuery()) {
+                return convertResultSetToSingleObj(resultSet);
+            }
+        }
+    }
+
+    public User get(String login) throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                "SELECT * FROM clients where login = ?;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setString(1, login);
+            try (var resultSet = statement.executeQuery()) {
+                return convertResultSetToSingleObj(resultSet);
+            }
+        }
+    }
+
+
+    public List<String> getAllLogins() throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement("SELECT login FROM clients;");
+             var resultSet = statement.executeQuery()) {
+            var list = new ArrayList<String>();
+            while (resultSet.next())
+                list.add(resultSet.getString(1));
+            return list;
+        }
+    }
+
+    //выбирает все записи из таблицы clients
+    public List<User> getAll() throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                "SELECT * FROM clients;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            try (var resultSet = statement.executeQuery()) {
+                return convertResultSetToList(resultSet);
+            }
+        }
+    }
+
+    //Страница по id: строки с id больше ключа запроса
+    public Page<User> getPage(PageRequest pageRequest) throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                "SELECT * FROM clients WHERE id > ? ORDER BY id LIMIT ?;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setInt(1, pageRequest.getAfterId());
+            statement.setInt(2, pageRequest.getPageSize() + 1);
+            try (var resultSet = statement.executeQuery()) {
+                return Pages.of(convertResultSetToList(resultSet), pageRequest,
+                        last -> new PageRequest(pageRequest.getPageSize(), last.getId(), null));
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package dbLayer.repositories;
+
+import Commands.Page;
+import Commands.PageRequest;
+import dbLayer.cache.LoginIndex;
+import entities.Master;
+import entities.Status;
+import enums.UserType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+//Реализация на MySQL (JDBC)
+public class JdbcMastersRepository implements MastersRepository {
+
+    private final Connection dbConnection;
+
+    //null - логины никуда не добавляются
+    private final LoginIndex loginIndex;
+
+    public JdbcMastersRepository(Connection dbConnection) {
+        this(dbConnection, null);
+    }
+
+    public JdbcMastersRepository(Connection dbConnection, LoginIndex loginIndex) {
+        this.dbConnection = dbConnection;
+        this.loginIndex = loginIndex;
+    }
+
+    //логин добавляется в индекс только после успешного изменения таблицы
+    private void addLogin(String login) {
+        if (loginIndex != null)
+            loginIndex.add(login, UserType.MASTER);
+    }
+
+    private Master convertResultSetToSingleObj(ResultSet resultSet) throws SQLException {
+
+        resultSet.beforeFirst();
+        if (!resultSet.next()) return new Master();
+        return convertResultSetToObj(resultSet);
+    }
+
+    private Master convertResultSetToObj(ResultSet resultSet) throws SQLException {
+
+        var obj = new Master();
+        obj.setId(resultSet.getInt("id"));
+        obj.setLogin(resultSet.getString("login"));
+        obj.setPassword(resultSet.getString("password"));
+        obj.setFullName(resultSet.getString("fullName"));
+        obj.setExperience(resultSet.getInt("experience"));
+        switch (resultSet.getInt("status")){
+            case 0 -> {
+                obj.setStatus(Status.BANNED);
+            }
+            case 1 -> {
+                obj.setStatus(Status.NOT_BANNED);
+            }
+        }
+        return obj;
+    }
+
+    private List<Master> convertResultSetToList(ResultSet resultSet) throws SQLException {
+
+        var list = new ArrayList<Master>();
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+
+            list.add(convertResultSetToObj(resultSet)); //добавляется объект admin в список
+        }
+        return list;
+    }
+
+    //id новой строки берется из ответа на INSERT (а не отдельным SELECT MAX(id),
+    //который при одновременных вставках может вернуть чужой id)
+    private int getGeneratedId(PreparedStatement insertStatement) throws SQLException {
+
+        try (var generatedKeys = insertStatement.getGeneratedKeys()) {
+            if (!generatedKeys.next())
+                throw new SQLException("INSERT INTO masters did not return a generated id");
+            return generatedKeys.getInt(1);
+        }
+    }
+
+    public int create(Master obj) throws SQLException {
+
+        try (var insertStatement = dbConnection.prepareStatement(
+                "INSERT INTO masters (login, password, fullName, experience, status) " +
+                        "values (?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+
+            insertStatement.setString(1, obj.getLogin());
+            insertStatement.setString(2, obj.getPassword());
+            insertStatement.setString(3, obj.getFullName());
+            insertStatement.setInt(4, obj.getExperience());
+            insertStatement.setInt(5, obj.getStatus().ordinal());
+            insertStatement.executeUpdate();
+            int id = getGeneratedId(insertStatement);
+            addLogin(obj.getLogin());
+            return id;
+        }
+    }
+
+    public void update(Master obj) throws SQLException {
+
+        try (var updateStatement = dbConnection.prepareStatement(
+                "UPDATE masters SET login=?, password=?, fullName=?, experience=?, status=? where id = ?")) {
+            updateStatement.setString(1, obj.getLogin());
+            updateStatement.setString(2, obj.getPassword());
+            updateStatement.setString(3, obj.getFullName());
+            updateStatement.setInt(4, obj.getExperience());
+            updateStatement.setInt(5, obj.getStatus().ordinal());
+            updateStatement.setInt(6, obj.getId());
+            updateStatement.executeUpdate();
+            addLogin(obj.getLogin());
+        }
+    }
+
+    public void delete(int id) throws SQLException {
+
+        try (var deleteStatement = dbConnection.prepareStatement(
+                "DELETE from masters where id=?")) {
+            deleteStatement.setInt(1, id);
+            deleteStatement.executeUpdate();
+        }
+    }
+
+    public Master getById(int id) throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                "SELECT * FROM masters where id = ?;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setInt(1, id);
+            try (var resultSet = statement.executeQuery()) {
+                return convertResultSetToSingleObj(resultSet);
+            }
+        }
+    }
+
+    //получает запись из таблицы "masters" по заданным логину и паролю и возвращает объект "Master" соответствующий этой записи
+    public Master get(String login, String password) throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                "SELECT * FROM masters where login = ? AND password = ?;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setString(1, login);
+            statement.setString(2, password);
+            try (var resultSet = statement.executeQuery()) {
+                return convertResultSetToSingleObj(resultSet);
+            }
+        }
+    }
+
+    public Master get(String login) throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                "SELECT * FROM masters where login = ?;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setString(1, login);
+            try (var resultSet = statement.executeQuery()) {
+                return convertResultSetToSingleObj(resultSet);
+            }
+        }
+    }
+
+    public List<String> getAllLogins() throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement("SELECT login FROM masters;");
+             var resultSet = statement.executeQuery()) {
+            var list = new ArrayList<String>();
+            while (resultSet.next())
+                list.add(resultSet.getString(1));
+            return list;
+        }
+    }
+
+    public List<Master> getAll() throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                "SELECT * FROM masters;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            try (var resultSet = statement.executeQuery()) {
+                return convertResultSetToList(resultSet);
+            }
+        }
+    }
+
+    //Страница по id: строки с id больше ключа запроса
+    public Page<Master> getPage(PageRequest pageRequest) throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                "SELECT * FROM masters WHERE id > ? ORDER BY id LIMIT ?;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setInt(1, pageRequest.getAfterId());
+            statement.setInt(2, pageRequest.getPageSize() + 1);
+            try (var resultSet = statement.executeQuery()) {
+                return Pages.of(convertResultSetToList(resultSet), pageRequest,
+                        last -> new PageRequest(pageRequest.getPageSize(), last.getId(), null));
+            }
+        }
+    }
+}
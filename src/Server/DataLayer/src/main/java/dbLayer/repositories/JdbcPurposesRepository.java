@@ -0,0 +1,150 @@
+package dbLayer.repositories;
+
+import dbLayer.cache.PurposeCache;
+import entities.Master;
+import entities.Purpose;
+import entities.Status;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+//Реализация на MySQL (JDBC)
+public class JdbcPurposesRepository implements PurposesRepository {
+
+    private final Connection dbConnection;
+
+    //null - чтение всегда из БД
+    private final PurposeCache purposeCache;
+
+    public JdbcPurposesRepository(Connection dbConnection) {
+        this(dbConnection, null);
+    }
+
+    public JdbcPurposesRepository(Connection dbConnection, PurposeCache purposeCache) {
+        this.dbConnection = dbConnection;
+        this.purposeCache = purposeCache;
+    }
+
+    //после изменения таблицы кэш сбрасывается (даже если запрос завершился ошибкой)
+    private void invalidateCache() {
+        if (purposeCache != null)
+            purposeCache.invalidate();
+    }
+
+    private Purpose convertResultSetToSingleObj(ResultSet resultSet) throws SQLException {
+
+        resultSet.beforeFirst();
+        if (!resultSet.next()) return new Purpose();
+        return convertResultSetToObj(resultSet);
+    }
+
+    private Purpose convertResultSetToObj(ResultSet resultSet) throws SQLException {
+
+        var obj = new Purpose();
+        obj.setId(resultSet.getInt("id"));
+        obj.setName(resultSet.getString("name"));
+        obj.setCost(resultSet.getFloat("cost"));
+        return obj;
+    }
+
+    private List<Purpose> convertResultSetToList(ResultSet resultSet) throws SQLException {
+
+        var list = new ArrayList<Purpose>();
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+
+            list.add(convertResultSetToObj(resultSet));
+        }
+        return list;
+    }
+
+    //id новой строки берется из ответа на INSERT (а не отдельным SELECT MAX(id),
+    //который при одновременных вставках может вернуть чужой id)
+    private int getGeneratedId(PreparedStatement insertStatement) throws SQLException {
+
+        try (var generatedKeys = insertStatement.getGeneratedKeys()) {
+            if (!generatedKeys.next())
+                throw new SQLException("INSERT INTO purposes did not return a generated id");
+            return generatedKeys.getInt(1);
+        }
+    }
+
+    public int create(Purpose obj) throws SQLException {
+
+        try (var insertStatement = dbConnection.prepareStatement(
+                "INSERT INTO purposes (name, cost) " +
+                        "values (?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+
+            insertStatement.setString(1, obj.getName());
+            insertStatement.setFloat(2, obj.getCost());
+            insertStatement.executeUpdate();
+            return getGeneratedId(insertStatement);
+        } finally {
+            invalidateCache();
+        }
+    }
+
+    public void update(Purpose obj) throws SQLException {
+
+        try (var updateStatement = dbConnection.prepareStatement(
+                "UPDATE purposes SET name=?, cost=? where id = ?")) {
+            updateStatement.setString(1, obj.getName());
+            updateStatement.setFloat(2, obj.getCost());
+            updateStatement.setInt(3, obj.getId());
+            updateStatement.executeUpdate();
+        } finally {
+            invalidateCache();
+        }
+    }
+
+    public void delete(int id) throws SQLException {
+
+        try (var deleteStatement = dbConnection.prepareStatement(
+                "DELETE from purposes where id=?")) {
+            deleteStatement.setInt(1, id);
+            deleteStatement.executeUpdate();
+        } finally {
+            invalidateCache();
+        }
+    }
+
+    public Purpose getById(int id) throws SQLException {
+
+        if (purposeCache != null) {
+            var purpose = purposeCache.getById(id, this::loadAll);
+            return purpose != null ? purpose : new Purpose();
+        }
+        try (var statement = dbConnection.prepareStatement(
+                "SELECT * FROM purposes where id = ?;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setInt(1, id);
+            try (var resultSet = statement.executeQuery()) {
+                return convertResultSetToSingleObj(resultSet);
+            }
+        }
+    }
+
+    public List<Purpose> getAll() throws SQLException {
+
+        if (purposeCache != null)
+            return purposeCache.getAll(this::loadAll);
+        return loadAll();
+    }
+
+    private List<Purpose> loadAll() throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                "SELECT * FROM purposes;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            try (var resultSet = statement.executeQuery()) {
+                return convertResultSetToList(resultSet);
+            }
+        }
+    }
+}
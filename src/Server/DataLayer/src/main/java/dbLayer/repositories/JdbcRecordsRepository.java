@@ -0,0 +1,378 @@
+package dbLayer.repositories;
+
+import Commands.Page;
+import Commands.PageRequest;
+import Commands.RecordFilter;
+import entities.Purpose;
+import entities.Record;
+import entities.Status;
+import entities.User;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+//Реализация на MySQL (JDBC)
+public class JdbcRecordsRepository implements RecordsRepository {
+
+    //Записи выбираются одним запросом вместе с клиентом и услугой,
+    //чтобы не делать по два дополнительных запроса на каждую строку
+    private static final String SELECT_RECORDS =
+            "SELECT r.id, r.clearanceDateTime, " +
+                    "c.id AS clientId, c.login AS clientLogin, c.password AS clientPassword, " +
+                    "c.fullName AS clientFullName, c.phone AS clientPhone, c.status AS clientStatus, " +
+                    "p.id AS purposeId, p.name AS purposeName, p.cost AS purposeCost " +
+                    "FROM records r " +
+                    "INNER JOIN clients c ON c.id = r.clientId " +
+                    "INNER JOIN purposes p ON p.id = r.purposeId ";
+
+    private final Connection dbConnection;
+
+    public JdbcRecordsRepository(Connection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
+
+    private Record convertResultSetToSingleObj(ResultSet resultSet) throws SQLException {
+
+        resultSet.beforeFirst();
+        if (!resultSet.next()) return new Record();
+        return convertResultSetToObj(resultSet);
+    }
+
+    //преобразует строку SELECT_RECORDS в запись вместе с клиентом и услугой
+    private Record convertResultSetToObj(ResultSet resultSet) throws SQLException {
+
+        var obj = new Record();
+        obj.setId(resultSet.getInt("id"));
+        obj.setClient(convertResultSetToClient(resultSet));
+        obj.setPurpose(convertResultSetToPurpose(resultSet));
+        Date date = new Date();
+        date.setTime(resultSet.getTimestamp("clearanceDateTime").getTime());
+        obj.setDate(date);
+        return obj;
+    }
+
+    private User convertResultSetToClient(ResultSet resultSet) throws SQLException {
+
+        var client = new User();
+        client.setId(resultSet.getInt("clientId"));
+        client.setLogin(resultSet.getString("clientLogin"));
+        client.setPassword(resultSet.getString("clientPassword"));
+        client.setFullName(resultSet.getString("clientFullName"));
+        client.setPhone(resultSet.getString("clientPhone"));
+        switch (resultSet.getInt("clientStatus")){
+            case 0 -> {
+                client.setStatus(Status.BANNED);
+            }
+            case 1 -> {
+                client.setStatus(Status.NOT_BANNED);
+            }
+        }
+        return client;
+    }
+
+    private Purpose convertResultSetToPurpose(ResultSet resultSet) throws SQLException {
+
+        var purpose = new Purpose();
+        purpose.setId(resultSet.getInt("purposeId"));
+        purpose.setName(resultSet.getString("purposeName"));
+        purpose.setCost(resultSet.getFloat("purposeCost"));
+        return purpose;
+    }
+
+    private List<Record> convertResultSetToList(ResultSet resultSet) throws SQLException {
+
+        var list = new ArrayList<Record>();
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+
+            list.add(convertResultSetToObj(resultSet));
+        }
+        return list;
+    }
+
+    //id новой строки берется из ответа на INSERT (а не отдельным SELECT MAX(id),
+    //который при одновременных вставках может вернуть чужой id)
+    private int getGeneratedId(PreparedStatement insertStatement) throws SQLException {
+
+        try (var generatedKeys = insertStatement.getGeneratedKeys()) {
+            if (!generatedKeys.next())
+                throw new SQLException("INSERT INTO records did not return a generated id");
+            return generatedKeys.getInt(1);
+        }
+    }
+
+    public int create(Record obj) throws SQLException {
+
+        try (var insertStatement = dbConnection.prepareStatement(
+                "INSERT INTO records (purposeId, clientId, clearanceDateTime) " +
+                        "values (?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+
+            insertStatement.setInt(1, obj.getPurpose().getId());
+            insertStatement.setInt(2, obj.getClient().getId());
+            insertStatement.setTimestamp(3, new Timestamp(obj.getDate().getTime()));
+            insertStatement.executeUpdate();
+            return getGeneratedId(insertStatement);
+        }
+    }
+
+    public void update(Record obj) throws SQLException {
+
+        try (var updateStatement = dbConnection.prepareStatement(
+                "UPDATE records SET purposeId=?, clientId=?, clearanceDateTime=? where id = ?")) {
+            updateStatement.setInt(1, obj.getPurpose().getId());
+            updateStatement.setInt(2, obj.getClient().getId());
+            updateStatement.setTimestamp(3, new Timestamp(obj.getDate().getTime()));
+            updateStatement.setInt(4, obj.getId());
+            updateStatement.executeUpdate();
+        }
+    }
+
+    public void delete(int id) throws SQLException {
+
+        try (var deleteStatement = dbConnection.prepareStatement(
+                "DELETE from records where id=?")) {
+            deleteStatement.setInt(1, id);
+            deleteStatement.executeUpdate();
+        }
+    }
+
+    public void deleteAcception(int id) throws SQLException {
+
+        inTransaction(() -> {
+            try (var deleteStatement = dbConnection.prepareStatement(
+                    "DELETE from masters_records where recordId=?")) {
+                deleteStatement.setInt(1, id);
+                deleteStatement.executeUpdate();
+            }
+            try (var updateStatement = dbConnection.prepareStatement(
+                    "UPDATE records SET accepted = FALSE, masterId = NULL where id = ?")) {
+                updateStatement.setInt(1, id);
+                updateStatement.executeUpdate();
+            }
+        });
+    }
+
+    public Record getById(int id) throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                SELECT_RECORDS + "WHERE r.id = ?;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setInt(1, id);
+            try (var resultSet = statement.executeQuery()) {
+                return convertResultSetToSingleObj(resultSet);
+            }
+        }
+    }
+
+    public List<Record> getAll() throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                SELECT_RECORDS + ";",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            try (var resultSet = statement.executeQuery()) {
+                return convertResultSetToList(resultSet);
+            }
+        }
+    }
+
+    public List<Record> getAllNotAccepted() throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                SELECT_RECORDS + "WHERE r.accepted = FALSE;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            try (var resultSet = statement.executeQuery()) {
+                return convertResultSetToList(resultSet);
+            }
+        }
+    }
+
+    public List<Record> getAllAccepted() throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                SELECT_RECORDS + "WHERE r.accepted = TRUE;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            try (var resultSet = statement.executeQuery()) {
+                return convertResultSetToList(resultSet);
+            }
+        }
+    }
+
+    public List<Record> getAllMasterRecords(int masterId) throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                SELECT_RECORDS + "WHERE r.masterId = ?;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setInt(1, masterId);
+            try (var resultSet = statement.executeQuery()) {
+                return convertResultSetToList(resultSet);
+            }
+        }
+    }
+
+    public List<Record> getAllClientRecords(int clientId) throws SQLException {
+
+        try (var statement = dbConnection.prepareStatement(
+                SELECT_RECORDS + "WHERE r.clientId = ? AND r.accepted = TRUE;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setInt(1, clientId);
+            try (var resultSet = statement.executeQuery()) {
+                return convertResultSetToList(resultSet);
+            }
+        }
+    }
+
+    //Запись принимает один мастер: условие accepted = FALSE в UPDATE не дает
+    //двум мастерам одновременно взять одну заявку
+    public void addRecordToMaster(int masterId, int recordId) throws SQLException {
+
+        inTransaction(() -> {
+            try (var updateStatement = dbConnection.prepareStatement(
+                    "UPDATE records SET accepted = TRUE, masterId = ? where id = ? AND accepted = FALSE")) {
+                updateStatement.setInt(1, masterId);
+                updateStatement.setInt(2, recordId);
+                if (updateStatement.executeUpdate() == 0)
+                    throw new SQLException("Record " + recordId + " does not exist or is already accepted");
+            }
+            try (var insertStatement = dbConnection.prepareStatement(
+                    "INSERT INTO masters_records (recordId, masterId) " +
+                            "values (?, ?)")) {
+
+                insertStatement.setInt(1, recordId);
+                insertStatement.setInt(2, masterId);
+                insertStatement.executeUpdate();
+            }
+        });
+    }
+
+    //Если снят мастер, указанный в records, запись переходит к оставшемуся (принятой
+    //несколькими мастерами она может быть только с версии схемы 2) или снова становится непринятой
+    public void deleteRecordFromMaster(int masterId, int recordId) throws SQLException {
+
+        inTransaction(() -> {
+            try (var deleteStatement = dbConnection.prepareStatement(
+                    "delete from masters_records where masterId=? and recordId = ?")) {
+
+                deleteStatement.setInt(1, masterId);
+                deleteStatement.setInt(2, recordId);
+                deleteStatement.executeUpdate();
+            }
+            //SET выполняется слева направо: accepted считается по новому masterId
+            try (var updateStatement = dbConnection.prepareStatement(
+                    "UPDATE records SET masterId = (SELECT MIN(masterId) FROM masters_records WHERE recordId = ?), " +
+                            "accepted = masterId IS NOT NULL where id = ? AND masterId = ?")) {
+                updateStatement.setInt(1, recordId);
+                updateStatement.setInt(2, recordId);
+                updateStatement.setInt(3, masterId);
+                updateStatement.executeUpdate();
+            }
+        });
+    }
+
+    //Изменения masters_records и полей принятия в records фиксируются вместе
+    private void inTransaction(Transaction transaction) throws SQLException {
+
+        boolean autoCommit = dbConnection.getAutoCommit();
+        dbConnection.setAutoCommit(false);
+        try {
+            transaction.run();
+            dbConnection.commit();
+        } catch (SQLException | RuntimeException e) {
+            dbConnection.rollback();
+            throw e;
+        } finally {
+            dbConnection.setAutoCommit(autoCommit);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Transaction {
+        void run() throws SQLException;
+    }
+
+    public Page<Record> getPage(PageRequest pageRequest) throws SQLException {
+        return getPage("TRUE", List.of(), pageRequest);
+    }
+
+    public Page<Record> getAcceptedPage(PageRequest pageRequest) throws SQLException {
+        return getPage("r.accepted = TRUE", List.of(), pageRequest);
+    }
+
+    public Page<Record> getNotAcceptedPage(PageRequest pageRequest) throws SQLException {
+        return getPage("r.accepted = FALSE", List.of(), pageRequest);
+    }
+
+    //Записи, подходящие под фильтр, одним запросом (условия фильтра переводятся в WHERE)
+    public Page<Record> query(RecordFilter filter, PageRequest pageRequest) throws SQLException {
+
+        var conditions = new ArrayList<String>();
+        var parameters = new ArrayList<Object>();
+        if (filter.getCostFrom() != null) {
+            conditions.add("p.cost >= ?");
+            parameters.add(filter.getCostFrom());
+        }
+        if (filter.getCostTo() != null) {
+            conditions.add("p.cost <= ?");
+            parameters.add(filter.getCostTo());
+        }
+        if (filter.getPurposeName() != null) {
+            conditions.add("p.name LIKE ? ESCAPE '!'");
+            parameters.add("%" + filter.getPurposeName().replaceAll("[!%_]", "!$0") + "%");
+        }
+        if (filter.getFrom() != null) {
+            conditions.add("r.clearanceDateTime >= ?");
+            parameters.add(new Timestamp(filter.getFrom().getTime()));
+        }
+        if (filter.getTo() != null) {
+            conditions.add("r.clearanceDateTime < ?");
+            parameters.add(new Timestamp(filter.getTo().getTime()));
+        }
+        if (filter.getClientId() != null) {
+            conditions.add("r.clientId = ?");
+            parameters.add(filter.getClientId());
+        }
+        if (filter.getMasterId() != null) {
+            conditions.add("r.masterId = ?");
+            parameters.add(filter.getMasterId());
+        }
+        switch (filter.getAcceptance()) {
+            case ACCEPTED -> conditions.add("r.accepted = TRUE");
+            case NOT_ACCEPTED -> conditions.add("r.accepted = FALSE");
+        }
+        return getPage(conditions.isEmpty() ? "TRUE" : String.join(" AND ", conditions), parameters, pageRequest);
+    }
+
+    //Страница по (clearanceDateTime, id): строки после ключа запроса, отобранные условием condition
+    private Page<Record> getPage(String condition, List<Object> parameters,
+                                 PageRequest pageRequest) throws SQLException {
+
+        boolean firstPage = pageRequest.getAfterDate() == null;
+        try (var statement = dbConnection.prepareStatement(
+                SELECT_RECORDS + "WHERE " + condition +
+                        (firstPage ? "" : " AND (r.clearanceDateTime > ? OR (r.clearanceDateTime = ? AND r.id > ?))") +
+                        " ORDER BY r.clearanceDateTime, r.id LIMIT ?;",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+            int index = 1;
+            for (var parameter : parameters)
+                statement.setObject(index++, parameter);
+            if (!firstPage) {
+                var afterDate = new Timestamp(pageRequest.getAfterDate().getTime());
+                statement.setTimestamp(index++, afterDate);
+                statement.setTimestamp(index++, afterDate);
+                statement.setInt(index++, pageRequest.getAfterId());
+            }
+            statement.setInt(index, pageRequest.getPageSize() + 1);
+            try (var resultSet = statement.executeQuery()) {
+                return Pages.of(convertResultSetToList(resultSet), pageRequest,
+                        last -> new PageRequest(pageRequest.getPageSize(), last.getId(), last.getDate()));
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package dbLayer.repositories;
+
+import Commands.Page;
+import Commands.PageRequest;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.function.Function;
+
+//Сборка страницы из строк, выбранных с LIMIT pageSize + 1:
+//лишняя строка означает, что есть следующая страница
+public final class Pages {
+
+    private Pages() {
+    }
+
+    public static <T extends Serializable> Page<T> of(List<T> rows, PageRequest pageRequest,
+                                               Function<T, PageRequest> nextPage) {
+
+        int pageSize = pageRequest.getPageSize();
+        if (rows.size() <= pageSize)
+            return new Page<>(rows, null);
+        var items = rows.subList(0, pageSize);
+        return new Page<>(items, nextPage.apply(items.get(pageSize - 1)));
+    }
+}
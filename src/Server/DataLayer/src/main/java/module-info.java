@@ -3,4 +3,8 @@ module DataLayer {
     requires java.sql;
     exports dbLayer.repositories;
     exports dbLayer.managers;
+    exports dbLayer.pool;
+    exports dbLayer.cache;
+    exports dbLayer.memory;
+    exports dbLayer.migrations;
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+-- Страницы записей идут по (clearanceDateTime, id), фильтр QUERY_RECORDS - по диапазону дат.
+-- Вторичный индекс InnoDB и так содержит первичный ключ, поэтому id в индекс не добавляется
+CREATE INDEX IX_records_clearanceDateTime ON records (clearanceDateTime);
+
+-- Записи клиента в порядке даты. Индекс начинается с clientId и заменяет тот,
+-- что InnoDB создал сам для внешнего ключа FK_records_clients
+CREATE INDEX IX_records_client ON records (clientId, clearanceDateTime);
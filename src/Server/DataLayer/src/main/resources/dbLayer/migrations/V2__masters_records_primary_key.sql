@@ -0,0 +1,11 @@
+-- У masters_records не было первичного ключа: одна и та же пара могла встречаться несколько раз.
+-- Сначала удаляются повторы, затем пара (recordId, masterId) становится первичным ключом -
+-- по нему же ищутся мастера записи (IN (SELECT recordId ...), удаление принятия)
+CREATE TEMPORARY TABLE masters_records_distinct AS SELECT DISTINCT recordId, masterId FROM masters_records;
+DELETE FROM masters_records;
+INSERT INTO masters_records (recordId, masterId) SELECT recordId, masterId FROM masters_records_distinct;
+DROP TEMPORARY TABLE masters_records_distinct;
+ALTER TABLE masters_records ADD CONSTRAINT PK_masters_records PRIMARY KEY (recordId, masterId);
+
+-- Записи мастера: покрывающий индекс (masterId, recordId) вместо индекса внешнего ключа FK_records_masters
+CREATE INDEX IX_masters_records_master ON masters_records (masterId, recordId);
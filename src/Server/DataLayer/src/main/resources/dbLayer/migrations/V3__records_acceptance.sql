@@ -0,0 +1,21 @@
+-- Принятие записи хранится в самой records: accepted и мастер, который ее принял.
+-- Списки принятых и непринятых записей, записи клиента и мастера читаются по индексам records
+-- без подзапросов IN / NOT IN по masters_records; masters_records остается для внешних ключей
+ALTER TABLE records ADD COLUMN accepted boolean not null default false, ADD COLUMN masterId int null;
+
+-- Запись, принятую несколькими мастерами до этой версии, получает мастер с меньшим id
+UPDATE records r
+    INNER JOIN (SELECT recordId, MIN(masterId) AS masterId FROM masters_records GROUP BY recordId) mr
+    ON mr.recordId = r.id
+SET r.accepted = TRUE, r.masterId = mr.masterId;
+
+-- Страницы принятых и непринятых записей по (clearanceDateTime, id)
+CREATE INDEX IX_records_accepted ON records (accepted, clearanceDateTime);
+
+-- Принятые записи клиента - один диапазон индекса
+CREATE INDEX IX_records_client_accepted ON records (clientId, accepted, clearanceDateTime);
+
+-- Записи мастера; индекс нужен и внешнему ключу ниже
+CREATE INDEX IX_records_master ON records (masterId, clearanceDateTime);
+
+ALTER TABLE records ADD CONSTRAINT FK_records_accepted_master FOREIGN KEY (masterId) REFERENCES masters (id);
@@ -0,0 +1,165 @@
+package dbLayer.memory;
+
+import Commands.PageRequest;
+import dbLayer.cache.PurposeCache;
+import entities.Master;
+import entities.Purpose;
+import entities.Record;
+import entities.Status;
+import entities.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Ограничения схемы в базе в памяти: те же уникальные ключи, внешние ключи и NOT NULL, что в MySQL
+class MemoryConstraintsTest {
+
+    private MemoryDatabase database;
+
+    private MemoryClientsRepository clients;
+
+    private MemoryMastersRepository masters;
+
+    private MemoryAdminsRepository admins;
+
+    private MemoryPurposesRepository purposes;
+
+    @BeforeEach
+    void setUp() {
+        database = MemoryDatabase.createDefault();
+        clients = new MemoryClientsRepository(database);
+        masters = new MemoryMastersRepository(database);
+        admins = new MemoryAdminsRepository(database);
+        purposes = new MemoryPurposesRepository(database, new PurposeCache());
+    }
+
+    private static User client(String login) {
+        return new User(0, login, "password", "Full name", "+375290000000", Status.NOT_BANNED);
+    }
+
+    @Test
+    void defaultDatabaseHasOnlyAdmin() throws SQLException {
+
+        assertNotEquals(0, admins.get("admin", "admin").getId());
+        assertTrue(clients.getAll().isEmpty());
+        assertTrue(masters.getAll().isEmpty());
+        assertTrue(purposes.getAll().isEmpty());
+    }
+
+    @Test
+    void clientLoginIsUniqueIgnoringCase() throws SQLException {
+
+        int id = clients.create(client("ivan"));
+        assertThrows(SQLIntegrityConstraintViolationException.class, () -> clients.create(client("IVAN")));
+        assertEquals(1, clients.getAll().size());
+
+        //логин можно оставить себе, но не занять чужой
+        int other = clients.create(client("petr"));
+        var renamed = client("Ivan");
+        renamed.setId(other);
+        assertThrows(SQLIntegrityConstraintViolationException.class, () -> clients.update(renamed));
+        var self = client("IVAN");
+        self.setId(id);
+        clients.update(self);
+        assertEquals("IVAN", clients.getById(id).getLogin());
+    }
+
+    @Test
+    void loginIsUniqueOnlyWithinTable() throws SQLException {
+
+        clients.create(client("same"));
+        masters.create(new Master(0, "same", "password", 1, "Master", Status.NOT_BANNED));
+        assertNotEquals(0, clients.get("same").getId());
+        assertNotEquals(0, masters.get("same").getId());
+    }
+
+    @Test
+    void failedInsertDoesNotChangeIds() throws SQLException {
+
+        int first = clients.create(client("first"));
+        assertThrows(SQLIntegrityConstraintViolationException.class, () -> clients.create(client("first")));
+        assertThrows(SQLIntegrityConstraintViolationException.class, () -> clients.create(client(null)));
+        int second = clients.create(client("second"));
+        assertTrue(second > first);
+        assertEquals(List.of("first", "second"), logins(clients.getAll()));
+    }
+
+    @Test
+    void notNullColumnsAreChecked() {
+
+        var noPhone = new User(0, "login", "password", "Full name", null, Status.NOT_BANNED);
+        assertThrows(SQLIntegrityConstraintViolationException.class, () -> clients.create(noPhone));
+        assertThrows(SQLIntegrityConstraintViolationException.class,
+                () -> masters.create(new Master(0, "master", null, 1, "Master", Status.NOT_BANNED)));
+    }
+
+    @Test
+    void purposeNameIsUnique() throws SQLException {
+
+        purposes.create(new Purpose(0, "Haircut", 10f));
+        assertThrows(SQLIntegrityConstraintViolationException.class,
+                () -> purposes.create(new Purpose(0, "haircut", 15f)));
+        assertEquals(1, purposes.getAll().size());
+    }
+
+    @Test
+    void referencedClientAndPurposeAreNotDeleted() throws SQLException {
+
+        int clientId = clients.create(client("client"));
+        int purposeId = purposes.create(new Purpose(0, "Haircut", 10f));
+        var records = new MemoryRecordsRepository(database);
+        int recordId = records.create(new Record(0, purposes.getById(purposeId), clients.getById(clientId),
+                new Date()));
+
+        assertThrows(SQLIntegrityConstraintViolationException.class, () -> clients.delete(clientId));
+        assertThrows(SQLIntegrityConstraintViolationException.class, () -> purposes.delete(purposeId));
+        assertNotEquals(0, clients.getById(clientId).getId());
+        assertNotEquals(0, purposes.getById(purposeId).getId());
+
+        records.delete(recordId);
+        clients.delete(clientId);
+        purposes.delete(purposeId);
+        assertEquals(0, clients.getById(clientId).getId());
+        assertEquals(0, purposes.getById(purposeId).getId());
+    }
+
+    @Test
+    void clientPagesFollowIdAcrossBoundaries() throws SQLException {
+
+        var expected = new ArrayList<String>();
+        for (int i = 0; i < 7; i++) {
+            clients.create(client("client" + i));
+            expected.add("client" + i);
+        }
+        //удаленная строка не оставляет пропуска на границе страниц
+        clients.delete(clients.get("client3").getId());
+        expected.remove("client3");
+
+        var loaded = new ArrayList<String>();
+        PageRequest pageRequest = new PageRequest(3);
+        int pages = 0;
+        while (pageRequest != null) {
+            var page = clients.getPage(pageRequest);
+            loaded.addAll(logins(page.getItems()));
+            pageRequest = page.getNext();
+            pages++;
+        }
+        assertEquals(expected, loaded);
+        assertEquals(2, pages);
+    }
+
+    private static List<String> logins(List<User> users) {
+
+        var logins = new ArrayList<String>();
+        for (var user : users)
+            logins.add(user.getLogin());
+        return logins;
+    }
+}
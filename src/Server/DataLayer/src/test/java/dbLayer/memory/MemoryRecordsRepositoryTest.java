@@ -0,0 +1,262 @@
+package dbLayer.memory;
+
+import Commands.Page;
+import Commands.PageRequest;
+import Commands.RecordFilter;
+import dbLayer.cache.PurposeCache;
+import entities.Master;
+import entities.Purpose;
+import entities.Record;
+import entities.Status;
+import entities.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Контракт RecordsRepository на базе в памяти: страницы по (clearanceDateTime, id) и принятие записей мастерами
+class MemoryRecordsRepositoryTest {
+
+    private static final long BASE_TIME = 1_700_000_000_000L;
+
+    private MemoryDatabase database;
+
+    private MemoryRecordsRepository records;
+
+    private User client;
+
+    private Master master;
+
+    private Master otherMaster;
+
+    private Purpose purpose;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+
+        database = MemoryDatabase.createDefault();
+        records = new MemoryRecordsRepository(database);
+        var clients = new MemoryClientsRepository(database);
+        var masters = new MemoryMastersRepository(database);
+        client = new User(0, "client", "password", "Client", "+375290000000", Status.NOT_BANNED);
+        client.setId(clients.create(client));
+        master = new Master(0, "master", "password", 5, "Master", Status.NOT_BANNED);
+        master.setId(masters.create(master));
+        otherMaster = new Master(0, "other", "password", 1, "Other master", Status.NOT_BANNED);
+        otherMaster.setId(masters.create(otherMaster));
+        purpose = new Purpose(0, "Haircut", 20f);
+        purpose.setId(new MemoryPurposesRepository(database, new PurposeCache()).create(purpose));
+    }
+
+    private int createRecord(int secondsFromBase) throws SQLException {
+        return records.create(new Record(0, purpose, client, new Date(BASE_TIME + secondsFromBase * 1000L)));
+    }
+
+    //Все страницы подряд, как их загружает клиент
+    private List<Integer> readAllPages(int pageSize) throws SQLException {
+
+        var ids = new ArrayList<Integer>();
+        PageRequest pageRequest = new PageRequest(pageSize);
+        while (pageRequest != null) {
+            Page<Record> page = records.getPage(pageRequest);
+            assertTrue(page.getItems().size() <= pageRequest.getPageSize());
+            for (var record : page.getItems())
+                ids.add(record.getId());
+            pageRequest = page.getNext();
+        }
+        return ids;
+    }
+
+    @Test
+    void emptyTableIsOneEmptyLastPage() throws SQLException {
+
+        var page = records.getPage(new PageRequest(10));
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNext());
+    }
+
+    @Test
+    void fullPageWithoutMoreRowsIsLast() throws SQLException {
+
+        for (int i = 0; i < 5; i++)
+            createRecord(i);
+        var page = records.getPage(new PageRequest(5));
+        assertEquals(5, page.getItems().size());
+        assertNull(page.getNext());
+    }
+
+    @Test
+    void oneRowMoreThanPageGivesSecondPage() throws SQLException {
+
+        for (int i = 0; i < 6; i++)
+            createRecord(i);
+        var first = records.getPage(new PageRequest(5));
+        assertEquals(5, first.getItems().size());
+        assertNotNull(first.getNext());
+        var second = records.getPage(first.getNext());
+        assertEquals(1, second.getItems().size());
+        assertNull(second.getNext());
+    }
+
+    @Test
+    void pagesFollowDateThenIdWithoutGapsOrRepeats() throws SQLException {
+
+        //созданы не по порядку дат; у трех записей одна и та же секунда - порядок внутри нее по id
+        var expected = new ArrayList<Integer>();
+        int late = createRecord(100);
+        int a = createRecord(50);
+        int b = createRecord(50);
+        int c = createRecord(50);
+        int early = createRecord(10);
+        expected.add(early);
+        expected.add(a);
+        expected.add(b);
+        expected.add(c);
+        expected.add(late);
+
+        assertEquals(expected, readAllPages(1));
+        assertEquals(expected, readAllPages(2));
+        assertEquals(expected, readAllPages(5));
+        assertEquals(expected, readAllPages(PageRequest.MAX_PAGE_SIZE));
+    }
+
+    @Test
+    void pageSizeIsClampedToLimits() throws SQLException {
+
+        for (int i = 0; i < PageRequest.MAX_PAGE_SIZE + 1; i++)
+            createRecord(i);
+        assertEquals(1, records.getPage(new PageRequest(0)).getItems().size());
+        var largest = records.getPage(new PageRequest(PageRequest.MAX_PAGE_SIZE * 10));
+        assertEquals(PageRequest.MAX_PAGE_SIZE, largest.getItems().size());
+        assertNotNull(largest.getNext());
+    }
+
+    @Test
+    void dateIsStoredWithSecondPrecision() throws SQLException {
+
+        int id = records.create(new Record(0, purpose, client, new Date(BASE_TIME + 1_600)));
+        assertEquals(BASE_TIME + 2_000, records.getById(id).getDate().getTime());
+    }
+
+    @Test
+    void acceptingMovesRecordBetweenLists() throws SQLException {
+
+        int id = createRecord(0);
+        int other = createRecord(1);
+        records.addRecordToMaster(master.getId(), id);
+
+        assertEquals(List.of(id), ids(records.getAllAccepted()));
+        assertEquals(List.of(other), ids(records.getAllNotAccepted()));
+        assertEquals(List.of(id), ids(records.getAcceptedPage(new PageRequest()).getItems()));
+        assertEquals(List.of(other), ids(records.getNotAcceptedPage(new PageRequest()).getItems()));
+        assertEquals(List.of(id), ids(records.getAllMasterRecords(master.getId())));
+        assertEquals(List.of(id), ids(records.getAllClientRecords(client.getId())));
+        assertTrue(records.getAllMasterRecords(otherMaster.getId()).isEmpty());
+    }
+
+    @Test
+    void acceptedRecordIsNotAcceptedAgain() throws SQLException {
+
+        int id = createRecord(0);
+        records.addRecordToMaster(master.getId(), id);
+        assertThrows(SQLException.class, () -> records.addRecordToMaster(otherMaster.getId(), id));
+        assertThrows(SQLException.class, () -> records.addRecordToMaster(master.getId(), id));
+        assertEquals(List.of(id), ids(records.getAllMasterRecords(master.getId())));
+    }
+
+    @Test
+    void removingMasterReturnsRecordToRequests() throws SQLException {
+
+        int id = createRecord(0);
+        records.addRecordToMaster(master.getId(), id);
+        records.deleteRecordFromMaster(master.getId(), id);
+
+        assertTrue(records.getAllAccepted().isEmpty());
+        assertEquals(List.of(id), ids(records.getAllNotAccepted()));
+        assertTrue(records.getAllMasterRecords(master.getId()).isEmpty());
+        assertTrue(records.getAllClientRecords(client.getId()).isEmpty());
+        //снова можно принять
+        records.addRecordToMaster(otherMaster.getId(), id);
+        assertEquals(List.of(id), ids(records.getAllMasterRecords(otherMaster.getId())));
+    }
+
+    @Test
+    void deleteAcceptionReturnsRecordToRequests() throws SQLException {
+
+        int id = createRecord(0);
+        records.addRecordToMaster(master.getId(), id);
+        records.deleteAcception(id);
+
+        assertEquals(List.of(id), ids(records.getAllNotAccepted()));
+        assertTrue(records.getAllMasterRecords(master.getId()).isEmpty());
+        var filter = new RecordFilter();
+        filter.setMasterId(master.getId());
+        assertTrue(records.query(filter, new PageRequest()).getItems().isEmpty());
+    }
+
+    @Test
+    void queryFiltersByAcceptanceAndMaster() throws SQLException {
+
+        int accepted = createRecord(0);
+        int request = createRecord(1);
+        records.addRecordToMaster(master.getId(), accepted);
+
+        var filter = new RecordFilter();
+        filter.setAcceptance(RecordFilter.Acceptance.NOT_ACCEPTED);
+        assertEquals(List.of(request), ids(records.query(filter, new PageRequest()).getItems()));
+        filter.setAcceptance(RecordFilter.Acceptance.ACCEPTED);
+        assertEquals(List.of(accepted), ids(records.query(filter, new PageRequest()).getItems()));
+        filter.setAcceptance(RecordFilter.Acceptance.ANY);
+        filter.setMasterId(master.getId());
+        assertEquals(List.of(accepted), ids(records.query(filter, new PageRequest()).getItems()));
+    }
+
+    @Test
+    void acceptedRecordAndItsMasterAreNotDeleted() throws SQLException {
+
+        int id = createRecord(0);
+        records.addRecordToMaster(master.getId(), id);
+        assertThrows(SQLIntegrityConstraintViolationException.class, () -> records.delete(id));
+        var masters = new MemoryMastersRepository(database);
+        assertThrows(SQLIntegrityConstraintViolationException.class, () -> masters.delete(master.getId()));
+
+        records.deleteAcception(id);
+        records.delete(id);
+        assertEquals(0, records.getById(id).getId());
+        masters.delete(master.getId());
+        assertEquals(0, masters.getById(master.getId()).getId());
+    }
+
+    @Test
+    void recordNeedsExistingClientPurposeAndMaster() throws SQLException {
+
+        var missingClient = new User(999, "ghost", "password", "Ghost", "0", Status.NOT_BANNED);
+        var missingPurpose = new Purpose(999, "Ghost", 1f);
+        var date = new Date(BASE_TIME);
+        assertThrows(SQLIntegrityConstraintViolationException.class,
+                () -> records.create(new Record(0, purpose, missingClient, date)));
+        assertThrows(SQLIntegrityConstraintViolationException.class,
+                () -> records.create(new Record(0, missingPurpose, client, date)));
+        assertThrows(SQLIntegrityConstraintViolationException.class,
+                () -> records.create(new Record(0, purpose, client, null)));
+        assertTrue(records.getAll().isEmpty());
+
+        int id = createRecord(0);
+        assertThrows(SQLIntegrityConstraintViolationException.class, () -> records.addRecordToMaster(999, id));
+        assertTrue(records.getAllAccepted().isEmpty());
+    }
+
+    private static List<Integer> ids(List<Record> list) {
+
+        var ids = new ArrayList<Integer>();
+        for (var record : list)
+            ids.add(record.getId());
+        return ids;
+    }
+}
@@ -0,0 +1,107 @@
+package dbLayer.migrations;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigrationTest {
+
+    //Maven запускает тесты из каталога модуля
+    private static final Path MIGRATIONS = Path.of("src/main/resources/dbLayer/migrations");
+
+    @Test
+    void commentsAndBlankLinesAreSkipped() {
+
+        var statements = Migration.parseStatements(List.of(
+                "-- индексы",
+                "",
+                "   ",
+                "  -- с отступом",
+                "CREATE INDEX a ON records (id);"));
+        assertEquals(List.of("CREATE INDEX a ON records (id)"), statements);
+    }
+
+    @Test
+    void statementSpansLinesUntilSemicolon() {
+
+        var statements = Migration.parseStatements(List.of(
+                "ALTER TABLE records",
+                "    ADD COLUMN accepted BOOLEAN;",
+                "UPDATE records SET accepted = 0;  "));
+        assertEquals(List.of("ALTER TABLE records\n    ADD COLUMN accepted BOOLEAN", "UPDATE records SET accepted = 0"),
+                statements);
+    }
+
+    @Test
+    void lastStatementWithoutSemicolonIsKept() {
+
+        var statements = Migration.parseStatements(List.of("DROP INDEX a ON records;", "DROP INDEX b ON records", ""));
+        assertEquals(List.of("DROP INDEX a ON records", "DROP INDEX b ON records"), statements);
+    }
+
+    @Test
+    void semicolonInsideLineDoesNotSplit() {
+
+        var statements = Migration.parseStatements(List.of(
+                "INSERT INTO purposes (name) VALUES ('a;b')",
+                "    ;"));
+        assertEquals(List.of("INSERT INTO purposes (name) VALUES ('a;b')"), statements);
+    }
+
+    @Test
+    void emptyScriptHasNoStatements() {
+
+        assertTrue(Migration.parseStatements(List.of()).isEmpty());
+        assertTrue(Migration.parseStatements(List.of("-- только комментарий", "")).isEmpty());
+    }
+
+    @Test
+    void versionAndDescriptionComeFromFileName() throws IOException {
+
+        var directory = Files.createTempDirectory("migrations");
+        try {
+            var script = Files.write(directory.resolve("V12__add_some_index.sql"),
+                    List.of("CREATE INDEX a ON records (id);"));
+            var migration = Migration.read(script);
+            assertEquals(12, migration.version());
+            assertEquals("add some index", migration.description());
+            assertEquals(List.of("CREATE INDEX a ON records (id)"), migration.statements());
+
+            assertNull(Migration.read(Files.write(directory.resolve("V3_single_underscore.sql"), List.of())));
+            assertNull(Migration.read(Files.write(directory.resolve("notes.txt"), List.of())));
+            assertNull(Migration.read(Files.write(directory.resolve("V4__no_extension"), List.of())));
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (var file : files.toList())
+                    Files.delete(file);
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    void shippedScriptsHaveConsecutiveVersions() throws IOException {
+
+        var migrations = new ArrayList<Migration>();
+        try (var files = Files.list(MIGRATIONS)) {
+            for (var file : files.toList()) {
+                var migration = Migration.read(file);
+                if (migration != null) migrations.add(migration);
+            }
+        }
+        assertFalse(migrations.isEmpty());
+        migrations.sort((a, b) -> Integer.compare(a.version(), b.version()));
+        for (int i = 0; i < migrations.size(); i++) {
+            assertEquals(i + 1, migrations.get(i).version());
+            assertFalse(migrations.get(i).statements().isEmpty());
+            for (var statement : migrations.get(i).statements())
+                assertFalse(statement.isBlank() || statement.endsWith(";"));
+        }
+    }
+}
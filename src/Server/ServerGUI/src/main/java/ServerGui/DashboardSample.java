@@ -0,0 +1,37 @@
+package ServerGui;
+
+import dbLayer.cache.LoginFilterStats;
+import dbLayer.cache.PurposeCacheStats;
+import dbLayer.pool.PoolMetrics;
+import serverEndPoint.metrics.CommandStats;
+import serverEndPoint.processing.ResponseCacheStats;
+import serverEndPoint.sessions.SessionStats;
+import serverEndPoint.threads.ExecutionStats;
+
+import java.util.List;
+
+//Один снимок состояния сервера для панели мониторинга.
+//История для графиков - копии кольцевых буферов, поток FX их только читает
+public record DashboardSample(long sampleNumber,
+                              SessionStats sessions,
+                              double requestsPerSecond,
+                              double averageLatencyMillis,
+                              PoolMetrics pool,
+                              PurposeCacheStats purposeCache,
+                              ResponseCacheStats responseCache,
+                              LoginFilterStats loginFilter,
+                              long heapUsed,
+                              long heapMax,
+                              ExecutionStats execution,
+                              List<CommandStats> commands,
+                              double[] requestsHistory,
+                              double[] latencyHistory,
+                              double[] connectionsHistory,
+                              double[] heapHistory) {
+
+    //Доля попаданий в процентах (0, если обращений еще не было)
+    public static double hitRate(long hits, long misses) {
+        var total = hits + misses;
+        return total == 0 ? 0 : hits * 100.0 / total;
+    }
+}
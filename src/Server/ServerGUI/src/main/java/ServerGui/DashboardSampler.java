@@ -0,0 +1,83 @@
+package ServerGui;
+
+import serverEndPoint.Server;
+
+import java.lang.management.ManagementFactory;
+
+//Снимает метрики сервера вне потока FX: скорость запросов и средняя задержка считаются
+//по разнице счетчиков между снимками, последние значения хранятся в кольцевых буферах
+public class DashboardSampler {
+
+    private static final long BYTES_IN_MB = 1024 * 1024;
+
+    private final Server server;
+
+    private final RingBuffer requestsHistory;
+
+    private final RingBuffer latencyHistory;
+
+    private final RingBuffer connectionsHistory;
+
+    private final RingBuffer heapHistory;
+
+    private long sampleNumber;
+
+    private long lastSampleNanos;
+
+    private long lastRequests;
+
+    private long lastLatencyMicros;
+
+    public DashboardSampler(Server server, int historySize) {
+        this.server = server;
+        requestsHistory = new RingBuffer(historySize);
+        latencyHistory = new RingBuffer(historySize);
+        connectionsHistory = new RingBuffer(historySize);
+        heapHistory = new RingBuffer(historySize);
+    }
+
+    public synchronized DashboardSample sample() {
+
+        var now = System.nanoTime();
+        var metrics = server.getMetrics();
+        var requests = metrics.requests();
+        var latencyMicros = server.getTotalLatencyMicros();
+
+        double requestsPerSecond = 0;
+        double averageLatencyMillis = 0;
+        if (sampleNumber > 0) {
+            var seconds = (now - lastSampleNanos) / 1e9;
+            var newRequests = requests - lastRequests;
+            requestsPerSecond = seconds > 0 ? newRequests / seconds : 0;
+            averageLatencyMillis = newRequests > 0 ? (latencyMicros - lastLatencyMicros) / 1000.0 / newRequests : 0;
+        }
+        lastSampleNanos = now;
+        lastRequests = requests;
+        lastLatencyMicros = latencyMicros;
+        sampleNumber++;
+
+        var sessions = server.getSessionStats();
+        var heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        requestsHistory.add(requestsPerSecond);
+        latencyHistory.add(averageLatencyMillis);
+        connectionsHistory.add(sessions.active());
+        heapHistory.add((double) heap.getUsed() / BYTES_IN_MB);
+
+        return new DashboardSample(sampleNumber,
+                sessions,
+                requestsPerSecond,
+                averageLatencyMillis,
+                server.getPoolMetrics(),
+                server.getPurposeCacheStats(),
+                server.getResponseCacheStats(),
+                server.getLoginFilterStats(),
+                heap.getUsed(),
+                heap.getMax(),
+                server.getExecutionStats(),
+                metrics.commands(),
+                requestsHistory.toArray(),
+                latencyHistory.toArray(),
+                connectionsHistory.toArray(),
+                heapHistory.toArray());
+    }
+}
@@ -0,0 +1,36 @@
+package ServerGui;
+
+//Кольцевой буфер последних значений для графиков: фиксированный размер,
+//новое значение вытесняет самое старое
+public class RingBuffer {
+
+    private final double[] values;
+
+    private int start;
+
+    private int size;
+
+    public RingBuffer(int capacity) {
+        values = new double[capacity];
+    }
+
+    public void add(double value) {
+
+        if (size < values.length) {
+            values[(start + size) % values.length] = value;
+            size++;
+        } else {
+            values[start] = value;
+            start = (start + 1) % values.length;
+        }
+    }
+
+    //Значения от старых к новым
+    public double[] toArray() {
+
+        var result = new double[size];
+        for (int i = 0; i < size; i++)
+            result[i] = values[(start + i) % values.length];
+        return result;
+    }
+}
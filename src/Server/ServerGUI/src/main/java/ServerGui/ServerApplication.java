@@ -6,15 +6,19 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 
 public class ServerApplication extends Application {
     @Override
     public void start(Stage stage) throws IOException {
         FXMLLoader fxmlLoader = new FXMLLoader(ServerApplication.class.getResource("/ServerGui/serverApplication-view.fxml"));
-        Scene scene = new Scene(fxmlLoader.load(), 600, 400);
+        Scene scene = new Scene(fxmlLoader.load(), 1000, 800);
         stage.setTitle("Server");
         stage.setScene(scene);
         stage.show();
+        //для сравнения с запуском без GUI (serverEndPoint.ServerLauncher)
+        System.out.println("Server window shown " + ManagementFactory.getRuntimeMXBean().getUptime() +
+                " ms after JVM start");
         stage.setOnCloseRequest(event -> {
             System.exit(0);
         });
@@ -1,27 +1,58 @@
 package ServerGui;
 
+import enums.UserType;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import serverEndPoint.metrics.CommandStats;
 
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 //Контроллер главного окна сервера
 public class ServerController {
 
+    //Период обновления панели мониторинга и сколько последних значений показывают графики
+    private static final int REFRESH_INTERVAL_MS = 1000;
+
+    private static final int HISTORY_SIZE = 120;
+
     private int port;
 
     private ServerProcessingThread serverProcessingThread;
 
     private final Thread.UncaughtExceptionHandler exceptionHandler  = (th, ex) -> System.out.println(ex);
 
+    //Метрики снимаются в отдельном потоке, поток FX только показывает готовый снимок
+    private ScheduledExecutorService dashboardScheduler;
+
+    private DashboardSampler dashboardSampler;
+
+    private final XYChart.Series<Number, Number> requestsSeries = new XYChart.Series<>();
+
+    private final XYChart.Series<Number, Number> latencySeries = new XYChart.Series<>();
+
+    private final XYChart.Series<Number, Number> connectionsSeries = new XYChart.Series<>();
+
+    private final XYChart.Series<Number, Number> heapSeries = new XYChart.Series<>();
+
     @FXML
     public Label serverIpLabel;
     @FXML
@@ -34,6 +65,24 @@ public class ServerController {
     public Label connectedClientsLabel;
     @FXML
     public Button refreshButton;
+    @FXML
+    public Label requestsLabel;
+    @FXML
+    public Label poolLabel;
+    @FXML
+    public Label cacheLabel;
+    @FXML
+    public Label memoryLabel;
+    @FXML
+    public LineChart<Number, Number> requestsChart;
+    @FXML
+    public LineChart<Number, Number> latencyChart;
+    @FXML
+    public LineChart<Number, Number> connectionsChart;
+    @FXML
+    public LineChart<Number, Number> heapChart;
+    @FXML
+    public TableView<CommandStats> commandsTable;
 
     private static Properties getPropertiesFromConfig() throws IOException {
 
@@ -49,6 +98,32 @@ public class ServerController {
     public void initialize() throws IOException {
        var properties = getPropertiesFromConfig();
        port = Integer.parseInt(properties.getProperty("serverPort"));
+
+       requestsChart.getData().add(requestsSeries);
+       latencyChart.getData().add(latencySeries);
+       connectionsChart.getData().add(connectionsSeries);
+       heapChart.getData().add(heapSeries);
+
+       addColumn("Command", stats -> stats.command().name());
+       addColumn("Requests", CommandStats::requests);
+       addColumn("Errors", CommandStats::errors);
+       addColumn("p50, ms", stats -> millis(stats.total().p50Micros()));
+       addColumn("p90, ms", stats -> millis(stats.total().p90Micros()));
+       addColumn("p99, ms", stats -> millis(stats.total().p99Micros()));
+       addColumn("max, ms", stats -> millis(stats.total().maxMicros()));
+       addColumn("SQL p99, ms", stats -> millis(stats.sql().p99Micros()));
+       addColumn("Write p99, ms", stats -> millis(stats.write().p99Micros()));
+    }
+
+    private void addColumn(String title, Function<CommandStats, Object> value) {
+
+        var column = new TableColumn<CommandStats, Object>(title);
+        column.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(value.apply(cell.getValue())));
+        commandsTable.getColumns().add(column);
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
     }
 
     //Показ ошибки в окошке
@@ -86,6 +161,8 @@ public class ServerController {
             refreshButton.setDisable(false);
             connectedClientsLabel.setText("0");
 
+            startDashboard();
+
         } catch (UnknownHostException e) {
             showAlert("Host error", "Unable to get local host");
         } catch (IOException e) {
@@ -98,16 +175,113 @@ public class ServerController {
     //Кнопка стопа серва
     public void onStopServerButtonClick(ActionEvent actionEvent) {
 
-        //Прерываем выполнение потока серва
-        serverProcessingThread.interrupt();
-
-        runServerButton.setDisable(false);
+        stopDashboard();
         stopServerButton.setDisable(true);
+        refreshButton.setDisable(true);
+        connectedClientsLabel.setText("stopping, waiting for running commands...");
+
+        //Останавливаем сервер в отдельном потоке - ожидание выполняемых команд не должно блокировать окно
+        var processingThread = serverProcessingThread;
+        var stopThread = new Thread(() -> {
+            try {
+                var report = processingThread.shutdown();
+                Platform.runLater(() -> connectedClientsLabel.setText("stopped: " + report.drained() +
+                        " closed gracefully, " + report.forced() + " forced"));
+            } catch (Exception e) {
+                Platform.runLater(() -> showAlert("Stop error", e.getMessage()));
+            } finally {
+                Platform.runLater(() -> runServerButton.setDisable(false));
+            }
+        }, "server-stop");
+        stopThread.setDaemon(true);
+        stopThread.start();
     }
 
-    //Обновление количества подключений
+    //Обновление панели вне очереди
     public void onRefreshButtonClick(ActionEvent actionEvent) {
 
-        connectedClientsLabel.setText(String.valueOf(serverProcessingThread.getAmountOfConnectedClients()));
+        if (dashboardScheduler != null)
+            dashboardScheduler.execute(this::refreshDashboard);
+    }
+
+    private void startDashboard() {
+
+        dashboardSampler = new DashboardSampler(serverProcessingThread.getServer(), HISTORY_SIZE);
+        dashboardScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "dashboard-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dashboardScheduler.scheduleAtFixedRate(this::refreshDashboard, 0, REFRESH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void stopDashboard() {
+
+        if (dashboardScheduler != null)
+            dashboardScheduler.shutdownNow();
+        dashboardScheduler = null;
+    }
+
+    //Выполняется в потоке dashboard-sampler
+    private void refreshDashboard() {
+
+        try {
+            var sample = dashboardSampler.sample();
+            Platform.runLater(() -> showSample(sample));
+        } catch (RuntimeException e) {
+            //исключение отменило бы дальнейшие обновления
+            System.out.println(e);
+        }
+    }
+
+    private void showSample(DashboardSample sample) {
+
+        var sessions = sample.sessions();
+        connectedClientsLabel.setText(sessions.active() +
+                " (users " + sessions.count(UserType.USER) +
+                ", masters " + sessions.count(UserType.MASTER) +
+                ", admins " + sessions.count(UserType.ADMIN) +
+                ", not signed in " + sessions.count(UserType.UNDEFINED) +
+                ", reaped " + sessions.reaped() + ")");
+
+        requestsLabel.setText(String.format("%.1f req/s, avg %.2f ms", sample.requestsPerSecond(),
+                sample.averageLatencyMillis()));
+
+        var pool = sample.pool();
+        poolLabel.setText(pool.active() + " active / " + pool.total() + " open / " + pool.maxSize() + " max, " +
+                pool.waiters() + " waiting, timeouts " + pool.timeouts() +
+                String.format(", avg wait %.2f ms", pool.averageWaitMillis()));
+
+        var purposeCache = sample.purposeCache();
+        var responseCache = sample.responseCache();
+        var loginFilter = sample.loginFilter();
+        cacheLabel.setText(String.format("purposes %.1f%%, responses %.1f%%, statements %.1f%%, " +
+                        "login checks without DB %.1f%%",
+                DashboardSample.hitRate(purposeCache.hits(), purposeCache.misses()),
+                DashboardSample.hitRate(responseCache.hits(), responseCache.misses()),
+                DashboardSample.hitRate(pool.statementCacheHits(), pool.statementCacheMisses()),
+                DashboardSample.hitRate(loginFilter.definitelyFree(),
+                        loginFilter.checks() - loginFilter.definitelyFree())));
+
+        memoryLabel.setText(String.format("heap %d / %d MB, threads %d (peak %d)",
+                sample.heapUsed() / (1024 * 1024), sample.heapMax() / (1024 * 1024),
+                sample.execution().platformThreads(), sample.execution().peakPlatformThreads()));
+
+        showHistory(requestsSeries, sample.requestsHistory(), sample.sampleNumber());
+        showHistory(latencySeries, sample.latencyHistory(), sample.sampleNumber());
+        showHistory(connectionsSeries, sample.connectionsHistory(), sample.sampleNumber());
+        showHistory(heapSeries, sample.heapHistory(), sample.sampleNumber());
+
+        commandsTable.getItems().setAll(sample.commands());
+    }
+
+    //По оси X - номер снимка, поэтому график сдвигается по мере поступления данных
+    private static void showHistory(XYChart.Series<Number, Number> series, double[] history, long lastSampleNumber) {
+
+        var points = new ArrayList<XYChart.Data<Number, Number>>(history.length);
+        var first = lastSampleNumber - history.length + 1;
+        for (int i = 0; i < history.length; i++)
+            points.add(new XYChart.Data<>(first + i, history[i]));
+        series.getData().setAll(points);
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,12 @@
 package ServerGui;
 
 import serverEndPoint.Server;
+import serverEndPoint.metrics.MetricsSnapshot;
+import serverEndPoint.sessions.DrainReport;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
 
 public class ServerProcessingThread extends Thread {
 
@@ -10,7 +14,11 @@ public class ServerProcessingThread extends Thread {
 
     public ServerProcessingThread(int port) throws Exception {
 
+        var creationStart = System.nanoTime();
         server = new Server(port);
+        System.out.println("Server listening on port " + port + ", started " +
+                ManagementFactory.getRuntimeMXBean().getUptime() + " ms after JVM start (" +
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - creationStart) + " ms to create the server)");
     }
 
     @Override
@@ -35,7 +43,23 @@ public class ServerProcessingThread extends Thread {
 
     }
 
+    //Плавная остановка: ждет выполняемые команды, поэтому вызывается не из потока FX
+    public DrainReport shutdown() throws IOException {
+        var report = server.stopServer();
+        super.interrupt();
+        return report;
+    }
+
     public int getAmountOfConnectedClients(){
         return server.getAmountOfConnectedClients();
     }
+
+    public MetricsSnapshot getMetrics() {
+        return server.getMetrics();
+    }
+
+    //Для панели мониторинга: все метрики сервера
+    public Server getServer() {
+        return server;
+    }
 }
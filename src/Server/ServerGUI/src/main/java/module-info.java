@@ -2,6 +2,9 @@ module com.example.servergui {
     requires javafx.controls;
     requires javafx.fxml;
     requires TransportLayer;
+    requires DataLayer;
+    requires Entities;
+    requires java.management;
 
     opens ServerGui to javafx.fxml;
     exports ServerGui;
@@ -1,8 +1,13 @@
 module TransportLayer {
     requires java.sql;
+    requires java.management;
     requires Entities;
     requires DataLayer;
 
     exports serverEndPoint.threads;
+    exports serverEndPoint.processing;
+    exports serverEndPoint.nio;
+    exports serverEndPoint.sessions;
+    exports serverEndPoint.metrics;
     exports serverEndPoint;
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package serverEndPoint;
+
+import serverEndPoint.processing.ServerContext;
+import serverEndPoint.threads.ClientProcessingThread;
+import serverEndPoint.threads.ConnectionExecutor;
+import serverEndPoint.threads.ExecutionStats;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+
+//Классический транспорт: ServerSocket.accept() и отдельный обработчик на каждое подключение
+public class BlockingTransport implements ServerTransport {
+
+    private final ServerSocket acceptingSocket;
+
+    private final ConnectionExecutor connectionExecutor;
+
+    private final ServerContext serverContext;
+
+    //таймаут чтения сокета клиента (0 - без ограничения)
+    private final int idleTimeoutMs;
+
+    //Подключение уже удалено из реестра (ClientProcessingThread.run), остается только сообщить причину
+    Thread.UncaughtExceptionHandler exceptionHandler = (thread, exception) -> {
+        var cause = exception.getCause() != null ? exception.getCause() : exception;
+        System.out.println(thread.getName() + " disconnected: " + cause);
+    };
+
+    public BlockingTransport(int serverPort, ExecutionMode executionMode, int idleTimeoutMs,
+                             ServerContext serverContext) throws IOException {
+        acceptingSocket = new ServerSocket(serverPort);
+        connectionExecutor = new ConnectionExecutor(executionMode);
+        this.serverContext = serverContext;
+        this.idleTimeoutMs = Math.max(0, idleTimeoutMs);
+    }
+
+    @Override
+    public void run() throws Exception {
+
+        while (true) {
+
+            Socket newClientSocket;
+            try {
+                newClientSocket = acceptingSocket.accept();
+            } catch (SocketException e) {
+                //сокет закрыт при остановке сервера
+                if (acceptingSocket.isClosed()) return;
+                throw e;
+            }
+            newClientSocket.setSoTimeout(idleTimeoutMs);
+            var newClient = new ConnectedClientInfo(newClientSocket);
+            var newThread = new ClientProcessingThread(newClient, serverContext);
+            var name = "client-" + newThread.getSession().getId();
+            connectionExecutor.execute(newThread, name, exceptionHandler);
+        }
+    }
+
+    @Override
+    public void stopAccepting() throws IOException {
+        acceptingSocket.close();
+    }
+
+    @Override
+    public void stop() throws IOException {
+
+        acceptingSocket.close();
+        serverContext.getSessionRegistry().closeAll();
+        connectionExecutor.shutdown();
+    }
+
+    @Override
+    public int getAmountOfConnectedClients() {
+        return serverContext.getSessionRegistry().size();
+    }
+
+    @Override
+    public ExecutionStats getExecutionStats() {
+        return connectionExecutor.getStats();
+    }
+}
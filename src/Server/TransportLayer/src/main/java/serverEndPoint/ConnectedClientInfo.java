@@ -10,7 +10,8 @@ public class ConnectedClientInfo {
 
     private int idInDB;
 
-    private UserType userType;
+    //читается реестром подключений из других потоков
+    private volatile UserType userType;
 
     private ConnectedClientInfo() {
         connectionSocket = new Socket();
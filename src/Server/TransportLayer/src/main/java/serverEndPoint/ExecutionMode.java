@@ -0,0 +1,11 @@
+package serverEndPoint;
+
+//Способ выполнения обработчиков подключений
+public enum ExecutionMode {
+
+    //Отдельный платформенный поток на каждого клиента
+    PLATFORM,
+    //Виртуальный поток на каждого клиента (через executor)
+    VIRTUAL,
+
+}
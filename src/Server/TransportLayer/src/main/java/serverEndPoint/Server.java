@@ -1,25 +1,48 @@
 package serverEndPoint;
 
-import serverEndPoint.threads.ClientProcessingThread;
+import dbLayer.cache.LoginFilterStats;
+import dbLayer.cache.PurposeCacheStats;
+import dbLayer.managers.Backend;
+import dbLayer.managers.DataStore;
+import dbLayer.migrations.MigrationRunner;
+import dbLayer.pool.PoolMetrics;
+import dbLayer.pool.PoolSettings;
+import serverEndPoint.metrics.MetricsSnapshot;
+import serverEndPoint.nio.NioTransport;
+import serverEndPoint.processing.ResponseCacheStats;
+import serverEndPoint.processing.ServerContext;
+import serverEndPoint.sessions.DrainReport;
+import serverEndPoint.sessions.SessionReaper;
+import serverEndPoint.sessions.SessionStats;
+import serverEndPoint.threads.ExecutionStats;
 
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.sql.DriverManager;
+import java.nio.file.Path;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 public class Server {
 
     private int serverPort;
 
-    private final ServerSocket acceptingSocket;
-
     private final Properties properties;
 
+    //пул подключений к БД и общие кэши
+    private final DataStore dataStore;
+
+    private final ServerContext serverContext;
+
+    private final ServerTransport transport;
+
+    //закрывает подключения, от которых долго нет данных
+    private final SessionReaper sessionReaper;
+
+    //сколько при остановке ждать завершения выполняемых команд
+    private final long drainTimeoutMs;
+
     private static Properties getPropertiesFromConfig() throws IOException {
 
         var properties = new Properties();
@@ -31,51 +54,159 @@ public class Server {
         return properties;
     }
 
-    private final List<ClientProcessingThread> processingThreads;
+    private static Properties getTransportPropertiesFromConfig() throws IOException {
 
-    Thread.UncaughtExceptionHandler exceptionHandler = new Thread.UncaughtExceptionHandler() {
-        public void uncaughtException(Thread thread, Throwable exception) {
-
-            processingThreads.remove(Integer.parseInt(thread.getName()));
-            new RuntimeException(exception);
-
-        }
-    };
+        var properties = new Properties();
+        String propFileName = "Server/TransportLayer/src/main/resources/config.properties";
+        var inputStream = new FileInputStream(propFileName);
+        properties.load(inputStream);
+        return properties;
+    }
 
     public Server(int serverPort) throws Exception {
+        this(serverPort, new Properties());
+    }
+
+    //transportOverrides заменяют параметры из TransportLayer config.properties (executionMode, transport и т.д.) -
+    //бенчмарки запускают серверы с разными настройками в одном процессе
+    public Server(int serverPort, Properties transportOverrides) throws Exception {
         this.serverPort = serverPort;
-        acceptingSocket = new ServerSocket(serverPort);
-        processingThreads = new ArrayList<ClientProcessingThread>();
         properties = getPropertiesFromConfig();
+        dataStore = DataStore.fromProperties(properties);
+        serverContext = new ServerContext(dataStore);
+
+        var transportProperties = getTransportPropertiesFromConfig();
+        transportProperties.putAll(transportOverrides);
+        var idleTimeoutMs = Integer.parseInt(transportProperties.getProperty("idleTimeoutMs", "0").trim());
+        sessionReaper = new SessionReaper(serverContext.getSessionRegistry(), idleTimeoutMs,
+                Long.parseLong(transportProperties.getProperty("reaperIntervalMs", "10000").trim()));
+        drainTimeoutMs = Long.parseLong(transportProperties.getProperty("drainTimeoutMs", "10000").trim());
+        var transportType = TransportType.valueOf(transportProperties
+                .getProperty("transport", TransportType.BLOCKING.name()).trim());
+        transport = switch (transportType) {
+            case BLOCKING -> new BlockingTransport(serverPort,
+                    ExecutionMode.valueOf(transportProperties
+                            .getProperty("executionMode", ExecutionMode.PLATFORM.name()).trim()),
+                    idleTimeoutMs,
+                    serverContext);
+            case NIO -> new NioTransport(serverPort,
+                    Integer.parseInt(transportProperties.getProperty("nioEventLoopThreads", "2").trim()),
+                    Integer.parseInt(transportProperties.getProperty("nioWorkerThreads", "8").trim()),
+                    Integer.parseInt(transportProperties.getProperty("nioMaxInFlightFrames", "64").trim()),
+                    Long.parseLong(transportProperties.getProperty("nioMaxOutgoingBytes", "4194304").trim()),
+                    serverContext);
+        };
     }
 
     public void runServer() throws Exception {
+        migrateSchema();
+        loadLogins();
+        sessionReaper.start();
+        transport.run();
+    }
 
-        while (true) {
-
-            var newClientSocket = acceptingSocket.accept();
-            var newClient = new ConnectedClientInfo(newClientSocket);
-            var newThread = new ClientProcessingThread(newClient, DriverManager.getConnection(properties.getProperty("dbServerConnectionString")
-                     + properties.getProperty("dbName"),
-                    properties.getProperty("userName"),
-                    properties.getProperty("password")));
-            newThread.setName(String.valueOf(processingThreads.size()));
-            newThread.setUncaughtExceptionHandler(exceptionHandler);
-            newThread.start();
-            processingThreads.add(newThread);
+    //Схема БД обновляется до приема подключений: со старой схемой сервер не запускается.
+    //База в памяти (backend = MEMORY) сразу создается в последней версии схемы
+    private void migrateSchema() throws Exception {
+
+        if (dataStore.getBackend() != Backend.MYSQL ||
+                !Boolean.parseBoolean(properties.getProperty("migrateOnStartup", "true").trim()))
+            return;
+        var migrations = MigrationRunner.loadMigrations(Path.of(properties.getProperty("migrationsDirectory",
+                "Server/DataLayer/src/main/resources/dbLayer/migrations").trim()));
+        try (var connection = MigrationRunner.openConnection(PoolSettings.fromProperties(properties))) {
+            System.out.println("Schema: " + new MigrationRunner(connection, migrations).migrate());
         }
     }
 
-    public void stopServer() throws IOException {
-
-        acceptingSocket.close();
-        for (var thread : processingThreads) {
-            thread.interrupt();
+    //Без справочника логинов вход проверяет все три таблицы, как раньше, а без фильтра логинов
+    //CHECK_IF_LOGIN_EXISTS всегда идет в БД, поэтому ошибка загрузки не мешает старту
+    private void loadLogins() {
+
+        var start = System.nanoTime();
+        try {
+            var logins = dataStore.loadLoginDirectory();
+            System.out.println("Login directory: " + logins + " logins loaded in " +
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        } catch (SQLException | RuntimeException e) {
+            System.out.println("Login directory is not loaded, sign-in checks every table: " + e);
+        }
+        start = System.nanoTime();
+        try {
+            var filter = dataStore.rebuildLoginFilter();
+            System.out.println("Login filter built in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) +
+                    " ms: " + filter.getStats());
+        } catch (SQLException | RuntimeException e) {
+            System.out.println("Login filter is not built, login checks go to the database: " + e);
         }
     }
 
+    public DrainReport stopServer() throws IOException {
+        var report = drainAndStop(drainTimeoutMs);
+        System.out.println("Server stopped: " + report);
+        return report;
+    }
+
+    //Плавная остановка: прием подключений прекращается, выполняемые команды дорабатывают
+    //не дольше timeoutMs, свободные клиенты получают сигнал остановки. Подключения к БД
+    //закрываются последними, когда команды уже вернули их в пул
+    public DrainReport drainAndStop(long timeoutMs) throws IOException {
+
+        sessionReaper.stop();
+        transport.stopAccepting();
+        var report = serverContext.getSessionRegistry().drain(timeoutMs);
+        transport.stop();
+        dataStore.close();
+        return report;
+    }
+
     public int getAmountOfConnectedClients(){
-        return processingThreads.size();
+        return transport.getAmountOfConnectedClients();
+    }
+
+    //Живые подключения по ролям, их трафик и число закрытых по простою
+    public SessionStats getSessionStats() {
+        return serverContext.getSessionRegistry().getStats();
+    }
+
+    //Статистика потоков: активные подключения, платформенные и несущие потоки
+    public ExecutionStats getExecutionStats() {
+        return transport.getExecutionStats();
+    }
+
+    //Состояние пула подключений к БД: активные, свободные, ожидающие, время ожидания
+    public PoolMetrics getPoolMetrics() {
+        return dataStore.getPoolMetrics();
+    }
+
+    //Попадания и промахи кэша справочника услуг
+    public PurposeCacheStats getPurposeCacheStats() {
+        return dataStore.getPurposeCache().getStats();
+    }
+
+    //Фильтр логинов: заполненность, ожидаемая доля ложных срабатываний, ответы без БД
+    public LoginFilterStats getLoginFilterStats() {
+        return dataStore.getLoginFilter().getStats();
+    }
+
+    //Запросы, ошибки и процентили задержки (полной, SQL и записи ответа) по каждой команде
+    public MetricsSnapshot getMetrics() {
+        return serverContext.getMetrics().snapshot();
+    }
+
+    //Общее число выполненных команд - для подсчета запросов в секунду
+    public long getTotalRequests() {
+        return serverContext.getMetrics().getTotalRequests();
+    }
+
+    //Суммарное время обработки команд - для средней задержки за интервал
+    public long getTotalLatencyMicros() {
+        return serverContext.getMetrics().getTotalMicros();
+    }
+
+    //Попадания и промахи кэша готовых ответов
+    public ResponseCacheStats getResponseCacheStats() {
+        return serverContext.getResponseCache().getStats();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+package serverEndPoint;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//Запуск сервера без JavaFX (запускать из каталога src, как и GUI).
+//Порт - первый аргумент или serverPort из config.properties. SIGTERM/Ctrl+C останавливают сервер
+//через shutdown hook, дожидаясь выполняемых команд (не дольше drainTimeoutMs), метрики пишутся в лог раз в metricsLogIntervalMs (0 - только при остановке)
+public class ServerLauncher {
+
+    private static Properties getPropertiesFromConfig() throws IOException {
+
+        var properties = new Properties();
+        String propFileName = "Server/TransportLayer/src/main/resources/config.properties";
+        var inputStream = new FileInputStream(propFileName);
+        if (inputStream == null)
+            throw new FileNotFoundException("property file '" + propFileName + "' not found in the classpath");
+        properties.load(inputStream);
+        return properties;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        var properties = getPropertiesFromConfig();
+        var port = Integer.parseInt(args.length > 0 ? args[0] : properties.getProperty("serverPort").trim());
+        var metricsLogIntervalMs = Long.parseLong(properties.getProperty("metricsLogIntervalMs", "0").trim());
+
+        var creationStart = System.nanoTime();
+        var server = new Server(port);
+        var creationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - creationStart);
+        //сокет уже открыт в конструкторе - с этого момента подключения принимаются
+        System.out.println("Server listening on port " + port + ", started " +
+                ManagementFactory.getRuntimeMXBean().getUptime() + " ms after JVM start (" +
+                creationMillis + " ms to create the server)");
+
+        var metricsLogger = startMetricsLogger(server, metricsLogIntervalMs);
+        var stopping = new AtomicBoolean();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stopping.set(true);
+            System.out.println("Stopping server, draining connections...");
+            if (metricsLogger != null)
+                metricsLogger.shutdownNow();
+            try {
+                server.stopServer();
+            } catch (IOException e) {
+                System.out.println(e);
+            }
+            logMetrics(server);
+        }, "server-shutdown"));
+
+        try {
+            server.runServer();
+        } catch (Exception e) {
+            //закрытый при остановке сокет - не ошибка
+            if (!stopping.get())
+                throw e;
+        }
+    }
+
+    private static ScheduledExecutorService startMetricsLogger(Server server, long intervalMs) {
+
+        if (intervalMs <= 0) return null;
+        var scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "metrics-logger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                logMetrics(server);
+            } catch (RuntimeException e) {
+                System.out.println(e);
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        return scheduler;
+    }
+
+    private static void logMetrics(Server server) {
+
+        var heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        System.out.println("sessions: " + server.getSessionStats() + System.lineSeparator() +
+                "threads: " + server.getExecutionStats() + System.lineSeparator() +
+                "pool: " + server.getPoolMetrics() + System.lineSeparator() +
+                "purpose cache: " + server.getPurposeCacheStats() + System.lineSeparator() +
+                "response cache: " + server.getResponseCacheStats() + System.lineSeparator() +
+                "login filter: " + server.getLoginFilterStats() + System.lineSeparator() +
+                "heap: " + heap.getUsed() / (1024 * 1024) + "/" + heap.getMax() / (1024 * 1024) + " MB" +
+                System.lineSeparator() +
+                "commands: " + server.getMetrics());
+    }
+}
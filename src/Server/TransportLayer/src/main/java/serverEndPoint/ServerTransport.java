@@ -0,0 +1,21 @@
+package serverEndPoint;
+
+import serverEndPoint.threads.ExecutionStats;
+
+import java.io.IOException;
+
+//Реализация приема и обслуживания подключений клиентов
+public interface ServerTransport {
+
+    //Блокирует вызывающий поток до остановки транспорта
+    void run() throws Exception;
+
+    //Новые подключения больше не принимаются, уже открытые продолжают работать
+    void stopAccepting() throws IOException;
+
+    void stop() throws IOException;
+
+    int getAmountOfConnectedClients();
+
+    ExecutionStats getExecutionStats();
+}
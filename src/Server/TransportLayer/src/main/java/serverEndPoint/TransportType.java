@@ -0,0 +1,11 @@
+package serverEndPoint;
+
+//Транспорт, через который сервер принимает подключения
+public enum TransportType {
+
+    //ServerSocket.accept() и отдельный поток на каждого клиента (протокол ObjectStream)
+    BLOCKING,
+    //ServerSocketChannel + Selector с небольшим пулом потоков (кадровый протокол)
+    NIO,
+
+}
@@ -0,0 +1,51 @@
+package serverEndPoint.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+//Счетчики и гистограммы одной команды: полное время обработки,
+//время запросов к БД и время записи ответа в сокет
+public class CommandMetrics {
+
+    private final Enum<?> command;
+
+    private final LongAdder requests = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LatencyHistogram total = new LatencyHistogram();
+
+    private final LatencyHistogram sql = new LatencyHistogram();
+
+    private final LatencyHistogram write = new LatencyHistogram();
+
+    CommandMetrics(Enum<?> command) {
+        this.command = command;
+    }
+
+    public void record(long totalNanos, long sqlNanos, long writeNanos, boolean failed) {
+
+        requests.increment();
+        if (failed)
+            errors.increment();
+        total.record(totalNanos);
+        sql.record(sqlNanos);
+        write.record(writeNanos);
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getTotalMicros() {
+        return total.getTotalMicros();
+    }
+
+    public CommandStats getStats() {
+        return new CommandStats(command, requests.sum(), errors.sum(),
+                total.snapshot(), sql.snapshot(), write.snapshot());
+    }
+}
@@ -0,0 +1,20 @@
+package serverEndPoint.metrics;
+
+//Снимок метрик одной команды
+public record CommandStats(Enum<?> command,
+                           long requests,
+                           long errors,
+                           LatencySnapshot total,
+                           LatencySnapshot sql,
+                           LatencySnapshot write) {
+
+    @Override
+    public String toString() {
+        return command +
+                ": requests=" + requests +
+                ", errors=" + errors +
+                ", total[" + total +
+                "], sql[" + sql +
+                "], write[" + write + "]";
+    }
+}
@@ -0,0 +1,90 @@
+package serverEndPoint.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+//Гистограмма задержек без блокировок: логарифмические корзины по микросекундам,
+//16 корзин на каждую степень двойки (погрешность процентилей до ~6%), от 1 мкс до ~70 минут
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int MAX_EXPONENT = 32;
+
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder totalMicros = new LongAdder();
+
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void record(long nanos) {
+
+        var micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos));
+        buckets.incrementAndGet(indexOf(micros));
+        totalMicros.add(micros);
+        if (micros > maxMicros.get())
+            maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    //Сумма всех значений - для средней задержки за интервал между двумя чтениями
+    public long getTotalMicros() {
+        return totalMicros.sum();
+    }
+
+    //Значения меньше SUB_BUCKETS мкс хранятся точно, дальше - SUB_BUCKETS корзин на степень двойки
+    private static int indexOf(long micros) {
+
+        if (micros < SUB_BUCKETS) return (int) micros;
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return Math.min((exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket, BUCKETS - 1);
+    }
+
+    //Наибольшее значение, попадающее в корзину
+    private static long upperBound(int index) {
+
+        if (index < SUB_BUCKETS) return index;
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((long) (SUB_BUCKETS + subBucket) << shift) + (1L << shift) - 1;
+    }
+
+    //Снимок не атомарен относительно параллельных record(), но каждое значение в нем согласовано
+    public LatencySnapshot snapshot() {
+
+        var counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        var max = maxMicros.get();
+        if (count == 0)
+            return new LatencySnapshot(0, 0, 0, 0, 0, 0);
+        return new LatencySnapshot(count,
+                totalMicros.sum() / count,
+                percentile(counts, count, 0.50, max),
+                percentile(counts, count, 0.90, max),
+                percentile(counts, count, 0.99, max),
+                max);
+    }
+
+    private static long percentile(long[] counts, long count, double quantile, long max) {
+
+        var rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+}
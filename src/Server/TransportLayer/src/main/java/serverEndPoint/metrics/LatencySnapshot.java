@@ -0,0 +1,22 @@
+package serverEndPoint.metrics;
+
+//Процентили задержки в микросекундах
+public record LatencySnapshot(long count,
+                              long meanMicros,
+                              long p50Micros,
+                              long p90Micros,
+                              long p99Micros,
+                              long maxMicros) {
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+
+    @Override
+    public String toString() {
+        return "p50=" + millis(p50Micros) +
+                "ms, p90=" + millis(p90Micros) +
+                "ms, p99=" + millis(p99Micros) +
+                "ms, max=" + millis(maxMicros) + "ms";
+    }
+}
@@ -0,0 +1,30 @@
+package serverEndPoint.metrics;
+
+import serverEndPoint.processing.CommandInterceptor;
+import serverEndPoint.processing.CommandRequest;
+
+//Замер каждой команды: полное время, время SQL (по аренде подключения) и записи ответа.
+//Ошибка - исключение из обработчика или ошибка SQL, которую обработчик превратил в Response.ERROR
+public class MetricsInterceptor implements CommandInterceptor {
+
+    private final ServerMetrics metrics;
+
+    public MetricsInterceptor(ServerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object intercept(CommandRequest request, Invocation next) throws Exception {
+
+        var start = System.nanoTime();
+        boolean failed = true;
+        try {
+            var result = next.proceed();
+            failed = request.getSqlErrors() > 0;
+            return result;
+        } finally {
+            metrics.forCommand(request.getCommand()).record(System.nanoTime() - start,
+                    request.getSqlNanos(), request.getWriteNanos(), failed);
+        }
+    }
+}
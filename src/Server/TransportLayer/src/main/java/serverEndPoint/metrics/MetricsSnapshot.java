@@ -0,0 +1,21 @@
+package serverEndPoint.metrics;
+
+import java.util.List;
+
+//Снимок метрик всех команд с момента запуска сервера
+public record MetricsSnapshot(long uptimeMs,
+                              long requests,
+                              long errors,
+                              List<CommandStats> commands) {
+
+    @Override
+    public String toString() {
+        var builder = new StringBuilder()
+                .append("uptime=").append(uptimeMs / 1000).append("s")
+                .append(", requests=").append(requests)
+                .append(", errors=").append(errors);
+        for (var command : commands)
+            builder.append(System.lineSeparator()).append("  ").append(command);
+        return builder.toString();
+    }
+}
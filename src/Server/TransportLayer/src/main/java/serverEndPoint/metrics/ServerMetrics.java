@@ -0,0 +1,74 @@
+package serverEndPoint.metrics;
+
+import Commands.AuthorizationCommand;
+import Commands.Command;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+
+//Метрики команд сервера. Карты заполняются при создании и дальше только читаются,
+//запись в счетчики и гистограммы идет без блокировок
+public class ServerMetrics {
+
+    private final long startedAt = System.currentTimeMillis();
+
+    private final Map<AuthorizationCommand, CommandMetrics> authorizationCommands =
+            new EnumMap<>(AuthorizationCommand.class);
+
+    private final Map<Command, CommandMetrics> commands = new EnumMap<>(Command.class);
+
+    public ServerMetrics() {
+        for (var command : AuthorizationCommand.values())
+            authorizationCommands.put(command, new CommandMetrics(command));
+        for (var command : Command.values())
+            commands.put(command, new CommandMetrics(command));
+    }
+
+    public CommandMetrics forCommand(Enum<?> command) {
+        if (command instanceof Command clientCommand)
+            return commands.get(clientCommand);
+        return authorizationCommands.get((AuthorizationCommand) command);
+    }
+
+    public long getTotalRequests() {
+        long total = 0;
+        for (var metrics : authorizationCommands.values())
+            total += metrics.getRequests();
+        for (var metrics : commands.values())
+            total += metrics.getRequests();
+        return total;
+    }
+
+    //Суммарное время обработки всех команд
+    public long getTotalMicros() {
+        long total = 0;
+        for (var metrics : authorizationCommands.values())
+            total += metrics.getTotalMicros();
+        for (var metrics : commands.values())
+            total += metrics.getTotalMicros();
+        return total;
+    }
+
+    //Только команды, которые уже выполнялись
+    public MetricsSnapshot snapshot() {
+
+        var stats = new ArrayList<CommandStats>();
+        long requests = 0;
+        long errors = 0;
+        for (var metrics : authorizationCommands.values())
+            requests += addIfUsed(stats, metrics);
+        for (var metrics : commands.values())
+            requests += addIfUsed(stats, metrics);
+        for (var commandStats : stats)
+            errors += commandStats.errors();
+        return new MetricsSnapshot(System.currentTimeMillis() - startedAt, requests, errors, stats);
+    }
+
+    private static long addIfUsed(ArrayList<CommandStats> stats, CommandMetrics metrics) {
+        if (metrics.getRequests() == 0) return 0;
+        var commandStats = metrics.getStats();
+        stats.add(commandStats);
+        return commandStats.requests();
+    }
+}
@@ -0,0 +1,107 @@
+package serverEndPoint.nio;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+//Цикл событий: один Selector обслуживает множество подключений в одном потоке.
+//Чтение и запись идут только здесь, команды выполняются в пуле обработчиков NioTransport
+class NioEventLoop implements Runnable {
+
+    private final NioTransport transport;
+
+    private final Selector selector;
+
+    //Задачи от других потоков (регистрация каналов), выполняются внутри цикла
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running = true;
+
+    NioEventLoop(NioTransport transport) throws IOException {
+        this.transport = transport;
+        selector = Selector.open();
+    }
+
+    Selector getSelector() {
+        return selector;
+    }
+
+    void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    void wakeup() {
+        selector.wakeup();
+    }
+
+    void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+
+        try {
+            while (running) {
+                selector.select();
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        System.out.println("Event loop task failed: " + e);
+                    }
+                }
+
+                var selectedKeys = selector.selectedKeys();
+                for (var key : selectedKeys) {
+                    handleKey(key);
+                }
+                selectedKeys.clear();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running)
+                throw new RuntimeException(e);
+        } finally {
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    //Ошибка одного подключения закрывает только его: цикл и остальные подключения на нем продолжают работать
+    private void handleKey(SelectionKey key) {
+
+        if (!key.isValid()) return;
+        //у ключа ServerSocketChannel вложения нет
+        var session = (NioSession) key.attachment();
+        try {
+            if (key.isAcceptable()) {
+                transport.accept();
+                return;
+            }
+            if (key.isReadable())
+                session.onReadable();
+            if (key.isValid() && key.isWritable())
+                session.onWritable();
+        } catch (IOException | CancelledKeyException e) {
+            //клиент отключился или подключение уже закрыл другой поток
+            if (session != null)
+                session.close();
+        } catch (RuntimeException e) {
+            if (session == null) {
+                System.out.println("Accepting connection failed: " + e);
+                return;
+            }
+            System.out.println("Session " + session.getSession().getId() + " failed: " + e);
+            session.close();
+        }
+    }
+}
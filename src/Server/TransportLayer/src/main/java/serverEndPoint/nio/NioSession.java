@@ -0,0 +1,242 @@
+package serverEndPoint.nio;
+
+import protocol.Frame;
+import protocol.Frames;
+import protocol.WireFormat;
+import serverEndPoint.ConnectedClientInfo;
+import serverEndPoint.processing.FrameRequestHandler;
+import serverEndPoint.sessions.Session;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Состояние одного подключения NIO-транспорта.
+//Цикл событий собирает из входящих байт целые кадры, а пул обработчиков выполняет их
+//строго по очереди (не больше одного обработчика на подключение одновременно).
+//Пока очередь кадров или неотправленных ответов больше лимитов NioTransport, OP_READ снят:
+//клиент упирается в окно TCP, а не в память сервера
+class NioSession {
+
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+    private final NioTransport transport;
+
+    private final NioEventLoop eventLoop;
+
+    private final SocketChannel channel;
+
+    private final ConnectedClientInfo clientInfo;
+
+    //запись в реестре подключений
+    private final Session session;
+
+    private SelectionKey key;
+
+    private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+    //Создается после согласования формата обмена
+    private FrameRequestHandler requestHandler;
+
+    private final Queue<Frame> incomingFrames = new ConcurrentLinkedQueue<>();
+
+    //кадры, прочитанные, но еще не выполненные
+    private final AtomicInteger inFlightFrames = new AtomicInteger();
+
+    private final AtomicBoolean processingScheduled = new AtomicBoolean();
+
+    private final ArrayDeque<ByteBuffer> outgoingFrames = new ArrayDeque<>();
+
+    //неотправленные байты outgoingFrames, меняются под synchronized (this)
+    private long outgoingBytes;
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    NioSession(NioTransport transport, NioEventLoop eventLoop, SocketChannel channel) {
+        this.transport = transport;
+        this.eventLoop = eventLoop;
+        this.channel = channel;
+        clientInfo = new ConnectedClientInfo(channel.socket());
+        session = transport.getServerContext().getSessionRegistry().register(clientInfo, this::close);
+    }
+
+    ConnectedClientInfo getClientInfo() {
+        return clientInfo;
+    }
+
+    Session getSession() {
+        return session;
+    }
+
+    //Вызывается в цикле событий
+    void register() throws IOException {
+        key = channel.register(eventLoop.getSelector(), SelectionKey.OP_READ, this);
+    }
+
+    //Вызывается в цикле событий: дочитываем данные и выделяем полные кадры
+    void onReadable() throws IOException {
+
+        int read = channel.read(readBuffer);
+        if (read < 0) {
+            close();
+            return;
+        }
+        session.addBytesIn(read);
+
+        readBuffer.flip();
+        boolean hasNewFrames = false;
+        if (requestHandler == null && readBuffer.remaining() >= Integer.BYTES) {
+            var wireFormat = WireFormat.fromMagic(readBuffer.getInt());
+            if (wireFormat == null)
+                throw new IOException("Client does not use a framed protocol");
+            requestHandler = new FrameRequestHandler(session, transport.getServerContext(), wireFormat);
+            session.setGoingAwaySignal(() -> FrameRequestHandler.sendGoingAway(this::send));
+            //подтверждаем выбранный формат
+            send(ByteBuffer.allocate(Integer.BYTES).putInt(wireFormat.getMagic()).flip());
+        }
+        while (requestHandler != null) {
+            var frame = Frames.readFrame(readBuffer);
+            if (frame == null) {
+                ensureCapacity(Frames.requiredLength(readBuffer));
+                break;
+            }
+            incomingFrames.add(frame);
+            inFlightFrames.incrementAndGet();
+            hasNewFrames = true;
+        }
+        readBuffer.compact();
+
+        if (hasNewFrames) {
+            //кадры, уже лежащие в буфере, выделяем все: после паузы Selector о них не сообщит
+            if (inFlightFrames.get() >= transport.getMaxInFlightFrames()) {
+                synchronized (this) {
+                    updateInterestOps();
+                }
+            }
+            scheduleProcessing();
+        }
+    }
+
+    //Буфер должен вмещать хотя бы один кадр целиком
+    private void ensureCapacity(int frameLength) {
+
+        if (readBuffer.capacity() >= frameLength) return;
+        var newBuffer = ByteBuffer.allocate(Math.max(frameLength, readBuffer.capacity() * 2));
+        newBuffer.put(readBuffer);
+        newBuffer.flip();
+        readBuffer = newBuffer;
+    }
+
+    private void scheduleProcessing() {
+        if (processingScheduled.compareAndSet(false, true))
+            transport.getWorkers().execute(this::processFrames);
+    }
+
+    //Выполняется в пуле обработчиков
+    private void processFrames() {
+
+        while (true) {
+            var frame = incomingFrames.poll();
+            if (frame == null) {
+                processingScheduled.set(false);
+                //кадр мог прийти между poll() и set(false)
+                if (incomingFrames.isEmpty() || !processingScheduled.compareAndSet(false, true))
+                    return;
+                continue;
+            }
+            try {
+                processFrame(frame);
+            } catch (Exception e) {
+                close();
+                return;
+            }
+            //очередь опустилась ниже лимита - снова читаем
+            if (inFlightFrames.decrementAndGet() == transport.getMaxInFlightFrames() - 1) {
+                synchronized (this) {
+                    updateInterestOps();
+                }
+            }
+        }
+    }
+
+    private void processFrame(Frame frame) throws Exception {
+
+        if (closed.get()) return;
+        requestHandler.handle(frame, this::send);
+    }
+
+    //Может вызываться из любого потока: кадр ставится в очередь и по возможности сразу пишется
+    //Данные кадра не копируются: общий ответ (SharedResponse) пишется в канал из одного массива
+    void send(Frame frame) throws IOException {
+        send(Frames.header(frame), ByteBuffer.wrap(frame.payload()).asReadOnlyBuffer());
+    }
+
+    private void send(ByteBuffer... data) throws IOException {
+
+        synchronized (this) {
+            outgoingFrames.addAll(Arrays.asList(data));
+            for (var buffer : data)
+                outgoingBytes += buffer.remaining();
+            flush();
+        }
+    }
+
+    void onWritable() throws IOException {
+        synchronized (this) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+
+        while (!outgoingFrames.isEmpty()) {
+            var frame = outgoingFrames.peek();
+            int written = channel.write(frame);
+            session.addBytesOut(written);
+            outgoingBytes -= written;
+            //сокет заполнен - допишем, когда Selector сообщит о готовности
+            if (frame.hasRemaining())
+                break;
+            outgoingFrames.poll();
+        }
+        updateInterestOps();
+    }
+
+    //Вызывается под synchronized (this) из цикла событий и из обработчиков.
+    //OP_WRITE - пока есть неотправленные данные, OP_READ - пока обе очереди меньше лимитов
+    private void updateInterestOps() {
+
+        if (key == null || !key.isValid()) return;
+        int ops = outgoingFrames.isEmpty() ? 0 : SelectionKey.OP_WRITE;
+        if (inFlightFrames.get() < transport.getMaxInFlightFrames() && outgoingBytes < transport.getMaxOutgoingBytes())
+            ops |= SelectionKey.OP_READ;
+        try {
+            if (key.interestOps() != ops) {
+                key.interestOps(ops);
+                eventLoop.wakeup();
+            }
+        } catch (CancelledKeyException ignored) {
+            //подключение закрыли из другого потока
+        }
+    }
+
+    void close() {
+
+        if (!closed.compareAndSet(false, true)) return;
+        if (key != null)
+            key.cancel();
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+        session.deregister();
+    }
+}
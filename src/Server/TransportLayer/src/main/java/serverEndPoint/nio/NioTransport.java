@@ -0,0 +1,191 @@
+package serverEndPoint.nio;
+
+import serverEndPoint.processing.ServerContext;
+import serverEndPoint.ExecutionMode;
+import serverEndPoint.ServerTransport;
+import serverEndPoint.threads.ExecutionStats;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Неблокирующий транспорт: ServerSocketChannel и несколько циклов событий на Selector.
+//Простаивающие клиенты не занимают потоков; полные кадры запросов выполняет
+//фиксированный пул обработчиков, подключения к БД берутся из общего пула
+public class NioTransport implements ServerTransport {
+
+    //Пауза приема подключений после ошибки accept() (например, кончились дескрипторы - EMFILE)
+    private static final long ACCEPT_RETRY_DELAY_MS = 100;
+
+    private final ServerSocketChannel serverChannel;
+
+    //ключ serverChannel в нулевом цикле событий
+    private SelectionKey acceptKey;
+
+    private final NioEventLoop[] eventLoops;
+
+    private final ExecutorService workers;
+
+    private final ServerContext serverContext;
+
+    private final AtomicInteger nextEventLoop = new AtomicInteger();
+
+    //Лимиты одного подключения, после которых оно не читается (0 - без ограничения)
+    private final int maxInFlightFrames;
+
+    private final long maxOutgoingBytes;
+
+    public NioTransport(int serverPort, int eventLoopThreads, int workerThreads, int maxInFlightFrames,
+                        long maxOutgoingBytes, ServerContext serverContext) throws IOException {
+
+        this.serverContext = serverContext;
+        this.maxInFlightFrames = maxInFlightFrames > 0 ? maxInFlightFrames : Integer.MAX_VALUE;
+        this.maxOutgoingBytes = maxOutgoingBytes > 0 ? maxOutgoingBytes : Long.MAX_VALUE;
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(serverPort));
+        serverChannel.configureBlocking(false);
+
+        eventLoops = new NioEventLoop[Math.max(1, eventLoopThreads)];
+        for (int i = 0; i < eventLoops.length; i++)
+            eventLoops[i] = new NioEventLoop(this);
+
+        var workerNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(Math.max(1, workerThreads), runnable -> {
+            var thread = new Thread(runnable, "nio-worker-" + workerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    ExecutorService getWorkers() {
+        return workers;
+    }
+
+    int getMaxInFlightFrames() {
+        return maxInFlightFrames;
+    }
+
+    long getMaxOutgoingBytes() {
+        return maxOutgoingBytes;
+    }
+
+    ServerContext getServerContext() {
+        return serverContext;
+    }
+
+    @Override
+    public void run() throws Exception {
+
+        //Нулевой цикл событий принимает подключения и работает в вызывающем потоке
+        acceptKey = serverChannel.register(eventLoops[0].getSelector(), SelectionKey.OP_ACCEPT);
+        for (int i = 1; i < eventLoops.length; i++) {
+            var thread = new Thread(eventLoops[i], "nio-event-loop-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        eventLoops[0].run();
+    }
+
+    //Вызывается в нулевом цикле событий
+    void accept() {
+
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (IOException e) {
+                //канал закрыт при остановке сервера
+                if (!serverChannel.isOpen()) return;
+                //ошибка может быть временной: подключения ждут в очереди сокета, принимаем их позже
+                System.out.println("Accepting connections failed, retrying in " + ACCEPT_RETRY_DELAY_MS + " ms: " + e);
+                pauseAccepting();
+                return;
+            }
+            if (channel == null) return;
+            try {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+            } catch (IOException e) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+                continue;
+            }
+            var eventLoop = eventLoops[Math.floorMod(nextEventLoop.getAndIncrement(), eventLoops.length)];
+            //сессия сама регистрируется в реестре подключений и удаляется из него при закрытии
+            var session = new NioSession(this, eventLoop, channel);
+            eventLoop.execute(() -> {
+                try {
+                    session.register();
+                } catch (IOException e) {
+                    session.close();
+                }
+            });
+        }
+    }
+
+    //Без OP_ACCEPT Selector не будит цикл той же ошибкой снова и снова; цикл при этом не спит
+    //и продолжает обслуживать свои подключения
+    private void pauseAccepting() {
+
+        acceptKey.interestOps(0);
+        CompletableFuture.delayedExecutor(ACCEPT_RETRY_DELAY_MS, TimeUnit.MILLISECONDS)
+                .execute(() -> eventLoops[0].execute(() -> {
+                    try {
+                        if (acceptKey.isValid())
+                            acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+                    } catch (CancelledKeyException ignored) {
+                        //сервер остановлен
+                    }
+                }));
+    }
+
+    //Циклы событий продолжают обслуживать подключения. Сокет канала освобождается,
+    //только когда нулевой цикл событий снимет отмененный ключ, поэтому будим его
+    @Override
+    public void stopAccepting() throws IOException {
+        serverChannel.close();
+        eventLoops[0].wakeup();
+    }
+
+    @Override
+    public void stop() throws IOException {
+
+        serverChannel.close();
+        serverContext.getSessionRegistry().closeAll();
+        for (var eventLoop : eventLoops)
+            eventLoop.stop();
+        workers.shutdownNow();
+    }
+
+    @Override
+    public int getAmountOfConnectedClients() {
+        return serverContext.getSessionRegistry().size();
+    }
+
+    @Override
+    public ExecutionStats getExecutionStats() {
+
+        var threadBean = ManagementFactory.getThreadMXBean();
+        var sessionRegistry = serverContext.getSessionRegistry();
+        return new ExecutionStats(ExecutionMode.PLATFORM,
+                false,
+                sessionRegistry.size(),
+                sessionRegistry.getPeak(),
+                sessionRegistry.getTotal(),
+                threadBean.getThreadCount(),
+                threadBean.getPeakThreadCount(),
+                0,
+                0);
+    }
+}
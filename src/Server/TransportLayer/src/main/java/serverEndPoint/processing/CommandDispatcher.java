@@ -0,0 +1,81 @@
+package serverEndPoint.processing;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+
+//Реестр обработчиков команд одного перечисления (Command или AuthorizationCommand).
+//Цепочки interceptor'ов собираются при регистрации, выполнение команды - один поиск в EnumMap.
+//Общие interceptor'ы выполняются снаружи, interceptor'ы отдельной команды - ближе к обработчику
+public class CommandDispatcher<C extends Enum<C>, R> {
+
+    private final Class<C> commandType;
+
+    private final CommandHandler<R> unknownCommandHandler;
+
+    private final EnumMap<C, CommandHandler<R>> handlers;
+
+    private final List<CommandInterceptor> interceptors = new ArrayList<>();
+
+    private final EnumMap<C, List<CommandInterceptor>> commandInterceptors;
+
+    //Собранные цепочки; заменяются целиком при изменении реестра
+    private volatile EnumMap<C, CommandHandler<R>> chains;
+
+    public CommandDispatcher(Class<C> commandType, CommandHandler<R> unknownCommandHandler) {
+        this.commandType = commandType;
+        this.unknownCommandHandler = unknownCommandHandler;
+        handlers = new EnumMap<>(commandType);
+        commandInterceptors = new EnumMap<>(commandType);
+        chains = new EnumMap<>(commandType);
+    }
+
+    public synchronized CommandDispatcher<C, R> register(C command, CommandHandler<R> handler) {
+        handlers.put(command, handler);
+        rebuild();
+        return this;
+    }
+
+    //Interceptor для всех команд
+    public synchronized CommandDispatcher<C, R> intercept(CommandInterceptor interceptor) {
+        interceptors.add(interceptor);
+        rebuild();
+        return this;
+    }
+
+    public synchronized CommandDispatcher<C, R> intercept(C command, CommandInterceptor interceptor) {
+        commandInterceptors.computeIfAbsent(command, key -> new ArrayList<>()).add(interceptor);
+        rebuild();
+        return this;
+    }
+
+    public boolean hasHandler(C command) {
+        return chains.containsKey(command);
+    }
+
+    //Команда без обработчика получает ответ unknownCommandHandler (в обход interceptor'ов)
+    public R dispatch(C command, CommandRequest request) throws Exception {
+
+        var chain = chains.get(command);
+        return (chain != null ? chain : unknownCommandHandler).handle(request);
+    }
+
+    private void rebuild() {
+
+        var newChains = new EnumMap<C, CommandHandler<R>>(commandType);
+        for (var entry : handlers.entrySet()) {
+            var chain = entry.getValue();
+            var ownInterceptors = commandInterceptors.getOrDefault(entry.getKey(), List.of());
+            for (int i = ownInterceptors.size() - 1; i >= 0; i--)
+                chain = wrap(chain, ownInterceptors.get(i));
+            for (int i = interceptors.size() - 1; i >= 0; i--)
+                chain = wrap(chain, interceptors.get(i));
+            newChains.put(entry.getKey(), chain);
+        }
+        chains = newChains;
+    }
+
+    private static <R> CommandHandler<R> wrap(CommandHandler<R> next, CommandInterceptor interceptor) {
+        return request -> (R) interceptor.intercept(request, () -> next.handle(request));
+    }
+}
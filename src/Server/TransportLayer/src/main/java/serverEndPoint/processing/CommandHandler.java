@@ -0,0 +1,9 @@
+package serverEndPoint.processing;
+
+//Обработчик одной команды: читает аргументы и отправляет ответ через запрос.
+//Результат - UserType для AuthorizationCommand, признак продолжения сессии для Command
+@FunctionalInterface
+public interface CommandHandler<R> {
+
+    R handle(CommandRequest request) throws Exception;
+}
@@ -0,0 +1,663 @@
+package serverEndPoint.processing;
+
+import Commands.AuthorizationCommand;
+import Commands.Command;
+import Commands.PageRequest;
+import Commands.RecordFilter;
+import Commands.Response;
+import entities.*;
+import entities.Record;
+import enums.UserType;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+
+//Обработчики команд клиента. Новая команда - метод здесь и строка регистрации,
+//обертки (замер времени, кэш, ограничения) подключаются через CommandDispatcher.intercept
+public final class CommandHandlers {
+
+    private CommandHandlers() {
+    }
+
+    //Команды до входа в систему; результат - тип вошедшего пользователя или null
+    public static CommandDispatcher<AuthorizationCommand, UserType> authorization() {
+
+        var dispatcher = new CommandDispatcher<AuthorizationCommand, UserType>(AuthorizationCommand.class,
+                CommandHandlers::unknownAuthorizationCommand);
+        dispatcher.register(AuthorizationCommand.AUTHORIZE, CommandHandlers::authorize);
+        dispatcher.register(AuthorizationCommand.CHECK_IF_LOGIN_EXISTS, CommandHandlers::checkIfLoginExists);
+        dispatcher.register(AuthorizationCommand.REGISTER, CommandHandlers::signUpUser);
+        dispatcher.register(AuthorizationCommand.REGISTER_MASTER, CommandHandlers::signUpMaster);
+        return dispatcher;
+    }
+
+    //Команды вошедшего пользователя; результат - false, если клиент вышел (EXIT)
+    public static CommandDispatcher<Command, Boolean> commands() {
+
+        var dispatcher = new CommandDispatcher<Command, Boolean>(Command.class, CommandHandlers::unknownCommand);
+        dispatcher.register(Command.EXIT, request -> false);
+        dispatcher.register(Command.GET_ALL_PURPOSES, CommandHandlers::getAllPurposes);
+        dispatcher.register(Command.CREATE_PURPOSE, CommandHandlers::createPurpose);
+        dispatcher.register(Command.EDIT_PURPOSE, CommandHandlers::editPurpose);
+        dispatcher.register(Command.DELETE_PURPOSE, CommandHandlers::deletePurpose);
+        dispatcher.register(Command.BAN_CLIENT, CommandHandlers::banClient);
+        dispatcher.register(Command.UNBAN_CLIENT, CommandHandlers::unbanClient);
+        dispatcher.register(Command.UNBAN_MASTER, CommandHandlers::unbanMaster);
+        dispatcher.register(Command.BAN_MASTER, CommandHandlers::banMaster);
+        dispatcher.register(Command.REGISTER_MASTER, CommandHandlers::registerMaster);
+        dispatcher.register(Command.REGISTER_USER, CommandHandlers::registerUser);
+        dispatcher.register(Command.GET_ALL_CURRENT_MASTER_RECORDS, CommandHandlers::getAllCurrentMasterRecords);
+        dispatcher.register(Command.GET_ALL_CURRENT_CLIENT_RECORDS, CommandHandlers::getAllCurrentClientRecords);
+        dispatcher.register(Command.ACCEPT_RECORD_TO_CURRENT_MASTER, CommandHandlers::acceptRecordToCurrentMaster);
+        dispatcher.register(Command.GET_ALL_RECORDS, CommandHandlers::getAllRecords);
+        dispatcher.register(Command.GET_ALL_RECORDS_NOT_ACCEPTED, CommandHandlers::getAllRecordsNotAccepted);
+        dispatcher.register(Command.GET_ALL_RECORDS_ACCEPTED, CommandHandlers::getAllRecordsAccepted);
+        dispatcher.register(Command.GET_ALL_CLIENTS, CommandHandlers::getAllClients);
+        dispatcher.register(Command.GET_ALL_MASTERS, CommandHandlers::getAllMasters);
+        dispatcher.register(Command.CREATE_RECORD, CommandHandlers::createRecord);
+        dispatcher.register(Command.DELETE_RECORD, CommandHandlers::deleteRecord);
+        dispatcher.register(Command.DELETE_ACCEPTION, CommandHandlers::deleteAcception);
+        dispatcher.register(Command.GET_RECORDS_PAGE, CommandHandlers::getRecordsPage);
+        dispatcher.register(Command.GET_RECORDS_ACCEPTED_PAGE, CommandHandlers::getRecordsAcceptedPage);
+        dispatcher.register(Command.GET_RECORDS_NOT_ACCEPTED_PAGE, CommandHandlers::getRecordsNotAcceptedPage);
+        dispatcher.register(Command.GET_CLIENTS_PAGE, CommandHandlers::getClientsPage);
+        dispatcher.register(Command.GET_MASTERS_PAGE, CommandHandlers::getMastersPage);
+        dispatcher.register(Command.QUERY_RECORDS, CommandHandlers::queryRecords);
+        dispatcher.register(Command.GET_CURRENT_PROFILE, CommandHandlers::getCurrentProfile);
+        dispatcher.register(Command.EDIT_CURRENT_PROFILE, CommandHandlers::editCurrentProfile);
+
+        //управление справочником и пользователями доступно только администратору
+        var adminOnly = new RoleInterceptor(UserType.ADMIN);
+        for (var command : new Command[]{
+                Command.CREATE_PURPOSE,
+                Command.EDIT_PURPOSE,
+                Command.DELETE_PURPOSE,
+                Command.BAN_CLIENT,
+                Command.UNBAN_CLIENT,
+                Command.UNBAN_MASTER,
+                Command.BAN_MASTER,
+                Command.REGISTER_MASTER,
+                Command.REGISTER_USER,
+                Command.GET_ALL_CLIENTS,
+                Command.GET_ALL_MASTERS,
+                Command.GET_CLIENTS_PAGE,
+                Command.GET_MASTERS_PAGE
+        })
+            dispatcher.intercept(command, adminOnly);
+        return dispatcher;
+    }
+
+    private static UserType unknownAuthorizationCommand(CommandRequest request) throws Exception {
+        request.sendObject(Response.UNKNOWN_COMMAND);
+        return null;
+    }
+
+    private static Boolean unknownCommand(CommandRequest request) throws Exception {
+        request.sendObject(Response.UNKNOWN_COMMAND);
+        return true;
+    }
+
+    //Справочник логинов подсказывает, в каких таблицах есть логин: пароль проверяется только там
+    //(обычно один запрос по уникальному индексу), неизвестный логин отклоняется без запросов к БД.
+    //Это верно, пока ключи справочника совпадают со сравнением MySQL (логины из ASCII). Иначе
+    //(ß и ss, æ и ae в utf8mb4_0900_ai_ci) промах справочника не окончателен, и проверяются все таблицы,
+    //как до справочника: повторить collation MySQL в Java (Collator и т.п.) точно нельзя.
+    //Логин уникален только внутри таблицы, поэтому порядок проверки прежний: клиент, администратор, мастер
+    private static UserType authorize(CommandRequest request) throws Exception {
+
+        var clientInfo = request.getClientInfo();
+
+        String login = request.receiveObject();
+        String password = request.receiveObject();
+        var loginDirectory = request.getServerContext().getDataStore().getLoginDirectory();
+        var roles = loginDirectory.isExact(login)
+                ? loginDirectory.find(login)
+                : EnumSet.of(UserType.USER, UserType.ADMIN, UserType.MASTER);
+        if (roles.contains(UserType.USER)) {
+            var user = request.getDataAccessManager().clientsRepository.get(login, password);
+            if (user.getId() != 0 && user.getStatus() == Status.NOT_BANNED) {
+                request.sendObject(UserType.USER);
+                clientInfo.setIdInDB(user.getId());
+                clientInfo.setType(UserType.USER);
+                return UserType.USER;
+            }
+        }
+        var admin = roles.contains(UserType.ADMIN)
+                ? request.getDataAccessManager().adminsRepository.get(login, password)
+                : new Admin();
+        if (admin.getId() != 0) {
+            request.sendObject(UserType.ADMIN);
+            clientInfo.setIdInDB(admin.getId());
+            clientInfo.setType(UserType.ADMIN);
+            return UserType.ADMIN;
+        }
+        var master = roles.contains(UserType.MASTER)
+                ? request.getDataAccessManager().mastersRepository.get(login, password)
+                : new Master();
+        if (master.getId() != 0) {
+            request.sendObject(UserType.MASTER);
+            clientInfo.setIdInDB(master.getId());
+            clientInfo.setType(UserType.MASTER);
+            return UserType.MASTER;
+        }
+        clientInfo.setIdInDB(0);
+        request.sendObject(UserType.UNDEFINED);
+        return null;
+    }
+
+    //Логин проверяется по всем таблицам. Фильтр логинов отвечает "точно свободен" без БД
+    //(и без подключения из пула), в БД идут только логины, которые в нем могут быть
+    private static UserType checkIfLoginExists(CommandRequest request) throws Exception {
+
+        String login = request.receiveObject();
+        var loginFilter = request.getServerContext().getDataStore().getLoginFilter();
+        if (!loginFilter.mightContain(login)) {
+            request.sendObject(Response.NOT_FOUND);
+            return null;
+        }
+        var dataAccessManager = request.getDataAccessManager();
+        var user = dataAccessManager.clientsRepository.get(login);
+        var admin = dataAccessManager.adminsRepository.get(login);
+        var master = dataAccessManager.mastersRepository.get(login);
+        if (user.getId() == 0 && admin.getId() == 0 && master.getId() == 0) {
+            if (loginFilter.isReady())
+                loginFilter.recordFalsePositive();
+            request.sendObject(Response.NOT_FOUND);
+        } else {
+            request.sendObject(Response.SUCCESSFULLY);
+        }
+        return null;
+    }
+
+    private static UserType signUpUser(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+        var clientInfo = request.getClientInfo();
+
+        User user = request.receiveObject();
+        try {
+            int id = dataAccessManager.clientsRepository.create(user);
+            clientInfo.setIdInDB(id);
+            clientInfo.setType(UserType.USER);
+            request.sendObject(Response.SUCCESSFULLY);
+            return UserType.USER;
+        } catch (Exception e) {
+            request.sendObject(Response.ERROR);
+        }
+        return null;
+    }
+
+    private static UserType signUpMaster(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+        var clientInfo = request.getClientInfo();
+
+        Master master = request.receiveObject();
+        try {
+            int id = dataAccessManager.mastersRepository.create(master);
+            clientInfo.setIdInDB(id);
+            clientInfo.setType(UserType.MASTER);
+            request.sendObject(Response.SUCCESSFULLY);
+            return UserType.MASTER;
+        } catch (Exception e) {
+            request.sendObject(Response.ERROR);
+        }
+        return null;
+    }
+
+    private static Boolean getAllPurposes(CommandRequest request) throws Exception {
+
+        var serverContext = request.getServerContext();
+        try {
+            //один и тот же готовый ответ для всех клиентов, пока справочник не изменится;
+            //при попадании подключение к БД не нужно
+            var purposeCache = serverContext.getDataStore().getPurposeCache();
+            var response = serverContext.getResponseCache().get(Command.GET_ALL_PURPOSES, purposeCache.getVersion(),
+                    () -> new ArrayList<>(request.getDataAccessManager().purposesRepository.getAll()));
+            request.sendShared(response);
+        } catch (SQLException e) {
+            request.sendObject(new ArrayList<>());
+        }
+        return true;
+    }
+
+    private static Boolean createPurpose(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        Purpose purpose = request.receiveObject();
+        try {
+            dataAccessManager.purposesRepository.create(purpose);
+            request.sendObject(Response.SUCCESSFULLY);
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+
+    private static Boolean editPurpose(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        Purpose purpose = request.receiveObject();
+        try {
+            dataAccessManager.purposesRepository.update(purpose);
+            request.sendObject(Response.SUCCESSFULLY);
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+
+    private static Boolean deletePurpose(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        int id = request.receiveObject();
+        try {
+            dataAccessManager.purposesRepository.delete(id);
+            request.sendObject(Response.SUCCESSFULLY);
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+
+    private static Boolean banClient(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        int id = request.receiveObject();
+        try {
+            var user = dataAccessManager.clientsRepository.getById(id);
+            if (user.getId() == 0) {
+                request.sendObject(Response.ERROR);
+                return true;
+            }
+            user.setStatus(Status.BANNED);
+            dataAccessManager.clientsRepository.update(user);
+            request.sendObject(Response.SUCCESSFULLY);
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+
+    private static Boolean unbanClient(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        int id = request.receiveObject();
+        try {
+            var user = dataAccessManager.clientsRepository.getById(id);
+            if (user.getId() == 0) {
+                request.sendObject(Response.ERROR);
+                return true;
+            }
+            user.setStatus(Status.NOT_BANNED);
+            dataAccessManager.clientsRepository.update(user);
+            request.sendObject(Response.SUCCESSFULLY);
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+
+    private static Boolean unbanMaster(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        int id = request.receiveObject();
+        try {
+            var user = dataAccessManager.mastersRepository.getById(id);
+            if (user.getId() == 0) {
+                request.sendObject(Response.ERROR);
+                return true;
+            }
+            user.setStatus(Status.NOT_BANNED);
+            dataAccessManager.mastersRepository.update(user);
+            request.sendObject(Response.SUCCESSFULLY);
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+
+    private static Boolean banMaster(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        int id = request.receiveObject();
+        try {
+            var user = dataAccessManager.mastersRepository.getById(id);
+            if (user.getId() == 0) {
+                request.sendObject(Response.ERROR);
+                return true;
+            }
+            user.setStatus(Status.BANNED);
+            dataAccessManager.mastersRepository.update(user);
+            request.sendObject(Response.SUCCESSFULLY);
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+
+    private static Boolean registerMaster(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        Master master = request.receiveObject();
+        try {
+            dataAccessManager.mastersRepository.create(master);
+            request.sendObject(Response.SUCCESSFULLY);
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+
+    private static Boolean registerUser(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        User user = request.receiveObject();
+        try {
+            dataAccessManager.clientsRepository.create(user);
+            request.sendObject(Response.SUCCESSFULLY);
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+
+    private static Boolean getAllCurrentMasterRecords(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+        var clientInfo = request.getClientInfo();
+
+        try {
+            var list = dataAccessManager.recordsRepository.getAllMasterRecords(clientInfo.getIdInDB());
+            request.sendObject(new ArrayList<>(list));
+        } catch (SQLException e) {
+            request.sendObject(new ArrayList<>());
+        }
+        return true;
+    }
+
+    private static Boolean getAllCurrentClientRecords(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+        var clientInfo = request.getClientInfo();
+
+        try {
+            var list = dataAccessManager.recordsRepository.getAllClientRecords(clientInfo.getIdInDB());
+            request.sendObject(new ArrayList<>(list));
+        } catch (SQLException e) {
+            request.sendObject(new ArrayList<>());
+        }
+        return true;
+    }
+
+    private static Boolean acceptRecordToCurrentMaster(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+        var clientInfo = request.getClientInfo();
+
+        int recordId = request.receiveObject();
+        try {
+            dataAccessManager.recordsRepository.addRecordToMaster(clientInfo.getIdInDB(), recordId);
+            request.sendObject(Response.SUCCESSFULLY);
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+
+    private static Boolean getAllRecords(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        try {
+            var list = dataAccessManager.recordsRepository.getAll();
+            request.sendObject(new ArrayList<>(list));
+        } catch (SQLException e) {
+            request.sendObject(new ArrayList<>());
+        }
+        return true;
+    }
+
+    private static Boolean getAllRecordsNotAccepted(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        try {
+            var list = dataAccessManager.recordsRepository.getAllNotAccepted();
+            request.sendObject(new ArrayList<>(list));
+        } catch (SQLException e) {
+            request.sendObject(new ArrayList<>());
+        }
+        return true;
+    }
+
+    private static Boolean getAllRecordsAccepted(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        try {
+            var list = dataAccessManager.recordsRepository.getAllAccepted();
+            request.sendObject(new ArrayList<>(list));
+        } catch (SQLException e) {
+            request.sendObject(new ArrayList<>());
+        }
+        return true;
+    }
+
+    private static Boolean getAllClients(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        try {
+            var list = dataAccessManager.clientsRepository.getAll();
+            request.sendObject(new ArrayList<>(list));
+        } catch (SQLException e) {
+            request.sendObject(new ArrayList<>());
+        }
+        return true;
+    }
+
+    private static Boolean getAllMasters(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        try {
+            var list = dataAccessManager.mastersRepository.getAll();
+            request.sendObject(new ArrayList<>(list));
+        } catch (SQLException e) {
+            request.sendObject(new ArrayList<>());
+        }
+        return true;
+    }
+
+    private static Boolean createRecord(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        Record record = request.receiveObject();
+        try {
+            dataAccessManager.recordsRepository.create(record);
+            request.sendObject(Response.SUCCESSFULLY);
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+
+    private static Boolean deleteRecord(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        int id = request.receiveObject();
+        try {
+            dataAccessManager.recordsRepository.delete(id);
+            request.sendObject(Response.SUCCESSFULLY);
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+
+    private static Boolean deleteAcception(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        int id = request.receiveObject();
+        try {
+            dataAccessManager.recordsRepository.deleteAcception(id);
+            request.sendObject(Response.SUCCESSFULLY);
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+
+    //Страницы: при ошибке БД - Response.ERROR, а не пустая страница, иначе клиент,
+    //загружающий страницы подряд, принял бы ее за конец списка
+    private static Boolean getRecordsPage(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        PageRequest pageRequest = request.receiveObject();
+        try {
+            request.sendObject(dataAccessManager.recordsRepository.getPage(pageRequest));
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+
+    private static Boolean getRecordsAcceptedPage(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        PageRequest pageRequest = request.receiveObject();
+        try {
+            request.sendObject(dataAccessManager.recordsRepository.getAcceptedPage(pageRequest));
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+
+    private static Boolean getRecordsNotAcceptedPage(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        PageRequest pageRequest = request.receiveObject();
+        try {
+            request.sendObject(dataAccessManager.recordsRepository.getNotAcceptedPage(pageRequest));
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+
+    private static Boolean getClientsPage(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        PageRequest pageRequest = request.receiveObject();
+        try {
+            request.sendObject(dataAccessManager.clientsRepository.getPage(pageRequest));
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+
+    private static Boolean getMastersPage(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        PageRequest pageRequest = request.receiveObject();
+        try {
+            request.sendObject(dataAccessManager.mastersRepository.getPage(pageRequest));
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+
+    private static Boolean queryRecords(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+        var clientInfo = request.getClientInfo();
+
+        RecordFilter filter = request.receiveObject();
+        PageRequest pageRequest = request.receiveObject();
+        //клиент видит только свои записи
+        if (clientInfo.getType() == UserType.USER)
+            filter.setClientId(clientInfo.getIdInDB());
+        try {
+            request.sendObject(dataAccessManager.recordsRepository.query(filter, pageRequest));
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+
+    private static Boolean getCurrentProfile(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+        var clientInfo = request.getClientInfo();
+
+        try {
+            switch (clientInfo.getType()){
+                case ADMIN -> {
+                    var obj = dataAccessManager.adminsRepository.getById(clientInfo.getIdInDB());
+                    request.sendObject(obj);
+                    break;
+                }
+                case USER -> {
+                    var obj = dataAccessManager.clientsRepository.getById(clientInfo.getIdInDB());
+                    request.sendObject(obj);
+                    break;
+                }
+                case MASTER -> {
+                    var obj = dataAccessManager.mastersRepository.getById(clientInfo.getIdInDB());
+                    request.sendObject(obj);
+                    break;
+                }
+            }
+        } catch (SQLException e) {
+            request.sendObject(new User());
+        }
+        return true;
+    }
+
+    private static Boolean editCurrentProfile(CommandRequest request) throws Exception {
+
+        var dataAccessManager = request.getDataAccessManager();
+
+        UserType type = request.receiveObject();
+
+        User user=null;
+        Master master=null;
+
+        if(type == UserType.USER)
+            user = request.receiveObject();
+        else
+            master = request.receiveObject();
+        try {
+            if(user != null)
+                dataAccessManager.clientsRepository.update(user);
+            else
+                dataAccessManager.mastersRepository.update(master);
+            request.sendObject(Response.SUCCESSFULLY);
+        } catch (SQLException e) {
+            request.sendObject(Response.ERROR);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,14 @@
+package serverEndPoint.processing;
+
+//Обертка вокруг выполнения команды (замер времени, метрики, кэш, проверка прав).
+//Interceptor решает, вызывать ли next.proceed(), и может подменить результат
+@FunctionalInterface
+public interface CommandInterceptor {
+
+    Object intercept(CommandRequest request, Invocation next) throws Exception;
+
+    @FunctionalInterface
+    interface Invocation {
+        Object proceed() throws Exception;
+    }
+}
@@ -0,0 +1,51 @@
+package serverEndPoint.processing;
+
+import Commands.AuthorizationCommand;
+import Commands.Command;
+import Commands.Response;
+import enums.UserType;
+import serverEndPoint.ConnectedClientInfo;
+
+import java.io.IOException;
+
+//Выполнение команд клиента. Не зависит от транспорта: аргументы команды читаются
+//и ответы отправляются через ObjectChannel, обработчики берутся из общих для сервера
+//CommandDispatcher (ServerContext).
+//Подключение к БД берется из пула на время одной команды и только если команде оно нужно
+public class CommandProcessor {
+
+    private final ServerContext serverContext;
+
+    private final ConnectedClientInfo clientInfo;
+
+    public CommandProcessor(ConnectedClientInfo clientInfo, ServerContext serverContext) {
+        this.clientInfo = clientInfo;
+        this.serverContext = serverContext;
+    }
+
+    //PING отвечается в любом состоянии подключения и без подключения к БД.
+    //Возвращает true, если команда была PING
+    public boolean answerPing(Object command, ObjectChannel channel) throws IOException {
+
+        if (command != Command.PING) return false;
+        channel.sendObject(Response.PONG);
+        return true;
+    }
+
+    //Обработка команды до входа в систему.
+    //Возвращает тип пользователя при успешном входе/регистрации, иначе null
+    public UserType authorize(AuthorizationCommand command, ObjectChannel channel) throws Exception {
+
+        try (var request = new CommandRequest(command, clientInfo, channel, serverContext)) {
+            return serverContext.getAuthorizationDispatcher().dispatch(command, request);
+        }
+    }
+
+    //Обработка команды вошедшего пользователя. Возвращает false, если клиент вышел (EXIT)
+    public boolean process(Command command, ObjectChannel channel) throws Exception {
+
+        try (var request = new CommandRequest(command, clientInfo, channel, serverContext)) {
+            return serverContext.getCommandDispatcher().dispatch(command, request);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package serverEndPoint.processing;
+
+import dbLayer.managers.DataAccessManager;
+import serverEndPoint.ConnectedClientInfo;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+//Одна выполняемая команда: клиент, канал для аргументов и ответа, общие объекты сервера.
+//DataAccessManager создается при первом обращении и закрывается вместе с запросом
+public class CommandRequest implements AutoCloseable {
+
+    private final Enum<?> command;
+
+    private final ConnectedClientInfo clientInfo;
+
+    private final ObjectChannel channel;
+
+    private final ServerContext serverContext;
+
+    private DataAccessManager dataAccessManager;
+
+    //время записи ответов клиенту
+    private long writeNanos;
+
+    public CommandRequest(Enum<?> command, ConnectedClientInfo clientInfo, ObjectChannel channel,
+                          ServerContext serverContext) {
+        this.command = command;
+        this.clientInfo = clientInfo;
+        this.channel = channel;
+        this.serverContext = serverContext;
+    }
+
+    public Enum<?> getCommand() {
+        return command;
+    }
+
+    public ConnectedClientInfo getClientInfo() {
+        return clientInfo;
+    }
+
+    public ObjectChannel getChannel() {
+        return channel;
+    }
+
+    public ServerContext getServerContext() {
+        return serverContext;
+    }
+
+    public DataAccessManager getDataAccessManager() {
+        if (dataAccessManager == null)
+            dataAccessManager = new DataAccessManager(serverContext.getDataStore());
+        return dataAccessManager;
+    }
+
+    public <T> T receiveObject() throws IOException, ClassNotFoundException {
+        return channel.receiveObject();
+    }
+
+    public void sendObject(Serializable object) throws IOException {
+        var start = System.nanoTime();
+        try {
+            channel.sendObject(object);
+        } finally {
+            writeNanos += System.nanoTime() - start;
+        }
+    }
+
+    public void sendShared(SharedResponse response) throws IOException {
+        var start = System.nanoTime();
+        try {
+            channel.sendShared(response);
+        } finally {
+            writeNanos += System.nanoTime() - start;
+        }
+    }
+
+    public long getWriteNanos() {
+        return writeNanos;
+    }
+
+    //Время и ошибки запросов к БД (0, если команда к БД не обращалась)
+    public long getSqlNanos() {
+        return dataAccessManager != null ? dataAccessManager.getSqlNanos() : 0;
+    }
+
+    public int getSqlErrors() {
+        return dataAccessManager != null ? dataAccessManager.getSqlErrors() : 0;
+    }
+
+    @Override
+    public void close() {
+        if (dataAccessManager != null)
+            dataAccessManager.close();
+    }
+}
@@ -0,0 +1,45 @@
+package serverEndPoint.processing;
+
+import protocol.Frame;
+import protocol.Opcodes;
+import protocol.PayloadCodec;
+import protocol.PayloadReader;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.List;
+
+//Канал для одного кадра запроса: аргументы читаются из кадра,
+//ответ уходит клиенту отдельным кадром с номером запроса
+public class FrameChannel implements ObjectChannel {
+
+    private final PayloadReader requestReader;
+
+    private final PayloadCodec codec;
+
+    private final FrameSender sender;
+
+    private final int correlationId;
+
+    public FrameChannel(PayloadReader requestReader, PayloadCodec codec, FrameSender sender, int correlationId) {
+        this.requestReader = requestReader;
+        this.correlationId = correlationId;
+        this.codec = codec;
+        this.sender = sender;
+    }
+
+    @Override
+    public void sendObject(Serializable object) throws IOException {
+        sender.send(new Frame(Opcodes.RESPONSE, correlationId, codec.encode(List.of(object))));
+    }
+
+    @Override
+    public void sendShared(SharedResponse response) throws IOException {
+        sender.send(new Frame(Opcodes.RESPONSE, correlationId, response.getPayload(codec)));
+    }
+
+    @Override
+    public <T> T receiveObject() throws IOException, ClassNotFoundException {
+        return requestReader.read();
+    }
+}
@@ -0,0 +1,75 @@
+package serverEndPoint.processing;
+
+import Commands.AuthorizationCommand;
+import Commands.Command;
+import Commands.Response;
+import protocol.Frame;
+import protocol.Opcodes;
+import protocol.WireFormat;
+import serverEndPoint.sessions.Session;
+
+import java.io.IOException;
+
+//Выполнение кадров запросов одного подключения (для обоих транспортов).
+//До входа в систему принимаются только AuthorizationCommand, после - только Command
+public class FrameRequestHandler {
+
+    private static final byte[] EMPTY_PAYLOAD = new byte[0];
+
+    private final CommandProcessor commandProcessor;
+
+    private final Session session;
+
+    private final WireFormat wireFormat;
+
+    //Кадры одного подключения выполняются строго по очереди, но возможно в разных потоках
+    private volatile boolean authorized;
+
+    public FrameRequestHandler(Session session, ServerContext serverContext, WireFormat wireFormat) {
+        this.session = session;
+        this.wireFormat = wireFormat;
+        commandProcessor = new CommandProcessor(session.getClientInfo(), serverContext);
+    }
+
+    //Кадр GOING_AWAY перед закрытием подключения при остановке сервера
+    public static void sendGoingAway(FrameSender sender) {
+        try {
+            sender.send(new Frame(Opcodes.GOING_AWAY, 0, EMPTY_PAYLOAD));
+        } catch (IOException ignored) { //клиент уже отключился
+        }
+    }
+
+    public WireFormat getWireFormat() {
+        return wireFormat;
+    }
+
+    //Кадр, полученный после начала остановки сервера, не выполняется - подключение закрывается
+    public void handle(Frame frame, FrameSender sender) throws Exception {
+
+        if (!session.beginCommand())
+            throw new IOException("Server is shutting down");
+        try {
+            execute(frame, sender);
+        } finally {
+            session.endCommand();
+        }
+    }
+
+    private void execute(Frame frame, FrameSender sender) throws Exception {
+
+        var codec = wireFormat.getCodec();
+        var channel = new FrameChannel(codec.open(frame.payload()), codec, sender, frame.correlationId());
+        Object command = Opcodes.command(frame.opcode());
+
+        if (commandProcessor.answerPing(command, channel)) {
+            return;
+        }
+        if (!authorized && command instanceof AuthorizationCommand authorizationCommand) {
+            authorized = commandProcessor.authorize(authorizationCommand, channel) != null;
+        } else if (authorized && command instanceof Command clientCommand) {
+            authorized = commandProcessor.process(clientCommand, channel);
+        } else {
+            channel.sendObject(Response.UNKNOWN_COMMAND);
+        }
+    }
+}
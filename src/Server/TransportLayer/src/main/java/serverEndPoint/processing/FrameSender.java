@@ -0,0 +1,11 @@
+package serverEndPoint.processing;
+
+import protocol.Frame;
+
+import java.io.IOException;
+
+//Отправка кадра клиенту средствами транспорта
+public interface FrameSender {
+
+    void send(Frame frame) throws IOException;
+}
@@ -0,0 +1,18 @@
+package serverEndPoint.processing;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+//Канал обмена объектами с клиентом (реализуется каждым транспортом)
+public interface ObjectChannel {
+
+    void sendObject(Serializable object) throws IOException;
+
+    <T> T receiveObject() throws IOException, ClassNotFoundException;
+
+    //Отправка общего ответа. Кадровые каналы пишут уже закодированные данные,
+    //поток объектов сериализует объект ответа
+    default void sendShared(SharedResponse response) throws IOException {
+        sendObject(response.getValue());
+    }
+}
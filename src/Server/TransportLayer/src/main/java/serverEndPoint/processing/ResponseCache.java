@@ -0,0 +1,49 @@
+package serverEndPoint.processing;
+
+import Commands.Command;
+
+import java.io.Serializable;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+//Готовые ответы на команды чтения, которые не зависят от клиента.
+//Ответ хранится вместе с версией данных, из которых он построен, и строится заново,
+//только когда версия данных меняется
+public class ResponseCache {
+
+    @FunctionalInterface
+    public interface Loader {
+        Serializable load() throws SQLException;
+    }
+
+    private record Entry(long version, SharedResponse response) {
+    }
+
+    private final Map<Command, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    //Версию данных нужно получить до их чтения: если данные изменятся во время загрузки,
+    //ответ сохранится со старой версией и следующий запрос построит его заново
+    public SharedResponse get(Command command, long version, Loader loader) throws SQLException {
+
+        var entry = entries.get(command);
+        if (entry != null && entry.version() == version) {
+            hits.increment();
+            return entry.response();
+        }
+        misses.increment();
+        var response = new SharedResponse(loader.load());
+        entries.merge(command, new Entry(version, response),
+                (current, loaded) -> loaded.version() >= current.version() ? loaded : current);
+        return response;
+    }
+
+    public ResponseCacheStats getStats() {
+        return new ResponseCacheStats(entries.size(), hits.sum(), misses.sum());
+    }
+}
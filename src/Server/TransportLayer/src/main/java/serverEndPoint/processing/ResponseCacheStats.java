@@ -0,0 +1,14 @@
+package serverEndPoint.processing;
+
+//Снимок состояния кэша готовых ответов
+public record ResponseCacheStats(int entries,
+                                 long hits,
+                                 long misses) {
+
+    @Override
+    public String toString() {
+        return "entries=" + entries +
+                ", hits=" + hits +
+                ", misses=" + misses;
+    }
+}
@@ -0,0 +1,27 @@
+package serverEndPoint.processing;
+
+import enums.UserType;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
+
+//Проверка прав: команда выполняется только для перечисленных ролей.
+//Запрещенная команда разрывает подключение - в потоке объектов ее аргументы остались бы непрочитанными
+public class RoleInterceptor implements CommandInterceptor {
+
+    private final Set<UserType> allowedTypes;
+
+    public RoleInterceptor(UserType first, UserType... rest) {
+        allowedTypes = EnumSet.of(first, rest);
+    }
+
+    @Override
+    public Object intercept(CommandRequest request, Invocation next) throws Exception {
+
+        var type = request.getClientInfo().getType();
+        if (type == null || !allowedTypes.contains(type))
+            throw new IOException("Command " + request.getCommand() + " is not allowed for " + type);
+        return next.proceed();
+    }
+}
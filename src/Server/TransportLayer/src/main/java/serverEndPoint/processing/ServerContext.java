@@ -0,0 +1,58 @@
+package serverEndPoint.processing;
+
+import Commands.AuthorizationCommand;
+import Commands.Command;
+import dbLayer.managers.DataStore;
+import enums.UserType;
+import serverEndPoint.metrics.MetricsInterceptor;
+import serverEndPoint.metrics.ServerMetrics;
+import serverEndPoint.sessions.SessionRegistry;
+
+//Общие для всех подключений объекты сервера, которые транспорты передают в обработку команд
+public class ServerContext {
+
+    private final DataStore dataStore;
+
+    private final ResponseCache responseCache = new ResponseCache();
+
+    private final SessionRegistry sessionRegistry = new SessionRegistry();
+
+    private final ServerMetrics metrics = new ServerMetrics();
+
+    //обработчики команд, общие для всех подключений обоих транспортов
+    private final CommandDispatcher<AuthorizationCommand, UserType> authorizationDispatcher =
+            CommandHandlers.authorization();
+
+    private final CommandDispatcher<Command, Boolean> commandDispatcher = CommandHandlers.commands();
+
+    public ServerContext(DataStore dataStore) {
+        this.dataStore = dataStore;
+        var metricsInterceptor = new MetricsInterceptor(metrics);
+        authorizationDispatcher.intercept(metricsInterceptor);
+        commandDispatcher.intercept(metricsInterceptor);
+    }
+
+    public DataStore getDataStore() {
+        return dataStore;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    public SessionRegistry getSessionRegistry() {
+        return sessionRegistry;
+    }
+
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    public CommandDispatcher<AuthorizationCommand, UserType> getAuthorizationDispatcher() {
+        return authorizationDispatcher;
+    }
+
+    public CommandDispatcher<Command, Boolean> getCommandDispatcher() {
+        return commandDispatcher;
+    }
+}
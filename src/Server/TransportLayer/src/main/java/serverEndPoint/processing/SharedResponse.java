@@ -0,0 +1,38 @@
+package serverEndPoint.processing;
+
+import protocol.PayloadCodec;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Ответ, общий для всех подключений: объект и его закодированные данные кадра
+//(кодируются один раз для каждого формата). Объект ответа нельзя изменять
+public class SharedResponse {
+
+    private final Serializable value;
+
+    private final Map<PayloadCodec, byte[]> payloads = new ConcurrentHashMap<>();
+
+    SharedResponse(Serializable value) {
+        this.value = value;
+    }
+
+    public Serializable getValue() {
+        return value;
+    }
+
+    public byte[] getPayload(PayloadCodec codec) throws IOException {
+
+        var payload = payloads.get(codec);
+        if (payload == null) {
+            payload = codec.encode(List.of(value));
+            var existing = payloads.putIfAbsent(codec, payload);
+            if (existing != null)
+                payload = existing;
+        }
+        return payload;
+    }
+}
@@ -0,0 +1,19 @@
+package serverEndPoint.sessions;
+
+//Итог плавной остановки: сколько подключений было, сколько из них выполняли команду,
+//сколько закрылись сами (drained) и сколько пришлось закрыть по истечении времени ожидания (forced)
+public record DrainReport(int sessions,
+                          int busy,
+                          int drained,
+                          int forced,
+                          long durationMs) {
+
+    @Override
+    public String toString() {
+        return "sessions=" + sessions +
+                ", busy=" + busy +
+                ", drained=" + drained +
+                ", forced=" + forced +
+                ", durationMs=" + durationMs;
+    }
+}
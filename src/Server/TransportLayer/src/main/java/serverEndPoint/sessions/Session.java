@@ -0,0 +1,183 @@
+package serverEndPoint.sessions;
+
+import serverEndPoint.ConnectedClientInfo;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+//Запись о живом подключении в реестре: клиент, время подключения, трафик и последняя активность.
+//Транспорт передает closer - способ принудительно закрыть подключение
+public class Session {
+
+    //старший бит state - подключение закрывается при остановке сервера, остальные - число выполняемых команд
+    private static final int DRAINING = 1 << 30;
+
+    private final long id;
+
+    private final ConnectedClientInfo clientInfo;
+
+    private final long connectedAt = System.currentTimeMillis();
+
+    private final LongAdder bytesIn = new LongAdder();
+
+    private final LongAdder bytesOut = new LongAdder();
+
+    //время последнего получения данных от клиента
+    private volatile long lastActivity = connectedAt;
+
+    private final Runnable closer;
+
+    private final SessionRegistry registry;
+
+    private final AtomicBoolean deregistered = new AtomicBoolean();
+
+    private final AtomicBoolean reaped = new AtomicBoolean();
+
+    private final AtomicInteger state = new AtomicInteger();
+
+    private final AtomicBoolean wentAway = new AtomicBoolean();
+
+    //сообщение клиенту об остановке сервера перед закрытием (задает транспорт, если протокол это умеет)
+    private volatile Runnable goingAwaySignal;
+
+    Session(long id, ConnectedClientInfo clientInfo, Runnable closer, SessionRegistry registry) {
+        this.id = id;
+        this.clientInfo = clientInfo;
+        this.closer = closer;
+        this.registry = registry;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public ConnectedClientInfo getClientInfo() {
+        return clientInfo;
+    }
+
+    public long getConnectedAt() {
+        return connectedAt;
+    }
+
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    public long getLastActivity() {
+        return lastActivity;
+    }
+
+    public void addBytesIn(long count) {
+        if (count <= 0) return;
+        bytesIn.add(count);
+        lastActivity = System.currentTimeMillis();
+    }
+
+    public void addBytesOut(long count) {
+        if (count > 0) bytesOut.add(count);
+    }
+
+    //Принудительное закрытие подключения; запись удаляется из реестра, когда транспорт
+    //завершит обработку клиента (deregister)
+    public void close() {
+        closer.run();
+    }
+
+    public void setGoingAwaySignal(Runnable goingAwaySignal) {
+        this.goingAwaySignal = goingAwaySignal;
+    }
+
+    //Начало выполнения команды. false - сервер останавливается, новые команды не выполняются
+    public boolean beginCommand() {
+
+        while (true) {
+            int current = state.get();
+            if ((current & DRAINING) != 0) return false;
+            if (state.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    //Конец выполнения команды; при остановке сервера последняя команда закрывает подключение
+    public void endCommand() {
+        if (state.decrementAndGet() == DRAINING)
+            goAway();
+    }
+
+    public boolean isBusy() {
+        return (state.get() & ~DRAINING) != 0;
+    }
+
+    //Остановка сервера: свободное подключение закрывается сразу, занятое - после текущей команды
+    void drain() {
+        if (state.getAndUpdate(current -> current | DRAINING) == 0)
+            goAway();
+    }
+
+    //Клиенту отправляется сигнал остановки (если есть) и подключение закрывается
+    private void goAway() {
+
+        if (!wentAway.compareAndSet(false, true)) return;
+        var signal = goingAwaySignal;
+        try {
+            if (signal != null) signal.run();
+        } catch (RuntimeException ignored) { //клиент мог уже отключиться
+        }
+        close();
+    }
+
+    //true только при первом вызове - подключение закрывается по простою один раз
+    boolean markReaped() {
+        return reaped.compareAndSet(false, true);
+    }
+
+    //Удаление из реестра; повторные вызовы ничего не делают
+    public void deregister() {
+        if (deregistered.compareAndSet(false, true))
+            registry.remove(this);
+    }
+
+    //Обертки потоков сокета, считающие трафик подключения
+    public InputStream countInput(InputStream inputStream) {
+        return new FilterInputStream(inputStream) {
+            @Override
+            public int read() throws IOException {
+                int value = super.read();
+                if (value >= 0) addBytesIn(1);
+                return value;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                int read = super.read(bytes, offset, length);
+                addBytesIn(read);
+                return read;
+            }
+        };
+    }
+
+    public OutputStream countOutput(OutputStream outputStream) {
+        return new FilterOutputStream(outputStream) {
+            @Override
+            public void write(int value) throws IOException {
+                out.write(value);
+                addBytesOut(1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                out.write(bytes, offset, length);
+                addBytesOut(length);
+            }
+        };
+    }
+}
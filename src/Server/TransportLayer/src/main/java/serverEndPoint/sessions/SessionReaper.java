@@ -0,0 +1,55 @@
+package serverEndPoint.sessions;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+//Фоновая проверка реестра: подключения, от которых дольше idleTimeoutMs не было данных
+//(клиент уснул, пропала сеть), закрываются, а их потоки и подключения к БД освобождаются.
+//Живой клиент при простое шлет Command.PING
+public class SessionReaper {
+
+    private final SessionRegistry registry;
+
+    private final long idleTimeoutMs;
+
+    private final long intervalMs;
+
+    private ScheduledExecutorService scheduler;
+
+    public SessionReaper(SessionRegistry registry, long idleTimeoutMs, long intervalMs) {
+        this.registry = registry;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.intervalMs = Math.max(1, intervalMs);
+    }
+
+    //idleTimeoutMs <= 0 - проверка выключена
+    public synchronized void start() {
+
+        if (idleTimeoutMs <= 0 || scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "session-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::reapIdle, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null)
+            scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    //Возвращает число закрытых подключений
+    public int reapIdle() {
+
+        var deadline = System.currentTimeMillis() - idleTimeoutMs;
+        int reaped = 0;
+        for (var session : registry.getSessions()) {
+            if (session.getLastActivity() < deadline && registry.reap(session))
+                reaped++;
+        }
+        return reaped;
+    }
+}
@@ -0,0 +1,148 @@
+package serverEndPoint.sessions;
+
+import enums.UserType;
+import serverEndPoint.ConnectedClientInfo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+//Реестр живых подключений обоих транспортов.
+//Подключение регистрируется при приеме и удаляется при любом завершении обработки клиента,
+//поэтому число подключений точное, а отключившиеся клиенты не занимают память
+public class SessionRegistry {
+
+    //как часто при остановке проверять, все ли подключения закрылись
+    private static final long DRAIN_POLL_MS = 50;
+
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextId = new AtomicLong();
+
+    private final AtomicInteger peakSessions = new AtomicInteger();
+
+    private final AtomicLong totalSessions = new AtomicLong();
+
+    private final LongAdder reapedSessions = new LongAdder();
+
+    //сервер останавливается - новые подключения сразу закрываются
+    private volatile boolean draining;
+
+    public Session register(ConnectedClientInfo clientInfo, Runnable closer) {
+
+        var session = new Session(nextId.incrementAndGet(), clientInfo, closer, this);
+        sessions.put(session.getId(), session);
+        totalSessions.incrementAndGet();
+        peakSessions.accumulateAndGet(sessions.size(), Math::max);
+        //принято уже после начала остановки
+        if (draining)
+            session.drain();
+        return session;
+    }
+
+    void remove(Session session) {
+        sessions.remove(session.getId(), session);
+    }
+
+    public Session get(long id) {
+        return sessions.get(id);
+    }
+
+    public Collection<Session> getSessions() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public int getPeak() {
+        return peakSessions.get();
+    }
+
+    public long getTotal() {
+        return totalSessions.get();
+    }
+
+    public long getReaped() {
+        return reapedSessions.sum();
+    }
+
+    //Закрытие подключения, от которого слишком долго нет данных (SessionReaper или таймаут чтения сокета).
+    //Возвращает false, если подключение уже закрыто по простою
+    public boolean reap(Session session) {
+
+        if (!session.markReaped()) return false;
+        reapedSessions.increment();
+        System.out.println("Session " + session.getId() + " closed after being idle");
+        try {
+            session.close();
+        } catch (RuntimeException ignored) {
+        }
+        return true;
+    }
+
+    //Плавная остановка: свободные подключения закрываются сразу (клиенты кадрового протокола
+    //получают GOING_AWAY), занятые - как только закончат текущую команду.
+    //Подключения, не закрывшиеся за timeoutMs, закрываются принудительно
+    public DrainReport drain(long timeoutMs) {
+
+        var start = System.nanoTime();
+        draining = true;
+        var drainingSessions = new ArrayList<>(sessions.values());
+        int busy = 0;
+        for (var session : drainingSessions) {
+            if (session.isBusy()) busy++;
+            session.drain();
+        }
+
+        var deadline = start + TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeoutMs));
+        while (!sessions.isEmpty() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(DRAIN_POLL_MS);
+            } catch (InterruptedException e) {
+                //ждать больше нельзя - закрываем оставшиеся
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        int forced = sessions.size();
+        closeAll();
+        return new DrainReport(drainingSessions.size(), busy, Math.max(0, drainingSessions.size() - forced), forced,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    //Закрытие всех подключений при остановке сервера
+    public void closeAll() {
+        for (var session : sessions.values()) {
+            try {
+                session.close();
+            } catch (RuntimeException ignored) {
+            }
+        }
+    }
+
+    public SessionStats getStats() {
+
+        var byRole = new EnumMap<UserType, Integer>(UserType.class);
+        for (var type : UserType.values())
+            byRole.put(type, 0);
+        long bytesIn = 0;
+        long bytesOut = 0;
+        for (var session : sessions.values()) {
+            var type = session.getClientInfo().getType();
+            byRole.merge(type == null ? UserType.UNDEFINED : type, 1, Integer::sum);
+            bytesIn += session.getBytesIn();
+            bytesOut += session.getBytesOut();
+        }
+        return new SessionStats(sessions.size(), peakSessions.get(), totalSessions.get(), reapedSessions.sum(),
+                byRole, bytesIn, bytesOut);
+    }
+}
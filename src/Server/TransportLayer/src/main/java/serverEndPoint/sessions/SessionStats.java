@@ -0,0 +1,34 @@
+package serverEndPoint.sessions;
+
+import enums.UserType;
+
+import java.util.Map;
+
+//Снимок реестра подключений; UNDEFINED - клиенты, еще не прошедшие вход.
+//Трафик считается по живым подключениям, reaped - всего закрыто по простою
+public record SessionStats(int active,
+                           int peak,
+                           long total,
+                           long reaped,
+                           Map<UserType, Integer> byRole,
+                           long bytesIn,
+                           long bytesOut) {
+
+    public int count(UserType type) {
+        return byRole.getOrDefault(type, 0);
+    }
+
+    @Override
+    public String toString() {
+        return "active=" + active +
+                ", peak=" + peak +
+                ", total=" + total +
+                ", reaped=" + reaped +
+                ", users=" + count(UserType.USER) +
+                ", masters=" + count(UserType.MASTER) +
+                ", admins=" + count(UserType.ADMIN) +
+                ", unauthorized=" + count(UserType.UNDEFINED) +
+                ", bytesIn=" + bytesIn +
+                ", bytesOut=" + bytesOut;
+    }
+}
@@ -2,47 +2,68 @@ package serverEndPoint.threads;
 
 import Commands.AuthorizationCommand;
 import Commands.Command;
-import Commands.Response;
-import dbLayer.managers.DataAccessManager;
-import entities.*;
-import entities.Record;
+import serverEndPoint.processing.ServerContext;
 import enums.UserType;
+import protocol.Frame;
+import protocol.Frames;
+import protocol.WireFormat;
 import serverEndPoint.ConnectedClientInfo;
+import serverEndPoint.processing.CommandProcessor;
+import serverEndPoint.processing.FrameRequestHandler;
+import serverEndPoint.processing.ObjectChannel;
+import serverEndPoint.sessions.Session;
 
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.Serializable;
-import java.sql.Connection;
-import java.sql.SQLException;
-import java.util.ArrayList;
+import java.io.*;
+import java.net.SocketTimeoutException;
 
-//В этом потоке происходит взаимодействие с клиентом
-public class ClientProcessingThread extends Thread {
+//В этом потоке происходит взаимодействие с клиентом.
+//Поток для него выбирает ConnectionExecutor (платформенный или виртуальный).
+//Формат обмена определяется по первым байтам от клиента: заголовок ObjectOutputStream -
+//старый протокол потока объектов, MAGIC одного из WireFormat - кадровый протокол
+public class ClientProcessingThread implements Runnable, ObjectChannel {
 
-    private final DataAccessManager dataAccessManager;
+    private final CommandProcessor commandProcessor;
 
     private final ConnectedClientInfo clientInfo;
 
-    private final ObjectOutputStream objectOutputStream;
+    private final ServerContext serverContext;
 
-    private final ObjectInputStream objectInputStream;
+    //запись в реестре подключений, удаляется при завершении обработки клиента
+    private final Session session;
 
-    public ClientProcessingThread(ConnectedClientInfo clientInfo, Connection dbConnection) throws IOException {
+    private ObjectOutputStream objectOutputStream;
+
+    private ObjectInputStream objectInputStream;
+
+    //Используются в кадровом протоколе
+    private DataInputStream frameInputStream;
+
+    private DataOutputStream frameOutputStream;
+
+    //Поток, в котором сейчас выполняется обработка клиента
+    private volatile Thread runningThread;
+
+    public ClientProcessingThread(ConnectedClientInfo clientInfo, ServerContext serverContext) {
         this.clientInfo = clientInfo;
-        var socket = clientInfo.getConnectionSocket(); //создается сокет для подключения к клиенту
-        objectOutputStream = new ObjectOutputStream(socket.getOutputStream());//запись данных в сокет
-        objectInputStream = new ObjectInputStream(socket.getInputStream());//чтение данных из сокета
-        dataAccessManager = new DataAccessManager(dbConnection);//обрабатывает запросы к бд
+        this.serverContext = serverContext;
+        //обрабатывает запросы к бд
+        commandProcessor = new CommandProcessor(clientInfo, serverContext);
+        session = serverContext.getSessionRegistry().register(clientInfo, this::interrupt);
     }
 
-    private void sendObject(Serializable object) throws IOException {
+    public Session getSession() {
+        return session;
+    }
+
+    @Override
+    public void sendObject(Serializable object) throws IOException {
 
         objectOutputStream.writeObject(object);
         objectOutputStream.flush();
     }
 
-    private <T> T receiveObject() throws IOException, ClassNotFoundException {
+    @Override
+    public <T> T receiveObject() throws IOException, ClassNotFoundException {
 
         return (T) objectInputStream.readObject();
     }
@@ -50,6 +71,33 @@ public class ClientProcessingThread extends Thread {
     @Override
     public void run() {
 
+        runningThread = Thread.currentThread();
+        try {
+            serve();
+        } catch (RuntimeException e) {
+            //от клиента дольше таймаута чтения не было данных (даже PING)
+            if (e.getCause() instanceof SocketTimeoutException)
+                serverContext.getSessionRegistry().reap(session);
+            throw e;
+        } finally {
+            //клиент отключился или обработка упала - освобождаем сокет и запись в реестре
+            closeSocket();
+            session.deregister();
+        }
+    }
+
+    private void serve() {
+
+        WireFormat wireFormat;
+        try {
+            wireFormat = negotiate();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        if (wireFormat != null) {
+            processFrames(wireFormat);
+            return;
+        }
         while (true) {
             try {
                 switch (clientLobby()) {
@@ -63,15 +111,68 @@ public class ClientProcessingThread extends Thread {
         }
     }
 
-    @Override
+    //Потоки сокета создаются здесь, а не в конструкторе, чтобы ожидание первых байт
+    //от клиента не задерживало прием других подключений.
+    //Возвращает null для старого протокола потока объектов
+    private WireFormat negotiate() throws IOException {
+
+        var socket = clientInfo.getConnectionSocket(); //сокет для подключения к клиенту
+        var inputStream = new BufferedInputStream(session.countInput(socket.getInputStream()));
+        var dataInputStream = new DataInputStream(inputStream);
+        inputStream.mark(Short.BYTES);
+        if (dataInputStream.readUnsignedShort() == WireFormat.OBJECT_STREAM_MAGIC) {
+            inputStream.reset();
+            //буфер: ответ уходит одним сегментом при flush, а не мелкими записями, которые Nagle
+            //задерживает до подтверждения предыдущих
+            objectOutputStream = new ObjectOutputStream(new BufferedOutputStream(
+                    session.countOutput(socket.getOutputStream())));//запись данных в сокет
+            //клиент ждет заголовок потока в конструкторе ObjectInputStream
+            objectOutputStream.flush();
+            objectInputStream = new ObjectInputStream(inputStream);//чтение данных из сокета
+            return null;
+        }
+        inputStream.reset();
+        var wireFormat = WireFormat.fromMagic(dataInputStream.readInt());
+        if (wireFormat == null)
+            throw new StreamCorruptedException("Unknown protocol from " + clientInfo.getConnectionSocket());
+        frameInputStream = dataInputStream;
+        frameOutputStream = new DataOutputStream(new BufferedOutputStream(session.countOutput(socket.getOutputStream())));
+        //подтверждаем выбранный формат
+        frameOutputStream.writeInt(wireFormat.getMagic());
+        frameOutputStream.flush();
+        return wireFormat;
+    }
+
+    private void processFrames(WireFormat wireFormat) {
+
+        var requestHandler = new FrameRequestHandler(session, serverContext, wireFormat);
+        session.setGoingAwaySignal(() -> FrameRequestHandler.sendGoingAway(this::sendFrame));
+        while (true) {
+            try {
+                requestHandler.handle(Frames.readFrame(frameInputStream), this::sendFrame);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private void sendFrame(Frame frame) throws IOException {
+        Frames.writeFrame(frameOutputStream, frame);
+    }
+
     public void interrupt() {
+        //Заканчиваем работу
+        closeSocket();
+        var thread = runningThread;
+        if (thread != null)
+            thread.interrupt();
+    }
+
+    private void closeSocket() {
         try {
-            //Заканчиваем работу
             clientInfo.getConnectionSocket().close();
-        } catch (IOException e) { //Аналогично
-            throw new RuntimeException(e);
+        } catch (IOException ignored) { //сокет уже не нужен
         }
-        super.interrupt();
     }
 
     public ConnectedClientInfo getClientInfo() {
@@ -82,337 +183,41 @@ public class ClientProcessingThread extends Thread {
 
         while (true) {
 
-            AuthorizationCommand command = receiveObject();
-            switch (command) {
-                case AUTHORIZE -> {
-
-                    String login = receiveObject();
-                    String password = receiveObject();
-                    var user = dataAccessManager.clientsRepository.get(login, password);
-                    if (user.getId() != 0 && user.getStatus() == Status.NOT_BANNED) {
-                        sendObject(UserType.USER);
-                        clientInfo.setIdInDB(user.getId());
-                        clientInfo.setType(UserType.USER);
-                        return UserType.USER;
-                    }
-                    var admin = dataAccessManager.adminsRepository.get(login, password);
-                    if (admin.getId() != 0) {
-                        sendObject(UserType.ADMIN);
-                        clientInfo.setIdInDB(admin.getId());
-                        clientInfo.setType(UserType.ADMIN);
-                        return UserType.ADMIN;
-                    }
-                    var master = dataAccessManager.mastersRepository.get(login, password);
-                    if (master.getId() != 0) {
-                        sendObject(UserType.MASTER);
-                        clientInfo.setIdInDB(master.getId());
-                        clientInfo.setType(UserType.MASTER);
-                        return UserType.MASTER;
-                    }
-                    clientInfo.setIdInDB(0);
-                    sendObject(UserType.UNDEFINED);
-                }
-                case CHECK_IF_LOGIN_EXISTS -> {
-
-                    String login = receiveObject();
-                    var user = dataAccessManager.clientsRepository.get(login);
-                    var admin = dataAccessManager.adminsRepository.get(login);
-                    if (user.getId() == 0 && admin.getId() == 0) {
-                        sendObject(Response.NOT_FOUND);
-                    } else {
-                        sendObject(Response.SUCCESSFULLY);
-                    }
-                }
-                case REGISTER -> {
-                    User user = receiveObject();
-                    try {
-                        int id = dataAccessManager.clientsRepository.create(user);
-                        clientInfo.setIdInDB(id);
-                        clientInfo.setType(UserType.USER);
-                        sendObject(Response.SUCCESSFULLY);
-                        return UserType.USER;
-                    } catch (Exception e) {
-                        sendObject(Response.ERROR);
-                    }
-                }
-                case REGISTER_MASTER -> {
-                    Master master = receiveObject();
-                    try {
-                        int id = dataAccessManager.mastersRepository.create(master);
-                        clientInfo.setIdInDB(id);
-                        clientInfo.setType(UserType.MASTER);
-                        sendObject(Response.SUCCESSFULLY);
-                        return UserType.MASTER;
-                    } catch (Exception e) {
-                        sendObject(Response.ERROR);
-                    }
-                }
-                default -> {
-                    sendObject(Response.UNKNOWN_COMMAND);
-                }
+            Object command = receiveObject();
+            beginCommand();
+            try {
+                if (commandProcessor.answerPing(command, this))
+                    continue;
+                var userType = commandProcessor.authorize((AuthorizationCommand) command, this);
+                if (userType != null)
+                    return userType;
+            } finally {
+                session.endCommand();
             }
         }
     }
 
-    private void processing() throws IOException, ClassNotFoundException {
+    private void processing() throws Exception {
 
         while (true) {
 
             Command command = receiveObject();
-            switch (command) {
-
-                case EXIT -> {
+            beginCommand();
+            try {
+                if (commandProcessor.answerPing(command, this))
+                    continue;
+                if (!commandProcessor.process(command, this))
                     return;
-                }
-                case GET_ALL_PURPOSES -> {
-                    try {
-                        var list = dataAccessManager.purposesRepository.getAll();
-                        sendObject(new ArrayList<>(list));
-                    } catch (SQLException e) {
-                        sendObject(new ArrayList<>());
-                    }
-                }
-                case CREATE_PURPOSE -> {
-                    Purpose purpose = receiveObject();
-                    try {
-                        dataAccessManager.purposesRepository.create(purpose);
-                        sendObject(Response.SUCCESSFULLY);
-                    } catch (SQLException e) {
-                        sendObject(Response.ERROR);
-                    }
-                }
-                case EDIT_PURPOSE -> {
-                    Purpose purpose = receiveObject();
-                    try {
-                        dataAccessManager.purposesRepository.update(purpose);
-                        sendObject(Response.SUCCESSFULLY);
-                    } catch (SQLException e) {
-                        sendObject(Response.ERROR);
-                    }
-                }
-                case DELETE_PURPOSE -> {
-                    int id = receiveObject();
-                    try {
-                        dataAccessManager.purposesRepository.delete(id);
-                        sendObject(Response.SUCCESSFULLY);
-                    } catch (SQLException e) {
-                        sendObject(Response.ERROR);
-                    }
-                }
-                case BAN_CLIENT -> {
-                    int id = receiveObject();
-                    try {
-                        var user = dataAccessManager.clientsRepository.getById(id);
-                        if (user.getId() == 0) {
-                            sendObject(Response.ERROR);
-                            continue;
-                        }
-                        user.setStatus(Status.BANNED);
-                        dataAccessManager.clientsRepository.update(user);
-                        sendObject(Response.SUCCESSFULLY);
-                    } catch (SQLException e) {
-                        sendObject(Response.ERROR);
-                    }
-                }
-                case UNBAN_CLIENT -> {
-                    int id = receiveObject();
-                    try {
-                        var user = dataAccessManager.clientsRepository.getById(id);
-                        if (user.getId() == 0) {
-                            sendObject(Response.ERROR);
-                            continue;
-                        }
-                        user.setStatus(Status.NOT_BANNED);
-                        dataAccessManager.clientsRepository.update(user);
-                        sendObject(Response.SUCCESSFULLY);
-                    } catch (SQLException e) {
-                        sendObject(Response.ERROR);
-                    }
-                }
-                case UNBAN_MASTER -> {
-                    int id = receiveObject();
-                    try {
-                        var user = dataAccessManager.mastersRepository.getById(id);
-                        if (user.getId() == 0) {
-                            sendObject(Response.ERROR);
-                            continue;
-                        }
-                        user.setStatus(Status.NOT_BANNED);
-                        dataAccessManager.mastersRepository.update(user);
-                        sendObject(Response.SUCCESSFULLY);
-                    } catch (SQLException e) {
-                        sendObject(Response.ERROR);
-                    }
-                }
-                case BAN_MASTER -> {
-                    int id = receiveObject();
-                    try {
-                        var user = dataAccessManager.mastersRepository.getById(id);
-                        if (user.getId() == 0) {
-                            sendObject(Response.ERROR);
-                            continue;
-                        }
-                        user.setStatus(Status.BANNED);
-                        dataAccessManager.mastersRepository.update(user);
-                        sendObject(Response.SUCCESSFULLY);
-                    } catch (SQLException e) {
-                        sendObject(Response.ERROR);
-                    }
-                }
-                case REGISTER_MASTER -> {
-                    Master master = receiveObject();
-                    try {
-                        dataAccessManager.mastersRepository.create(master);
-                        sendObject(Response.SUCCESSFULLY);
-                    } catch (SQLException e) {
-                        sendObject(Response.ERROR);
-                    }
-                }
-                case REGISTER_USER -> {
-                    User user = receiveObject();
-                    try {
-                        dataAccessManager.clientsRepository.create(user);
-                        sendObject(Response.SUCCESSFULLY);
-                    } catch (SQLException e) {
-                        sendObject(Response.ERROR);
-                    }
-                }
-                case GET_ALL_CURRENT_MASTER_RECORDS -> {
-                    try {
-                        var list = dataAccessManager.recordsRepository.getAllMasterRecords(clientInfo.getIdInDB());
-                        sendObject(new ArrayList<>(list));
-                    } catch (SQLException e) {
-                        sendObject(new ArrayList<>());
-                    }
-                }
-                case GET_ALL_CURRENT_CLIENT_RECORDS -> {
-                    try {
-                        var list = dataAccessManager.recordsRepository.getAllClientRecords(clientInfo.getIdInDB());
-                        sendObject(new ArrayList<>(list));
-                    } catch (SQLException e) {
-                        sendObject(new ArrayList<>());
-                    }
-                }
-                case ACCEPT_RECORD_TO_CURRENT_MASTER -> {
-                    int recordId = receiveObject();
-                    try {
-                        dataAccessManager.recordsRepository.addRecordToMaster(clientInfo.getIdInDB(), recordId);
-                        sendObject(Response.SUCCESSFULLY);
-                    } catch (SQLException e) {
-                        sendObject(Response.ERROR);
-                    }
-                }
-                case GET_ALL_RECORDS -> {
-                    try {
-                        var list = dataAccessManager.recordsRepository.getAll();
-                        sendObject(new ArrayList<>(list));
-                    } catch (SQLException e) {
-                        sendObject(new ArrayList<>());
-                    }
-                }
-                case GET_ALL_RECORDS_NOT_ACCEPTED -> {
-                    try {
-                        var list = dataAccessManager.recordsRepository.getAllNotAccepted();
-                        sendObject(new ArrayList<>(list));
-                    } catch (SQLException e) {
-                        sendObject(new ArrayList<>());
-                    }
-                }
-                case GET_ALL_RECORDS_ACCEPTED -> {
-                    try {
-                        var list = dataAccessManager.recordsRepository.getAllAccepted();
-                        sendObject(new ArrayList<>(list));
-                    } catch (SQLException e) {
-                        sendObject(new ArrayList<>());
-                    }
-                }
-                case GET_ALL_CLIENTS -> {
-                    try {
-                        var list = dataAccessManager.clientsRepository.getAll();
-                        sendObject(new ArrayList<>(list));
-                    } catch (SQLException e) {
-                        sendObject(new ArrayList<>());
-                    }
-                }
-                case GET_ALL_MASTERS -> {
-                    try {
-                        var list = dataAccessManager.mastersRepository.getAll();
-                        sendObject(new ArrayList<>(list));
-                    } catch (SQLException e) {
-                        sendObject(new ArrayList<>());
-                    }
-                }
-                case CREATE_RECORD -> {
-                    Record record = receiveObject();
-                    try {
-                        dataAccessManager.recordsRepository.create(record);
-                        sendObject(Response.SUCCESSFULLY);
-                    } catch (SQLException e) {
-                        sendObject(Response.ERROR);
-                    }
-                }
-                case DELETE_RECORD -> {
-                    int id = receiveObject();
-                    try {
-                        dataAccessManager.recordsRepository.delete(id);
-                        sendObject(Response.SUCCESSFULLY);
-                    } catch (SQLException e) {
-                        sendObject(Response.ERROR);
-                    }
-                }
-                case DELETE_ACCEPTION -> {
-                    int id = receiveObject();
-                    try {
-                        dataAccessManager.recordsRepository.deleteAcception(id);
-                        sendObject(Response.SUCCESSFULLY);
-                    } catch (SQLException e) {
-                        sendObject(Response.ERROR);
-                    }
-                }
-                case GET_CURRENT_PROFILE -> {
-                    try {
-                        switch (clientInfo.getType()){
-                            case ADMIN -> {
-                                var obj = dataAccessManager.adminsRepository.getById(clientInfo.getIdInDB());
-                                sendObject(obj);
-                                break;
-                            }
-                            case USER -> {
-                                var obj = dataAccessManager.clientsRepository.getById(clientInfo.getIdInDB());
-                                sendObject(obj);
-                                break;
-                            }
-                            case MASTER -> {
-                                var obj = dataAccessManager.mastersRepository.getById(clientInfo.getIdInDB());
-                                sendObject(obj);
-                                break;
-                            }
-                        }
-                    } catch (SQLException e) {
-                        sendObject(new User());
-                    }
-                }
-                case EDIT_CURRENT_PROFILE -> {
-                    UserType type = receiveObject();
-
-                    User user=null;
-                    Master master=null;
-
-                    if(type == UserType.USER)
-                        user = receiveObject();
-                    else
-                        master = receiveObject();
-                    try {
-                        if(user != null)
-                            dataAccessManager.clientsRepository.update(user);
-                        else
-                            dataAccessManager.mastersRepository.update(master);
-                        sendObject(Response.SUCCESSFULLY);
-                    } catch (SQLException e) {
-                        sendObject(Response.ERROR);
-                    }
-                }
+            } finally {
+                session.endCommand();
             }
         }
     }
-}
\ No newline at end of file
+
+    //В потоке объектов нет сигнала остановки сервера: команда, полученная после ее начала,
+    //не выполняется, клиент увидит закрытое подключение
+    private void beginCommand() throws IOException {
+        if (!session.beginCommand())
+            throw new IOException("Server is shutting down");
+    }
+}
@@ -0,0 +1,123 @@
+package serverEndPoint.threads;
+
+import serverEndPoint.ExecutionMode;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Запускает обработчики подключений в выбранном режиме (платформенные или виртуальные потоки)
+//и собирает статистику по ним
+public class ConnectionExecutor {
+
+    private final ExecutionMode mode;
+
+    //Используется только в режиме VIRTUAL
+    private final ExecutorService executor;
+
+    private final boolean virtualThreadsAvailable;
+
+    private final AtomicInteger activeConnections = new AtomicInteger();
+
+    private final AtomicInteger peakConnections = new AtomicInteger();
+
+    private final AtomicLong totalConnections = new AtomicLong();
+
+    public ConnectionExecutor(ExecutionMode mode) {
+        this.mode = mode;
+        if (mode == ExecutionMode.VIRTUAL) {
+            var virtualExecutor = newVirtualThreadExecutor();
+            virtualThreadsAvailable = virtualExecutor != null;
+            executor = virtualThreadsAvailable ? virtualExecutor : Executors.newCachedThreadPool();
+        } else {
+            virtualThreadsAvailable = false;
+            executor = null;
+        }
+    }
+
+    //Executors.newVirtualThreadPerTaskExecutor() вызывается через reflection:
+    //на JDK 19 без --enable-preview виртуальные потоки недоступны и сервер должен работать дальше
+    private static ExecutorService newVirtualThreadExecutor() {
+
+        try {
+            var factoryMethod = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factoryMethod.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            System.out.println("Virtual threads are not available in this JVM, falling back to a cached thread pool");
+            return null;
+        }
+    }
+
+    //Запуск обработки подключения. Исключения из обработчика передаются в exceptionHandler,
+    //как это делает обычный поток
+    public void execute(ClientProcessingThread processingThread, String name,
+                        Thread.UncaughtExceptionHandler exceptionHandler) {
+
+        Runnable task = () -> {
+            Thread.currentThread().setName(name);
+            var active = activeConnections.incrementAndGet();
+            peakConnections.accumulateAndGet(active, Math::max);
+            totalConnections.incrementAndGet();
+            try {
+                processingThread.run();
+            } catch (Throwable exception) {
+                exceptionHandler.uncaughtException(Thread.currentThread(), exception);
+            } finally {
+                activeConnections.decrementAndGet();
+            }
+        };
+
+        if (mode == ExecutionMode.VIRTUAL) {
+            executor.execute(task);
+        } else {
+            var thread = new Thread(task, name);
+            thread.start();
+        }
+    }
+
+    public void shutdown() {
+        if (executor != null)
+            executor.shutdownNow();
+    }
+
+    public ExecutionStats getStats() {
+
+        var threadBean = ManagementFactory.getThreadMXBean();
+        return new ExecutionStats(mode,
+                virtualThreadsAvailable,
+                activeConnections.get(),
+                peakConnections.get(),
+                totalConnections.get(),
+                threadBean.getThreadCount(),
+                threadBean.getPeakThreadCount(),
+                getCarrierParallelism(),
+                countCarrierThreads());
+    }
+
+    //Размер пула несущих потоков виртуальных потоков (по умолчанию - число ядер)
+    private static int getCarrierParallelism() {
+
+        var parallelism = System.getProperty("jdk.virtualThreadScheduler.parallelism");
+        if (parallelism != null) {
+            try {
+                return Integer.parseInt(parallelism);
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    //Несущие потоки планировщика виртуальных потоков - это рабочие потоки ForkJoinPool
+    private int countCarrierThreads() {
+
+        if (!virtualThreadsAvailable) return 0;
+        int count = 0;
+        for (var thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("ForkJoinPool-") && thread.isDaemon())
+                count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,28 @@
+package serverEndPoint.threads;
+
+import serverEndPoint.ExecutionMode;
+
+//Снимок статистики выполнения подключений
+public record ExecutionStats(ExecutionMode mode,
+                             boolean virtualThreadsAvailable,
+                             int activeConnections,
+                             int peakConnections,
+                             long totalConnections,
+                             int platformThreads,
+                             int peakPlatformThreads,
+                             int carrierParallelism,
+                             int carrierThreads) {
+
+    @Override
+    public String toString() {
+        return "mode=" + mode +
+                (mode == ExecutionMode.VIRTUAL && !virtualThreadsAvailable ? " (fallback: cached pool)" : "") +
+                ", active=" + activeConnections +
+                ", peak=" + peakConnections +
+                ", total=" + totalConnections +
+                ", platformThreads=" + platformThreads +
+                ", peakPlatformThreads=" + peakPlatformThreads +
+                ", carrierParallelism=" + carrierParallelism +
+                ", carrierThreads=" + carrierThreads;
+    }
+}